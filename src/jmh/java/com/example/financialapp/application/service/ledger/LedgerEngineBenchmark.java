@@ -0,0 +1,157 @@
+package com.example.financialapp.application.service.ledger;
+
+import com.example.financialapp.adapters.outbound.ProductBalanceSlotRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.application.service.cache.ProductCache;
+import com.example.financialapp.adapters.outbound.TransactionRepository;
+import com.example.financialapp.application.service.strategy.DepositStrategy;
+import com.example.financialapp.application.service.strategy.HotAccountBalances;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Compares deposit TPS of the request-thread strategy path with the partitioned ledger engine.
+// Repositories are in-memory fakes that charge a simulated round trip per call, so the numbers
+// reflect how many database round trips each path keeps on the critical path.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class LedgerEngineBenchmark {
+
+    @Param({"200"})
+    public long roundTripMicros;
+
+    @Param({"1000"})
+    public int accounts;
+
+    private final Map<Long, Money> balances = new ConcurrentHashMap<>();
+    private ProductRepository productRepository;
+    private TransactionRepository transactionRepository;
+    private DepositStrategy depositStrategy;
+    private LedgerEngine ledgerEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (long id = 1; id <= accounts; id++) {
+            balances.put(id, Money.ZERO);
+        }
+        productRepository = simulatedRepository(ProductRepository.class);
+        transactionRepository = simulatedRepository(TransactionRepository.class);
+        depositStrategy = new DepositStrategy(new HotAccountBalances(simulatedRepository(ProductBalanceSlotRepository.class),
+                new SimpleMeterRegistry(), Set.of(), 16),
+                new ProductCache(new SimpleMeterRegistry(), null, 10_000, Duration.ofSeconds(30)));
+        ledgerEngine = new LedgerEngine(productRepository, transactionRepository, null, new NoOpTransactionManager(),
+                Optional.empty(), null, Runtime.getRuntime().availableProcessors(), 1024, 256, 100_000);
+        ledgerEngine.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        ledgerEngine.stop();
+    }
+
+    @Benchmark
+    public Transaction strategyPath() {
+        Transaction transaction = deposit();
+        depositStrategy.execute(transaction, productRepository);
+        transactionRepository.save(transaction);
+        return transaction;
+    }
+
+    @Benchmark
+    public Transaction ledgerPath() {
+        return ledgerEngine.execute(deposit());
+    }
+
+    private Transaction deposit() {
+        Product destination = new Product();
+        destination.setId(ThreadLocalRandom.current().nextLong(1, accounts + 1));
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.DEPOSIT);
+        transaction.setAmount(Money.of(10));
+        transaction.setDestinationAccount(destination);
+        return transaction;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T simulatedRepository(Class<T> repositoryType) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> {
+                        roundTrip();
+                        Long id = (Long) args[0];
+                        Product product = new Product();
+                        product.setId(id);
+                        product.setBalance(balances.get(id));
+                        yield Optional.of(product);
+                    }
+                    case "save" -> {
+                        roundTrip();
+                        if (args[0] instanceof Product product) {
+                            balances.put(product.getId(), product.getBalance());
+                        }
+                        yield args[0];
+                    }
+                    case "adjustBalance" -> {
+                        roundTrip();
+                        balances.merge((Long) args[0], Money.of((BigDecimal) args[1]), Money::plus);
+                        yield 1;
+                    }
+                    case "updateBalance" -> {
+                        roundTrip();
+                        balances.put((Long) args[0], Money.of((BigDecimal) args[1]));
+                        yield 1;
+                    }
+                    case "saveAll" -> {
+                        roundTrip();
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> repositoryType.getSimpleName();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private void roundTrip() {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
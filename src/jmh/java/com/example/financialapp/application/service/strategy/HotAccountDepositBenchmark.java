@@ -0,0 +1,94 @@
+package com.example.financialapp.application.service.strategy;
+
+import com.example.financialapp.adapters.outbound.ProductBalanceSlotRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.application.service.cache.ProductCache;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Deposit throughput into a single account, with and without balance slots. The repositories are in-memory fakes in
+// which every UPDATE holds its row lock for a simulated statement plus commit round trip, the way InnoDB keeps it
+// until the deposit's transaction ends, so the unsharded case serializes all threads on one row.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class HotAccountDepositBenchmark {
+
+    private static final Long HOT_ACCOUNT = 1L;
+
+    @Param({"false", "true"})
+    public boolean sharded;
+
+    @Param({"16"})
+    public int slots;
+
+    @Param({"200"})
+    public long roundTripMicros;
+
+    private final Map<String, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+    private ProductRepository productRepository;
+    private DepositStrategy depositStrategy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productRepository = simulatedRepository(ProductRepository.class);
+        HotAccountBalances hotAccountBalances = new HotAccountBalances(
+                simulatedRepository(ProductBalanceSlotRepository.class), new SimpleMeterRegistry(),
+                sharded ? Set.of(HOT_ACCOUNT) : Set.of(), slots);
+        depositStrategy = new DepositStrategy(hotAccountBalances,
+                new ProductCache(new SimpleMeterRegistry(), null, 10_000, Duration.ofSeconds(30)));
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        Product destination = new Product();
+        destination.setId(HOT_ACCOUNT);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.DEPOSIT);
+        transaction.setAmount(Money.of(10));
+        transaction.setDestinationAccount(destination);
+        depositStrategy.execute(transaction, productRepository);
+        return transaction;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T simulatedRepository(Class<T> repositoryType) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "adjustBalance" -> updateRow("products:" + args[0]);
+                    case "credit" -> updateRow("product_balance_slots:" + args[0] + ":" + args[1]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> repositoryType.getSimpleName();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private int updateRow(String row) {
+        ReentrantLock lock = rowLocks.computeIfAbsent(row, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(2 * roundTripMicros));
+        } finally {
+            lock.unlock();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.financialapp.config;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Load test of the two request execution models: 1000 concurrent clients against a servlet container that either
+// hands requests to Tomcat's default pool of 200 platform threads or starts one virtual thread per request.
+// Each request blocks for two simulated JDBC round trips, as a withdrawal does. SampleTime reports the p99 latency
+// per model, and the peak number of requests the container actually served at once is printed after each trial.
+// The fork traces any virtual thread pinned while blocking.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(1000)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class RequestThreadingBenchmark {
+
+    public enum ThreadModel {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadModel threadModel;
+
+    // Tomcat's default server.tomcat.threads.max
+    @Param({"200"})
+    public int platformThreads;
+
+    @Param({"1000"})
+    public long roundTripMicros;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private ExecutorService container;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        container = threadModel == ThreadModel.PLATFORM
+                ? Executors.newFixedThreadPool(platformThreads)
+                : Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        container.shutdownNow();
+        System.out.println(threadModel + " peak concurrent requests: " + peakInFlight.get());
+    }
+
+    @Benchmark
+    public Boolean request() throws Exception {
+        return container.submit(this::handle).get();
+    }
+
+    private Boolean handle() {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            roundTrip();
+            roundTrip();
+            return Boolean.TRUE;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void roundTrip() {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.financialapp.domain;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Compares the balance arithmetic of a deposit, a withdrawal and a transfer on BigDecimal (as the strategies did
+// before Money) with the same steps on long minor units. Run with -prof gc to see the allocation difference.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MoneyArithmeticBenchmark {
+
+    private static final int ACCOUNTS = 1024;
+
+    private final BigDecimal[] decimalBalances = new BigDecimal[ACCOUNTS];
+    private final Money[] moneyBalances = new Money[ACCOUNTS];
+    private BigDecimal decimalAmount;
+    private Money moneyAmount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            long minorUnits = random.nextLong(1_000_000, 100_000_000);
+            decimalBalances[i] = BigDecimal.valueOf(minorUnits, Money.SCALE);
+            moneyBalances[i] = Money.ofMinor(minorUnits);
+        }
+        decimalAmount = new BigDecimal("125.50");
+        moneyAmount = Money.of(decimalAmount);
+    }
+
+    @Benchmark
+    public void bigDecimalDeposit(Blackhole blackhole) {
+        int account = account();
+        if (decimalAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalStateException();
+        }
+        decimalBalances[account] = decimalBalances[account].add(decimalAmount);
+        blackhole.consume(decimalBalances[account]);
+    }
+
+    @Benchmark
+    public void moneyDeposit(Blackhole blackhole) {
+        int account = account();
+        if (!moneyAmount.isPositive()) {
+            throw new IllegalStateException();
+        }
+        moneyBalances[account] = moneyBalances[account].plus(moneyAmount);
+        blackhole.consume(moneyBalances[account]);
+    }
+
+    @Benchmark
+    public void longDeposit(Blackhole blackhole) {
+        long amount = moneyAmount.minorUnits();
+        if (amount <= 0) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(Math.addExact(moneyBalances[account()].minorUnits(), amount));
+    }
+
+    @Benchmark
+    public void bigDecimalWithdrawal(Blackhole blackhole) {
+        int account = account();
+        BigDecimal amount = decimalAmount.negate();
+        if (amount.compareTo(BigDecimal.ZERO) >= 0) {
+            throw new IllegalStateException();
+        }
+        if (decimalBalances[account].compareTo(amount.abs()) < 0) {
+            blackhole.consume(amount);
+            return;
+        }
+        decimalBalances[account] = decimalBalances[account].subtract(amount.abs());
+        blackhole.consume(decimalBalances[account]);
+    }
+
+    @Benchmark
+    public void longWithdrawal(Blackhole blackhole) {
+        long amount = -moneyAmount.minorUnits();
+        if (amount >= 0) {
+            throw new IllegalStateException();
+        }
+        long balance = moneyBalances[account()].minorUnits();
+        if (balance < -amount) {
+            blackhole.consume(amount);
+            return;
+        }
+        blackhole.consume(Math.addExact(balance, amount));
+    }
+
+    @Benchmark
+    public void bigDecimalTransfer(Blackhole blackhole) {
+        int source = account();
+        int destination = (source + 1) % ACCOUNTS;
+        if (decimalAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalStateException();
+        }
+        if (decimalBalances[source].compareTo(decimalAmount) < 0) {
+            blackhole.consume(decimalAmount);
+            return;
+        }
+        decimalBalances[source] = decimalBalances[source].subtract(decimalAmount);
+        decimalBalances[destination] = decimalBalances[destination].add(decimalAmount);
+        blackhole.consume(decimalBalances[source]);
+        blackhole.consume(decimalBalances[destination]);
+    }
+
+    @Benchmark
+    public void longTransfer(Blackhole blackhole) {
+        int source = account();
+        int destination = (source + 1) % ACCOUNTS;
+        long amount = moneyAmount.minorUnits();
+        if (amount <= 0) {
+            throw new IllegalStateException();
+        }
+        long sourceBalance = moneyBalances[source].minorUnits();
+        if (sourceBalance < amount) {
+            blackhole.consume(amount);
+            return;
+        }
+        blackhole.consume(Math.subtractExact(sourceBalance, amount));
+        blackhole.consume(Math.addExact(moneyBalances[destination].minorUnits(), amount));
+    }
+
+    private static int account() {
+        return ThreadLocalRandom.current().nextInt(ACCOUNTS);
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.financialapp.adapters.inbound;
 
+import com.example.financialapp.application.service.ClientImportService;
 import com.example.financialapp.application.service.ClientService;
+import com.example.financialapp.application.service.onboarding.ClientImportPipeline;
 import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.ClientImportProgress;
+import com.example.financialapp.domain.ClientImportResult;
+import com.example.financialapp.domain.ClientSummary;
+import com.example.financialapp.domain.CursorPage;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.Constants;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +21,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/clients")
@@ -20,54 +29,98 @@ import java.util.List;
 public class ClientController {
 
     private final ClientService clientService;
-    private final Logger logger = LoggerFactory.getLogger(ClientController.class);
+    private final ClientImportService clientImportService;
+    private final ClientImportPipeline clientImportPipeline;
+    private static final Logger logger = LoggerFactory.getLogger(ClientController.class);
 
     @Autowired
-    public ClientController(ClientService clientService) {
+    public ClientController(ClientService clientService, ClientImportService clientImportService,
+                            ClientImportPipeline clientImportPipeline) {
         this.clientService = clientService;
+        this.clientImportService = clientImportService;
+        this.clientImportPipeline = clientImportPipeline;
     }
 
     @GetMapping
-    public ResponseEntity<List<Client>> getAllClients() {
-        logger.info("Fetching all clients");
-        List<Client> clients = clientService.getAllClients();
-        logger.debug("Number of clients fetched: {}", clients.size());
+    public ResponseEntity<CursorPage<Client>> getClients(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Constants.DEFAULT_PAGE_SIZE) @Min(1) @Max(Constants.MAX_PAGE_SIZE) int size) {
+        logger.debug("Fetching page of {} clients", size);
+        CursorPage<Client> clients = clientService.getClients(cursor, size);
+        logger.debug("Number of clients fetched: {}", clients.getItems().size());
         return ResponseEntity.ok(clients);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Client> getClientById(@PathVariable Long id) {
-        logger.info("Fetching client with id: {}", id);
+        logger.debug("Fetching client with id: {}", id);
         Client client = clientService.getClientById(id)
                 .orElseThrow(() -> {
-                    logger.warn("Client not found with id: {}", id);
+                    logger.debug("Client not found with id: {}", id);
                     return new ResourceNotFoundException("Client not found with id " + id);
                 });
-        logger.info("Client found: {}", client);
+        return ResponseEntity.ok(client);
+    }
+
+    @GetMapping("/by-identification/{identificationNumber}")
+    public ResponseEntity<ClientSummary> getClientByIdentificationNumber(@PathVariable String identificationNumber) {
+        logger.debug("Fetching client by identification number");
+        ClientSummary client = clientService.getClientByIdentificationNumber(identificationNumber)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        Constants.CLIENT_NOT_FOUND_BY_IDENTIFICATION + identificationNumber));
+        return ResponseEntity.ok(client);
+    }
+
+    @GetMapping("/by-email/{email}")
+    public ResponseEntity<ClientSummary> getClientByEmail(@PathVariable String email) {
+        logger.debug("Fetching client by email");
+        ClientSummary client = clientService.getClientByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException(Constants.CLIENT_NOT_FOUND_BY_EMAIL + email));
         return ResponseEntity.ok(client);
     }
 
     @PostMapping
     public ResponseEntity<Client> createClient(@Valid @RequestBody Client client) {
-        logger.info("Creating new client: {}", client);
+        logger.debug("Creating new client");
         Client createdClient = clientService.createClient(client);
-        logger.info("Client created successfully with id: {}", createdClient.getId());
+        logger.debug("Client created successfully with id: {}", createdClient.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(createdClient);
     }
 
+    // The body is read while it is uploaded, never held in memory as a whole
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ClientImportResult> importClients(InputStream csv) {
+        logger.info("Importing clients");
+        ClientImportResult result = clientImportService.importClients(csv);
+        return ResponseEntity.ok(result);
+    }
+
+    // Queues the import of a file in the import directory; starting it again resumes after its last committed chunk
+    @PostMapping("/imports/{fileName}")
+    public ResponseEntity<ClientImportProgress> startFileImport(@PathVariable String fileName) {
+        logger.info("Starting import of {}", fileName);
+        ClientImportProgress progress = clientImportPipeline.start(fileName);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(progress);
+    }
+
+    @GetMapping("/imports/{fileName}")
+    public ResponseEntity<ClientImportProgress> getFileImport(@PathVariable String fileName) {
+        return ResponseEntity.ok(clientImportPipeline.progress(fileName));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Client> updateClient(@PathVariable Long id, @Valid @RequestBody Client clientDetails) {
-        logger.info("Updating client with id: {}", id);
+        logger.debug("Updating client with id: {}", id);
         Client updatedClient = clientService.updateClient(id, clientDetails);
-        logger.info("Client updated successfully with id: {}", updatedClient.getId());
+        logger.debug("Client updated successfully with id: {}", updatedClient.getId());
         return ResponseEntity.ok(updatedClient);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteClient(@PathVariable Long id) {
-        logger.info("Deleting client with id: {}", id);
+        logger.debug("Deleting client with id: {}", id);
         clientService.deleteClient(id);
-        logger.info("Client with id {} deleted successfully", id);
+        logger.debug("Client with id {} deleted successfully", id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,10 +1,18 @@
 package com.example.financialapp.adapters.inbound;
 
+import com.example.financialapp.application.service.AccountStatementService;
 import com.example.financialapp.application.service.ProductService;
+import com.example.financialapp.domain.BalanceAsOf;
+import com.example.financialapp.domain.CursorPage;
 import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.StatementEntry;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.Constants;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -12,7 +20,7 @@ import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/products")
@@ -22,49 +30,72 @@ public class ProductController {
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
     private final ProductService productService;
+    private final AccountStatementService accountStatementService;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, AccountStatementService accountStatementService) {
         this.productService = productService;
+        this.accountStatementService = accountStatementService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        logger.info("Fetching all products");
-        List<Product> products = productService.getAllProducts();
+    public ResponseEntity<CursorPage<Product>> getProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Constants.DEFAULT_PAGE_SIZE) @Min(1) @Max(Constants.MAX_PAGE_SIZE) int size) {
+        logger.debug("Fetching page of {} products", size);
+        CursorPage<Product> products = productService.getProducts(cursor, size);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        logger.info("Fetching product with id: {}", id);
+        logger.debug("Fetching product with id: {}", id);
         Product product = productService.getProductById(id)
                 .orElseThrow(() -> {
-                    logger.error("Product not found with id: {}", id);
+                    logger.debug("Product not found with id: {}", id);
                     return new ResourceNotFoundException("Product not found with id " + id);
                 });
-        logger.info("Product fetched successfully with id: {}", id);
+        logger.debug("Product fetched successfully with id: {}", id);
         return ResponseEntity.ok(product);
     }
 
+    @GetMapping("/{id}/statement")
+    public ResponseEntity<CursorPage<StatementEntry>> getStatement(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Constants.DEFAULT_PAGE_SIZE) @Min(1) @Max(Constants.MAX_PAGE_SIZE) int size) {
+        logger.debug("Fetching statement of product {} between {} and {}", id, from, to);
+        return ResponseEntity.ok(accountStatementService.getStatement(id, from, to, cursor, size));
+    }
+
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<BalanceAsOf> getBalanceAsOf(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        logger.debug("Fetching balance of product {} as of {}", id, asOf);
+        return ResponseEntity.ok(accountStatementService.getBalanceAsOf(id, asOf));
+    }
+
     @PostMapping
     public ResponseEntity<Product> createProduct(@Valid @RequestBody Product product, @RequestParam Long clientId) {
-        logger.info("Creating new product for clientId: {}", clientId);
+        logger.debug("Creating new product for clientId: {}", clientId);
         Product createdProduct = productService.createProduct(product, clientId);
-        logger.info("Product created successfully with id: {}", createdProduct.getId());
+        logger.debug("Product created successfully with id: {}", createdProduct.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(@PathVariable Long id, @Valid @RequestBody Product productDetails) {
-        logger.info("Updating product with id: {}", id);
+        logger.debug("Updating product with id: {}", id);
         Product updatedProduct = productService.updateProduct(id, productDetails);
         return ResponseEntity.ok(updatedProduct);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        logger.info("Deleting product with id: {}", id);
+        logger.debug("Deleting product with id: {}", id);
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
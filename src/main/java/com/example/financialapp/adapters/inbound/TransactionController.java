@@ -1,17 +1,32 @@
 package com.example.financialapp.adapters.inbound;
 
+import com.example.financialapp.application.service.TransactionExportService;
 import com.example.financialapp.application.service.TransactionService;
+import com.example.financialapp.application.service.async.AsyncTransactionExecutor;
+import com.example.financialapp.domain.CursorPage;
 import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionBatchItemResult;
+import com.example.financialapp.domain.TransactionExportFormat;
+import com.example.financialapp.domain.TransactionRequest;
+import com.example.financialapp.domain.TransactionView;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.Constants;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,64 +35,115 @@ import java.util.List;
 public class TransactionController {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     private final TransactionService transactionService;
+    private final AsyncTransactionExecutor asyncTransactionExecutor;
+    private final TransactionExportService transactionExportService;
 
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, AsyncTransactionExecutor asyncTransactionExecutor,
+                                 TransactionExportService transactionExportService) {
         this.transactionService = transactionService;
+        this.asyncTransactionExecutor = asyncTransactionExecutor;
+        this.transactionExportService = transactionExportService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
-        logger.info("Fetching all transactions");
-        List<Transaction> transactions = transactionService.findAll();
-        if (transactions.isEmpty()) {
+    public ResponseEntity<CursorPage<TransactionView>> getTransactions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Constants.DEFAULT_PAGE_SIZE) @Min(1) @Max(Constants.MAX_PAGE_SIZE) int size) {
+        logger.debug("Fetching page of {} transactions", size);
+        CursorPage<TransactionView> transactions = transactionService.getTransactions(cursor, size);
+        if (transactions.getItems().isEmpty()) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long accountId,
+            @RequestParam(defaultValue = "NDJSON") TransactionExportFormat format) {
+        logger.info("Exporting transactions between {} and {} as {}", from, to, format);
+        StreamingResponseBody body = transactionExportService.exportTransactions(from, to, accountId, format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Transaction> getTransactionById(@PathVariable Long id) {
-        logger.info("Fetching transaction with id: {}", id);
-        Transaction transaction = transactionService.getTransactionById(id)
+    public ResponseEntity<TransactionView> getTransactionById(@PathVariable Long id) {
+        logger.debug("Fetching transaction with id: {}", id);
+        TransactionView transaction = transactionService.getTransactionById(id)
                 .orElseThrow(() -> {
-                    logger.error("Transaction not found with id: {}", id);
+                    logger.debug("Transaction not found with id: {}", id);
                     return new ResourceNotFoundException("Transaction not found with id " + id);
                 });
-        logger.info("Transaction fetched successfully with id: {}", id);
+        logger.debug("Transaction fetched successfully with id: {}", id);
         return ResponseEntity.ok(transaction);
     }
 
     @PostMapping
-    public ResponseEntity<Transaction> createTransaction(@Valid @RequestBody Transaction transaction) {
-        logger.info("Creating new transaction");
-        Transaction createdTransaction = transactionService.createTransaction(transaction);
+    public ResponseEntity<Transaction> createTransaction(@Valid @RequestBody Transaction transaction,
+                                                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        logger.debug("Creating new transaction");
+        Transaction createdTransaction = transactionService.createTransaction(transaction, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTransaction);
     }
 
+    @PostMapping(params = "async=true")
+    public ResponseEntity<TransactionRequest> submitTransaction(@Valid @RequestBody Transaction transaction,
+                                                                @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        logger.debug("Submitting new transaction for asynchronous processing");
+        TransactionRequest request = asyncTransactionExecutor.submit(transaction, idempotencyKey);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/transactions/requests/" + request.getTrackingId()))
+                .body(request);
+    }
+
+    @GetMapping("/requests/{trackingId}")
+    public ResponseEntity<TransactionRequest> getTransactionRequest(@PathVariable String trackingId) {
+        logger.debug("Fetching transaction request with tracking id: {}", trackingId);
+        TransactionRequest request = asyncTransactionExecutor.findRequest(trackingId)
+                .orElseThrow(() -> new ResourceNotFoundException(Constants.TRANSACTION_REQUEST_NOT_FOUND + trackingId));
+        return ResponseEntity.ok(request);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<TransactionBatchItemResult>> createTransactions(@Valid @RequestBody List<Transaction> transactions) {
+        logger.debug("Creating batch of {} transactions", transactions.size());
+        List<TransactionBatchItemResult> results = transactionService.createTransactions(transactions);
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/source/{sourceAccountId}")
-    public ResponseEntity<List<Transaction>> getTransactionsBySourceAccountId(@PathVariable Long sourceAccountId) {
-        logger.info("Fetching transactions for source account id: {}", sourceAccountId);
-        List<Transaction> transactions = transactionService.getTransactionsBySourceAccountId(sourceAccountId);
-        if (transactions.isEmpty()) {
-            logger.warn("No transactions found for source account id: {}", sourceAccountId);
+    public ResponseEntity<CursorPage<TransactionView>> getTransactionsBySourceAccountId(
+            @PathVariable Long sourceAccountId, @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Constants.DEFAULT_PAGE_SIZE) @Min(1) @Max(Constants.MAX_PAGE_SIZE) int size) {
+        logger.debug("Fetching transactions for source account id: {}", sourceAccountId);
+        CursorPage<TransactionView> transactions = transactionService.getTransactionsBySourceAccountId(sourceAccountId, cursor, size);
+        if (transactions.getItems().isEmpty()) {
+            logger.debug("No transactions found for source account id: {}", sourceAccountId);
             return ResponseEntity.noContent().build();
         }
-        logger.info("Number of transactions fetched for source account id {}: {}", sourceAccountId, transactions.size());
+        logger.debug("Number of transactions fetched for source account id {}: {}", sourceAccountId, transactions.getItems().size());
         return ResponseEntity.ok(transactions);
     }
 
     @GetMapping("/destination/{destinationAccountId}")
-    public ResponseEntity<List<Transaction>> getTransactionsByDestinationAccountId(@PathVariable Long destinationAccountId) {
-        logger.info("Fetching transactions for destination account id: {}", destinationAccountId);
-        List<Transaction> transactions = transactionService.getTransactionsByDestinationAccountId(destinationAccountId);
-        if (transactions.isEmpty()) {
-            logger.warn("No transactions found for destination account id: {}", destinationAccountId);
+    public ResponseEntity<CursorPage<TransactionView>> getTransactionsByDestinationAccountId(
+            @PathVariable Long destinationAccountId, @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Constants.DEFAULT_PAGE_SIZE) @Min(1) @Max(Constants.MAX_PAGE_SIZE) int size) {
+        logger.debug("Fetching transactions for destination account id: {}", destinationAccountId);
+        CursorPage<TransactionView> transactions = transactionService.getTransactionsByDestinationAccountId(destinationAccountId, cursor, size);
+        if (transactions.getItems().isEmpty()) {
+            logger.debug("No transactions found for destination account id: {}", destinationAccountId);
             return ResponseEntity.noContent().build();
         }
-        logger.info("Number of transactions fetched for destination account id {}: {}", destinationAccountId, transactions.size());
+        logger.debug("Number of transactions fetched for destination account id {}: {}", destinationAccountId, transactions.getItems().size());
         return ResponseEntity.ok(transactions);
     }
 }
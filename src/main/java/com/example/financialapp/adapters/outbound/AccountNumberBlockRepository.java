@@ -0,0 +1,20 @@
+package com.example.financialapp.adapters.outbound;
+
+import com.example.financialapp.domain.AccountNumberBlock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AccountNumberBlockRepository extends JpaRepository<AccountNumberBlock, String> {
+
+    // Held until the reservation commits, so two instances never reserve the same block
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountNumberBlock b WHERE b.prefix = :prefix")
+    Optional<AccountNumberBlock> findForUpdate(@Param("prefix") String prefix);
+}
@@ -0,0 +1,62 @@
+package com.example.financialapp.adapters.outbound;
+
+import com.example.financialapp.domain.BalanceCheckpoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, BalanceCheckpoint.Key> {
+
+    // Net effect on product p of its movements dated from :from on; withdrawal amounts are already negative. Left
+    // open for further conditions
+    String MOVEMENTS_FROM = "(SELECT COALESCE(SUM(CASE WHEN t.destination_account_id = p.id THEN t.amount ELSE 0 END "
+            + "+ CASE WHEN t.source_account_id = p.id THEN "
+            + "CASE WHEN t.transaction_type = 'WITHDRAWAL' THEN t.amount ELSE -t.amount END ELSE 0 END), 0) "
+            + "FROM transactions t WHERE (t.source_account_id = p.id OR t.destination_account_id = p.id) "
+            + "AND t.transaction_date >= :from";
+
+    // Products of the id chunk that existed at :from and have no checkpoint for :date yet, so a rerun only fills gaps
+    String CHUNK = " p.id > :afterId AND p.id <= :upToId AND p.created_at < :from "
+            + "AND NOT EXISTS (SELECT 1 FROM balance_checkpoints e WHERE e.product_id = p.id AND e.balance_date = :date)";
+
+    Optional<BalanceCheckpoint> findFirstByProductIdAndBalanceDateLessThanOrderByBalanceDateDesc(Long productId,
+                                                                                                 LocalDate date);
+
+    Optional<BalanceCheckpoint> findFirstByProductIdAndBalanceDateGreaterThanEqualOrderByBalanceDateAsc(Long productId,
+                                                                                                        LocalDate date);
+
+    @Query("SELECT MIN(c.balanceDate) FROM BalanceCheckpoint c")
+    LocalDate findEarliestBalanceDate();
+
+    // The current balance, hot account slots included, minus everything dated from the end of :date (:from) on.
+    // Cheap right after midnight, when few movements are that recent
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "balance_checkpoints"))
+    @Query(value = "INSERT INTO balance_checkpoints (product_id, balance_date, balance, created_at) "
+            + "SELECT p.id, :date, p.balance "
+            + "+ (SELECT COALESCE(SUM(s.balance), 0) FROM product_balance_slots s WHERE s.product_id = p.id) "
+            + "- " + MOVEMENTS_FROM + "), CURRENT_TIMESTAMP FROM products p WHERE" + CHUNK, nativeQuery = true)
+    int insertFromCurrentBalances(@Param("date") LocalDate date, @Param("from") LocalDateTime from,
+                                  @Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    // The checkpoint of the next day minus that day's movements, dated in [:from, :to)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "balance_checkpoints"))
+    @Query(value = "INSERT INTO balance_checkpoints (product_id, balance_date, balance, created_at) "
+            + "SELECT p.id, :date, c.balance - " + MOVEMENTS_FROM + " AND t.transaction_date < :to), CURRENT_TIMESTAMP "
+            + "FROM products p JOIN balance_checkpoints c ON c.product_id = p.id AND c.balance_date = :nextDate WHERE"
+            + CHUNK, nativeQuery = true)
+    int insertFromNextDay(@Param("date") LocalDate date, @Param("nextDate") LocalDate nextDate,
+                          @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                          @Param("afterId") Long afterId, @Param("upToId") Long upToId);
+}
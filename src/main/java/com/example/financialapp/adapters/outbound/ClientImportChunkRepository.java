@@ -0,0 +1,13 @@
+package com.example.financialapp.adapters.outbound;
+
+import com.example.financialapp.domain.ClientImportChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ClientImportChunkRepository extends JpaRepository<ClientImportChunk, ClientImportChunk.Key> {
+
+    List<ClientImportChunk> findByFileNameOrderByStartOffsetAsc(String fileName);
+}
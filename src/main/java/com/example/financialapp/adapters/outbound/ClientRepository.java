@@ -1,9 +1,11 @@
 package com.example.financialapp.adapters.outbound;
 
 import com.example.financialapp.domain.Client;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,6 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
 
     Optional<Client> findByIdentificationNumber(String identificationNumber);
     Optional<Client> findByEmail(String email);
+    boolean existsByIdentificationNumberOrEmail(String identificationNumber, String email);
+    List<Client> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -0,0 +1,31 @@
+package com.example.financialapp.adapters.outbound;
+
+import com.example.financialapp.domain.IdempotencyRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // A plain INSERT rather than save(): save() merges assigned ids, which would overwrite a concurrent request's row
+    // instead of failing on the primary key
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, response_body, created_at, expires_at) "
+            + "VALUES (:key, :requestHash, :responseBody, :createdAt, :expiresAt)", nativeQuery = true)
+    int insert(@Param("key") String key, @Param("requestHash") String requestHash,
+               @Param("responseBody") String responseBody, @Param("createdAt") LocalDateTime createdAt,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
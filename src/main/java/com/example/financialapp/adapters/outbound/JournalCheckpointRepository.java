@@ -0,0 +1,22 @@
+package com.example.financialapp.adapters.outbound;
+
+import com.example.financialapp.domain.JournalCheckpoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, Integer> {
+
+    // Never moves a checkpoint backwards, so a late retry of an older batch cannot cause records to be replayed twice
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "journal_checkpoints"))
+    @Query(value = "UPDATE journal_checkpoints SET sequence = :sequence, updated_at = CURRENT_TIMESTAMP "
+            + "WHERE partition_id = :partitionId AND sequence < :sequence", nativeQuery = true)
+    int advance(@Param("partitionId") Integer partitionId, @Param("sequence") Long sequence);
+}
@@ -0,0 +1,44 @@
+package com.example.financialapp.adapters.outbound;
+
+import com.example.financialapp.domain.ProductBalanceSlot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface ProductBalanceSlotRepository extends JpaRepository<ProductBalanceSlot, ProductBalanceSlot.Key> {
+
+    @Query("SELECT s.slot FROM ProductBalanceSlot s WHERE s.productId = :productId")
+    List<Integer> findSlotNumbers(@Param("productId") Long productId);
+
+    // Returns 0 when the slot row or the product does not exist. The product row is at most share-locked, which
+    // concurrent deposits into other slots do not wait on
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_balance_slots"))
+    @Query(value = "UPDATE product_balance_slots SET balance = balance + :amount WHERE product_id = :productId AND slot = :slot "
+            + "AND EXISTS (SELECT 1 FROM products WHERE id = :productId)", nativeQuery = true)
+    int credit(@Param("productId") Long productId, @Param("slot") int slot, @Param("amount") BigDecimal amount);
+
+    // Blocks deposits into the account's slots until the surrounding transaction ends
+    @Query(value = "SELECT balance FROM product_balance_slots WHERE product_id = :productId ORDER BY slot FOR UPDATE",
+            nativeQuery = true)
+    List<BigDecimal> lockSlots(@Param("productId") Long productId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_balance_slots"))
+    @Query(value = "UPDATE product_balance_slots SET balance = 0 WHERE product_id = :productId AND balance <> 0",
+            nativeQuery = true)
+    int clear(@Param("productId") Long productId);
+
+    @Query(value = "SELECT COALESCE(SUM(balance), 0) FROM product_balance_slots WHERE product_id = :productId",
+            nativeQuery = true)
+    BigDecimal sumBalance(@Param("productId") Long productId);
+}
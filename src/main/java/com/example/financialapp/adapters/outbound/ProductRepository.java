@@ -1,14 +1,58 @@
 package com.example.financialapp.adapters.outbound;
 
 import com.example.financialapp.domain.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    // Balance writes declare a query space no entity maps, so Hibernate does not drop the whole Product second-level
+    // cache region on every movement. Their callers evict just the touched products once they commit (ProductCache)
+    String BALANCE_QUERY_SPACE = "product_balances";
+
     List<Product> findByClientId(Long clientId);
     Optional<Product> findByAccountNumber(String accountNumber);
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Callers pass ids in ascending order so concurrent lockers always queue on the rows in the same sequence
+    @Query(value = "SELECT id FROM products WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Reads the row itself: the balance UPDATEs below bypass the persistence context and the second-level cache
+    @Query(value = "SELECT balance FROM products WHERE id = :id", nativeQuery = true)
+    BigDecimal findBalance(@Param("id") Long id);
+
+    // The products row plus the slots of a hot account, in one statement
+    @Query(value = "SELECT p.balance + COALESCE((SELECT SUM(s.balance) FROM product_balance_slots s "
+            + "WHERE s.product_id = p.id), 0) FROM products p WHERE p.id = :id", nativeQuery = true)
+    BigDecimal findTotalBalance(@Param("id") Long id);
+
+    // Applies the delta only if the resulting balance stays non-negative; returns 0 when the row is missing or the funds are short
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = BALANCE_QUERY_SPACE))
+    @Query(value = "UPDATE products SET balance = balance + :delta, updated_at = CURRENT_TIMESTAMP "
+            + "WHERE id = :id AND balance + :delta >= 0", nativeQuery = true)
+    int adjustBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
+
+    // For the ledger engine, which checked the funds before acknowledging the movement; returns 0 when the row is missing
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = BALANCE_QUERY_SPACE))
+    @Query(value = "UPDATE products SET balance = balance + :delta, updated_at = CURRENT_TIMESTAMP WHERE id = :id", nativeQuery = true)
+    int addToBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
 }
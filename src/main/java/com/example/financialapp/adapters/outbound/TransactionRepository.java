@@ -1,13 +1,88 @@
 package com.example.financialapp.adapters.outbound;
 
 import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionExportRow;
+import com.example.financialapp.domain.TransactionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findBySourceAccountId(Long sourceAccountId);
-    List<Transaction> findByDestinationAccountId(Long destinationAccountId);
+
+    // Each view query is a single statement: the accounts are outer joined for their numbers only
+    String SELECT_VIEW = "SELECT new com.example.financialapp.domain.TransactionView(t.id, t.transactionType, t.amount, "
+            + "t.transactionDate, s.accountNumber, d.accountNumber) "
+            + "FROM Transaction t LEFT JOIN t.sourceAccount s LEFT JOIN t.destinationAccount d ";
+
+    @Query(SELECT_VIEW + "WHERE t.id = :id")
+    Optional<TransactionView> findViewById(@Param("id") Long id);
+
+    // Keyset pages: each one seeks past the last row of the previous page on an index instead of skipping an OFFSET
+    @Query(SELECT_VIEW + "ORDER BY t.transactionDate, t.id")
+    List<TransactionView> findFirstPage(Limit limit);
+
+    // The leading >= lets the (transaction_date, id) index start the range scan at the cursor
+    @Query(SELECT_VIEW + "WHERE t.transactionDate >= :date "
+            + "AND (t.transactionDate > :date OR t.id > :id) ORDER BY t.transactionDate, t.id")
+    List<TransactionView> findPageAfter(@Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE t.sourceAccount.id = :accountId AND t.id > :afterId ORDER BY t.id")
+    List<TransactionView> findSourcePage(@Param("accountId") Long sourceAccountId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE t.destinationAccount.id = :accountId AND t.id > :afterId ORDER BY t.id")
+    List<TransactionView> findDestinationPage(@Param("accountId") Long destinationAccountId, @Param("afterId") Long afterId,
+                                              Limit limit);
+
+    // Both directions of one account in a single read; each side of the OR is a range on its (account, date) index.
+    // The account ids come from the foreign key columns, so no products are joined or loaded
+    @Query("SELECT new com.example.financialapp.domain.TransactionExportRow(t.id, t.transactionType, t.amount, "
+            + "t.transactionDate, t.sourceAccount.id, t.destinationAccount.id) FROM Transaction t "
+            + "WHERE (t.sourceAccount.id = :accountId OR t.destinationAccount.id = :accountId) AND t.transactionDate >= :afterDate "
+            + "AND (t.transactionDate > :afterDate OR t.id > :afterId) AND t.transactionDate < :to "
+            + "ORDER BY t.transactionDate, t.id")
+    List<TransactionExportRow> findStatementPage(@Param("accountId") Long accountId, @Param("afterDate") LocalDateTime afterDate,
+                                                 @Param("afterId") Long afterId, @Param("to") LocalDateTime to, Limit limit);
+
+    // Net effect on the account of the movements matching the appended conditions; withdrawal amounts are already negative
+    String SUM_MOVEMENTS = "SELECT COALESCE(SUM(CASE WHEN destination_account_id = :accountId THEN amount ELSE 0 END "
+            + "+ CASE WHEN source_account_id = :accountId THEN "
+            + "CASE WHEN transaction_type = 'WITHDRAWAL' THEN amount ELSE -amount END ELSE 0 END), 0) "
+            + "FROM transactions WHERE (source_account_id = :accountId OR destination_account_id = :accountId) ";
+
+    // Every movement after the given (date, id)
+    @Query(value = SUM_MOVEMENTS + "AND transaction_date >= :afterDate AND (transaction_date > :afterDate OR id > :afterId)",
+            nativeQuery = true)
+    BigDecimal sumMovementsAfter(@Param("accountId") Long accountId, @Param("afterDate") LocalDateTime afterDate,
+                                 @Param("afterId") Long afterId);
+
+    @Query(value = SUM_MOVEMENTS + "AND transaction_date >= :from AND transaction_date < :to", nativeQuery = true)
+    BigDecimal sumMovementsBetween(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+
+    @Query(value = SUM_MOVEMENTS + "AND transaction_date >= :from", nativeQuery = true)
+    BigDecimal sumMovementsFrom(@Param("accountId") Long accountId, @Param("from") LocalDateTime from);
+
+    // Forward-only read for exports; must be consumed inside a transaction and closed. A fetch size of
+    // Integer.MIN_VALUE makes MySQL Connector/J stream the rows one by one instead of buffering the result, for this
+    // query only; the connection runs nothing else until the stream is closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new com.example.financialapp.domain.TransactionExportRow(t.id, t.transactionType, t.amount, "
+            + "t.transactionDate, t.sourceAccount.id, t.destinationAccount.id) FROM Transaction t "
+            + "WHERE t.transactionDate >= :from AND t.transactionDate < :to "
+            + "AND (:accountId IS NULL OR t.sourceAccount.id = :accountId OR t.destinationAccount.id = :accountId) "
+            + "ORDER BY t.transactionDate, t.id")
+    Stream<TransactionExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                 @Param("accountId") Long accountId);
 }
@@ -0,0 +1,12 @@
+package com.example.financialapp.application.service;
+
+import com.example.financialapp.domain.BalanceAsOf;
+import com.example.financialapp.domain.CursorPage;
+import com.example.financialapp.domain.StatementEntry;
+
+import java.time.LocalDateTime;
+
+public interface AccountStatementService {
+    CursorPage<StatementEntry> getStatement(Long productId, LocalDateTime from, LocalDateTime to, String cursor, int size);
+    BalanceAsOf getBalanceAsOf(Long productId, LocalDateTime asOf);
+}
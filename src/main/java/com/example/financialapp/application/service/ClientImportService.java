@@ -0,0 +1,9 @@
+package com.example.financialapp.application.service;
+
+import com.example.financialapp.domain.ClientImportResult;
+
+import java.io.InputStream;
+
+public interface ClientImportService {
+    ClientImportResult importClients(InputStream csv);
+}
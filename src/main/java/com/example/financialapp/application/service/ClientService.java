@@ -1,14 +1,17 @@
 package com.example.financialapp.application.service;
 
 import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.ClientSummary;
+import com.example.financialapp.domain.CursorPage;
 
-import java.util.List;
 import java.util.Optional;
 
 public interface ClientService {
     Client createClient(Client client);
     Client updateClient(Long id, Client clientDetails);
     void deleteClient(Long id);
-    List<Client> getAllClients();
+    CursorPage<Client> getClients(String cursor, int size);
     Optional<Client> getClientById(Long id);
+    Optional<ClientSummary> getClientByIdentificationNumber(String identificationNumber);
+    Optional<ClientSummary> getClientByEmail(String email);
 }
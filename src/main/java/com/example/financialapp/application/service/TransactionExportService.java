@@ -0,0 +1,10 @@
+package com.example.financialapp.application.service;
+
+import com.example.financialapp.domain.TransactionExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+public interface TransactionExportService {
+    StreamingResponseBody exportTransactions(LocalDateTime from, LocalDateTime to, Long accountId, TransactionExportFormat format);
+}
@@ -1,14 +1,19 @@
 package com.example.financialapp.application.service;
 
+import com.example.financialapp.domain.CursorPage;
 import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionBatchItemResult;
+import com.example.financialapp.domain.TransactionView;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface TransactionService {
     Transaction createTransaction(Transaction transaction);
-    List<Transaction> getTransactionsBySourceAccountId(Long sourceAccountId);
-    List<Transaction> getTransactionsByDestinationAccountId(Long destinationAccountId);
-    Optional<Transaction> getTransactionById(Long id);
-    List<Transaction> findAll();
+    Transaction createTransaction(Transaction transaction, String idempotencyKey);
+    List<TransactionBatchItemResult> createTransactions(List<Transaction> transactions);
+    CursorPage<TransactionView> getTransactionsBySourceAccountId(Long sourceAccountId, String cursor, int size);
+    CursorPage<TransactionView> getTransactionsByDestinationAccountId(Long destinationAccountId, String cursor, int size);
+    Optional<TransactionView> getTransactionById(Long id);
+    CursorPage<TransactionView> getTransactions(String cursor, int size);
 }
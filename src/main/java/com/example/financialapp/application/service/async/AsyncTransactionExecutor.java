@@ -0,0 +1,133 @@
+package com.example.financialapp.application.service.async;
+
+import com.example.financialapp.application.service.TransactionService;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionRequest;
+import com.example.financialapp.infrastructure.exception.AccountLockTimeoutException;
+import com.example.financialapp.infrastructure.exception.IdempotencyKeyInProgressException;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.infrastructure.exception.TransactionQueueFullException;
+import com.example.financialapp.util.Constants;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs transactions submitted with ?async=true on a bounded worker pool and keeps their outcome for polling.
+// Tracking state lives in memory: requests still queued when the instance stops are lost, and a finished outcome
+// can be polled for the configured status TTL.
+@Component
+public class AsyncTransactionExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransactionExecutor.class);
+
+    private final TransactionService transactionService;
+    private final ThreadPoolExecutor workers;
+    private final Cache<String, TransactionRequest> requests;
+    private final Timer completedTimer;
+    private final Timer rejectedTimer;
+    private final Counter queueFullCounter;
+
+    @Autowired
+    public AsyncTransactionExecutor(TransactionService transactionService, MeterRegistry meterRegistry,
+                                    @Value("${financialapp.async.workers:8}") int workerCount,
+                                    @Value("${financialapp.async.queue-capacity:1000}") int queueCapacity,
+                                    @Value("${financialapp.async.status-ttl:1h}") Duration statusTtl,
+                                    @Value("${financialapp.async.status-max-size:100000}") long statusMaxSize) {
+        if (workerCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Async worker count and queue capacity must be positive");
+        }
+        this.transactionService = transactionService;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "transaction-worker-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.requests = Caffeine.newBuilder()
+                .maximumSize(statusMaxSize)
+                .expireAfterWrite(statusTtl)
+                .build();
+
+        Gauge.builder("transactions.async.queue.depth", workers, executor -> executor.getQueue().size())
+                .description("Submitted transactions waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("transactions.async.workers.utilization", workers,
+                        executor -> (double) executor.getActiveCount() / executor.getMaximumPoolSize())
+                .description("Share of workers currently executing a transaction")
+                .register(meterRegistry);
+        this.completedTimer = completionTimer(meterRegistry, TransactionRequest.Status.COMPLETED);
+        this.rejectedTimer = completionTimer(meterRegistry, TransactionRequest.Status.REJECTED);
+        this.queueFullCounter = Counter.builder("transactions.async.queue.full")
+                .description("Submissions refused because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public TransactionRequest submit(Transaction transaction, String idempotencyKey) {
+        TransactionRequest pending = TransactionRequest.pending(UUID.randomUUID().toString());
+        requests.put(pending.getTrackingId(), pending);
+        long submittedAt = System.nanoTime();
+        try {
+            workers.execute(() -> run(pending, transaction, idempotencyKey, submittedAt));
+        } catch (RejectedExecutionException ex) {
+            requests.invalidate(pending.getTrackingId());
+            queueFullCounter.increment();
+            throw new TransactionQueueFullException(Constants.TRANSACTION_QUEUE_FULL);
+        }
+        return pending;
+    }
+
+    public Optional<TransactionRequest> findRequest(String trackingId) {
+        return Optional.ofNullable(requests.getIfPresent(trackingId));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("{} asynchronous transactions were still queued at shutdown", workers.shutdownNow().size());
+        }
+    }
+
+    private void run(TransactionRequest pending, Transaction transaction, String idempotencyKey, long submittedAt) {
+        TransactionRequest finished;
+        try {
+            finished = pending.completed(transactionService.createTransaction(transaction, idempotencyKey));
+        } catch (InvalidRequestException | ResourceNotFoundException | AccountLockTimeoutException
+                 | IdempotencyKeyInProgressException ex) {
+            finished = pending.rejected(ex.getMessage());
+        } catch (RuntimeException ex) {
+            // The message of an unexpected failure can carry SQL or other internals, so it stays in the log
+            logger.error("Asynchronous transaction {} failed", pending.getTrackingId(), ex);
+            finished = pending.rejected(Constants.TRANSACTION_FAILED);
+        }
+        Timer timer = finished.getStatus() == TransactionRequest.Status.COMPLETED ? completedTimer : rejectedTimer;
+        timer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        requests.put(finished.getTrackingId(), finished);
+    }
+
+    private static Timer completionTimer(MeterRegistry meterRegistry, TransactionRequest.Status status) {
+        return Timer.builder("transactions.async.completion")
+                .description("Time from submission until the transaction completed or was rejected")
+                .tag("status", status.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.financialapp.application.service.cache;
+
+import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.ClientSummary;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Client summaries by id, with identification number and email indexes pointing at the id. An index entry is only
+// trusted when the summary it points to still carries that key, so an email changed by updateClient stops resolving
+// as soon as the client itself is evicted
+@Component
+public class ClientCache {
+
+    private final Cache<Long, ClientSummary> clients;
+    private final Cache<String, Long> idsByIdentificationNumber;
+    private final Cache<String, Long> idsByEmail;
+    // Bumped by every eviction; a load that started before one is not cached, it may have read the old row
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public ClientCache(MeterRegistry meterRegistry,
+                       @Value("${financialapp.client-cache.max-size:10000}") long maxSize,
+                       @Value("${financialapp.client-cache.ttl:5m}") Duration ttl) {
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idsByIdentificationNumber = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        this.idsByEmail = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        Caches.monitor(meterRegistry, clients, "clients");
+    }
+
+    public Optional<ClientSummary> getByIdentificationNumber(String identificationNumber,
+                                                             Function<String, Optional<Client>> loader) {
+        return get(idsByIdentificationNumber, identificationNumber, ClientSummary::identificationNumber, loader);
+    }
+
+    public Optional<ClientSummary> getByEmail(String email, Function<String, Optional<Client>> loader) {
+        return get(idsByEmail, email, ClientSummary::email, loader);
+    }
+
+    public void evictAfterCommit(Long id) {
+        Caches.afterCommit(() -> evict(id));
+    }
+
+    private Optional<ClientSummary> get(Cache<String, Long> index, String value, Function<ClientSummary, String> keyOf,
+                                        Function<String, Optional<Client>> loader) {
+        String key = normalize(value);
+        Long id = index.getIfPresent(key);
+        ClientSummary cached = id == null ? null : clients.getIfPresent(id);
+        if (cached != null && normalize(keyOf.apply(cached)).equals(key)) {
+            return Optional.of(cached);
+        }
+        long evictionsBeforeLoad = evictions.get();
+        Optional<ClientSummary> loaded = loader.apply(value).map(ClientSummary::of);
+        loaded.ifPresent(summary -> put(summary, evictionsBeforeLoad));
+        return loaded;
+    }
+
+    // Runs under the lock of the client's entry, which evict also takes, so an eviction either sees the new entry
+    // and removes it or has already been counted and prevents it
+    private void put(ClientSummary summary, long evictionsBeforeLoad) {
+        clients.asMap().compute(summary.id(), (id, current) -> {
+            if (evictions.get() != evictionsBeforeLoad) {
+                return current;
+            }
+            idsByIdentificationNumber.put(normalize(summary.identificationNumber()), id);
+            idsByEmail.put(normalize(summary.email()), id);
+            return summary;
+        });
+    }
+
+    private void evict(Long id) {
+        evictions.incrementAndGet();
+        ClientSummary evicted = clients.asMap().remove(id);
+        if (evicted != null) {
+            idsByIdentificationNumber.invalidate(normalize(evicted.identificationNumber()));
+            idsByEmail.invalidate(normalize(evicted.email()));
+        }
+    }
+
+    // The unique indexes compare with the case-insensitive default collation, so the cache keys do too
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
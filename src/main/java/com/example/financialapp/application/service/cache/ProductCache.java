@@ -0,0 +1,60 @@
+package com.example.financialapp.application.service.cache;
+
+import com.example.financialapp.domain.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Product snapshots for GET /api/products/{id}. Every balance or product change evicts the product once its database
+// transaction has committed; the TTL only bounds how long a change made outside this instance can go unnoticed.
+// The balance UPDATEs bypass Hibernate, so the same evictions also drop the product from the second-level cache
+@Component
+public class ProductCache {
+
+    private final Cache<Long, Product> cache;
+    private final jakarta.persistence.Cache secondLevelCache;
+
+    @Autowired
+    public ProductCache(MeterRegistry meterRegistry, EntityManagerFactory entityManagerFactory,
+                        @Value("${financialapp.product-cache.max-size:10000}") long maxSize,
+                        @Value("${financialapp.product-cache.ttl:30s}") Duration ttl) {
+        this.secondLevelCache = entityManagerFactory == null ? null : entityManagerFactory.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        Caches.monitor(meterRegistry, cache, "products");
+    }
+
+    // A miss runs the loader atomically for its id, so an eviction arriving meanwhile waits for it and then drops
+    // what it loaded instead of leaving a pre-commit snapshot behind. Absent products are not cached
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void evictAfterCommit(Long id) {
+        Caches.afterCommit(() -> evict(id));
+    }
+
+    public void evict(Collection<Long> ids) {
+        ids.forEach(this::evict);
+    }
+
+    // Second-level cache first: a miss here reloads through findById, which must not find the old row there
+    private void evict(Long id) {
+        if (secondLevelCache != null) {
+            secondLevelCache.evict(Product.class, id);
+        }
+        cache.invalidate(id);
+    }
+}
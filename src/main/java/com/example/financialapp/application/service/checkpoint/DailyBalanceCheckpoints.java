@@ -0,0 +1,103 @@
+package com.example.financialapp.application.service.checkpoint;
+
+import com.example.financialapp.adapters.outbound.BalanceCheckpointRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.ToIntBiFunction;
+
+// Writes the closing balance of every account for each day into balance_checkpoints, one INSERT ... SELECT per chunk
+// of product ids, so GET /api/products/{id}/balance?asOf= never has to replay more than a day of movements
+@Component
+public class DailyBalanceCheckpoints {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyBalanceCheckpoints.class);
+
+    private final ProductRepository productRepository;
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int backfillDays;
+
+    @Autowired
+    public DailyBalanceCheckpoints(ProductRepository productRepository, BalanceCheckpointRepository checkpointRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${financialapp.balance-checkpoints.chunk-size:500}") int chunkSize,
+                                   @Value("${financialapp.balance-checkpoints.backfill-days:0}") int backfillDays) {
+        if (chunkSize < 1 || backfillDays < 0) {
+            throw new IllegalArgumentException("Checkpoint chunk size must be positive and backfill days non-negative");
+        }
+        this.productRepository = productRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // On MySQL the SELECT part is then a consistent read instead of share-locking the products rows it reads
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.chunkSize = chunkSize;
+        this.backfillDays = backfillDays;
+    }
+
+    @Scheduled(cron = "${financialapp.balance-checkpoints.cron:0 5 0 * * *}")
+    public void run() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        checkpoint(yesterday);
+        backfill(yesterday.minusDays(backfillDays));
+    }
+
+    // Worked back from the current balances, which also picks up balances set directly with PUT /api/products/{id}
+    public void checkpoint(LocalDate date) {
+        int written = forEachChunk((afterId, upToId) -> checkpointRepository.insertFromCurrentBalances(
+                date, date.plusDays(1).atStartOfDay(), afterId, upToId));
+        logger.info("Wrote {} balance checkpoints for {}", written, date);
+    }
+
+    // Extends the checkpoints back from the oldest one, a day at a time, each day derived from the day after it
+    public void backfill(LocalDate oldest) {
+        LocalDate earliest = checkpointRepository.findEarliestBalanceDate();
+        if (earliest == null) {
+            return;
+        }
+        for (LocalDate date = earliest.minusDays(1); !date.isBefore(oldest); date = date.minusDays(1)) {
+            LocalDate day = date;
+            int written = forEachChunk((afterId, upToId) -> checkpointRepository.insertFromNextDay(day, day.plusDays(1),
+                    day.plusDays(1).atStartOfDay(), day.plusDays(2).atStartOfDay(), afterId, upToId));
+            logger.info("Backfilled {} balance checkpoints for {}", written, day);
+            if (written == 0) {
+                // No account existed that early
+                return;
+            }
+        }
+    }
+
+    // Each chunk commits on its own, so a large run neither holds one long transaction nor redoes finished chunks
+    private int forEachChunk(ToIntBiFunction<Long, Long> insert) {
+        int written = 0;
+        Long afterId = 0L;
+        while (true) {
+            List<Long> ids = productRepository.findIdsAfter(afterId, Limit.of(chunkSize));
+            if (ids.isEmpty()) {
+                return written;
+            }
+            Long from = afterId;
+            Long upTo = ids.get(ids.size() - 1);
+            try {
+                written += transactionTemplate.execute(status -> insert.applyAsInt(from, upTo));
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance wrote the same checkpoints first
+                logger.debug("Balance checkpoints for products {} to {} already exist", from + 1, upTo);
+            }
+            afterId = upTo;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.financialapp.application.service.commit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Coalesces the database work of concurrent callers into shared transactions, so a burst of requests pays one commit
+// (and one log flush on MySQL) instead of one each. A single committer thread owns every group transaction.
+@Component
+@ConditionalOnProperty(name = "financialapp.transactions.processing-mode", havingValue = "GROUP_COMMIT")
+public class GroupCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitter.class);
+
+    private final TransactionTemplate groupTransactionTemplate;
+    private final TransactionTemplate itemTransactionTemplate;
+    private final BlockingQueue<Request<?>> queue;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer queueWaitTimer;
+    private final Timer commitTimer;
+    private final Thread committer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public GroupCommitter(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                          @Value("${financialapp.group-commit.window-micros:2000}") long windowMicros,
+                          @Value("${financialapp.group-commit.max-batch-size:64}") int maxBatchSize,
+                          @Value("${financialapp.group-commit.queue-capacity:4096}") int queueCapacity) {
+        if (windowMicros < 0 || maxBatchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Group commit window must not be negative, batch size and queue capacity must be positive");
+        }
+        this.groupTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.itemTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.itemTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizeSummary = DistributionSummary.builder("transactions.group_commit.batch.size")
+                .description("Requests committed together in one database transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("transactions.group_commit.queue.wait")
+                .description("Time a request waits between submission and the start of its group transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("transactions.group_commit.commit")
+                .description("Duration of a group transaction, including the commit")
+                .register(meterRegistry);
+        this.committer = new Thread(this::run, "group-committer");
+    }
+
+    @PostConstruct
+    public void start() {
+        committer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        committer.join();
+    }
+
+    // Blocks until the group containing this work has committed, then returns its result or rethrows its failure
+    public <T> T execute(Supplier<T> work) {
+        Request<T> request = new Request<>(work, new CompletableFuture<>(), System.nanoTime());
+        try {
+            queue.put(request);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing for group commit", ex);
+        }
+        try {
+            return request.future().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void run() {
+        List<Request<?>> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Request<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                collect(group, System.nanoTime() + windowNanos);
+                commit(group);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    // Keeps gathering until the group is full or the window opened by its first request has elapsed
+    private void collect(List<Request<?>> group, long deadline) throws InterruptedException {
+        queue.drainTo(group, maxBatchSize - group.size());
+        while (group.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Request<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+            queue.drainTo(group, maxBatchSize - group.size());
+        }
+    }
+
+    private void commit(List<Request<?>> group) {
+        long start = System.nanoTime();
+        for (Request<?> request : group) {
+            queueWaitTimer.record(start - request.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        batchSizeSummary.record(group.size());
+
+        List<Runnable> completions = new ArrayList<>(group.size());
+        try {
+            groupTransactionTemplate.executeWithoutResult(status -> {
+                for (Request<?> request : group) {
+                    completions.add(runInSavepoint(request));
+                }
+            });
+        } catch (RuntimeException ex) {
+            // The shared commit itself failed (deadlock victim, lost connection...): nothing of the group is durable,
+            // so every request gets its own transaction and only the ones that fail again report an error
+            logger.warn("Group commit of {} requests failed, retrying them one by one", group.size(), ex);
+            completions.clear();
+            for (Request<?> request : group) {
+                completions.add(runAlone(request));
+            }
+        }
+        commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        // Callers are only released after the commit, never with results that could still roll back
+        completions.forEach(Runnable::run);
+    }
+
+    // A failing request is rolled back to its savepoint so the rest of the group still commits
+    private <T> Runnable runInSavepoint(Request<T> request) {
+        try {
+            T result = itemTransactionTemplate.execute(status -> request.work().get());
+            return () -> request.future().complete(result);
+        } catch (RuntimeException ex) {
+            return () -> request.future().completeExceptionally(ex);
+        }
+    }
+
+    private <T> Runnable runAlone(Request<T> request) {
+        try {
+            T result = groupTransactionTemplate.execute(status -> request.work().get());
+            return () -> request.future().complete(result);
+        } catch (RuntimeException ex) {
+            return () -> request.future().completeExceptionally(ex);
+        }
+    }
+
+    private record Request<T>(Supplier<T> work, CompletableFuture<T> future, long enqueuedAt) {
+    }
+}
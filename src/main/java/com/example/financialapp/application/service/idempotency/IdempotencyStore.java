@@ -0,0 +1,178 @@
+package com.example.financialapp.application.service.idempotency;
+
+import com.example.financialapp.adapters.outbound.IdempotencyRecordRepository;
+import com.example.financialapp.domain.IdempotencyRecord;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.util.Constants;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, IdempotencyRecord> cache;
+    // Keys whose movement is being applied outside a database transaction, by the ledger engine
+    private final Set<String> reserved = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                            @Value("${financialapp.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${financialapp.idempotency.cache-max-size:100000}") long cacheMaxSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                // Entries loaded from the table on a miss keep the expiry they were written with
+                .expireAfter(new RecordExpiry())
+                .build();
+    }
+
+    private static final class RecordExpiry implements Expiry<String, IdempotencyRecord> {
+
+        @Override
+        public long expireAfterCreate(String key, IdempotencyRecord record, long currentTime) {
+            return Math.max(0, Duration.between(LocalDateTime.now(), record.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException(Constants.INVALID_IDEMPOTENCY_KEY + MAX_KEY_LENGTH);
+        }
+    }
+
+    public String fingerprint(Transaction transaction) {
+        String request = transaction.getTransactionType() + "|" + transaction.getAmount() + "|"
+                + accountId(transaction.getSourceAccount()) + "|" + accountId(transaction.getDestinationAccount());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // Cache hits are answered from memory; only a miss (first attempt, eviction or restart) reads the table
+    public Optional<Transaction> findReplay(String key, String requestHash) {
+        IdempotencyRecord record = cache.getIfPresent(key);
+        if (record == null) {
+            record = idempotencyRecordRepository.findById(key)
+                    .filter(found -> found.getExpiresAt().isAfter(LocalDateTime.now()))
+                    .orElse(null);
+            if (record == null) {
+                return Optional.empty();
+            }
+            cache.put(key, record);
+        }
+
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new InvalidRequestException(Constants.IDEMPOTENCY_KEY_REUSED + key);
+        }
+        return Optional.of(readResponse(record));
+    }
+
+    // Claims the key for one request at a time where the movement cannot commit together with the key's row
+    public boolean reserve(String key) {
+        return reserved.add(key);
+    }
+
+    public void release(String key) {
+        reserved.remove(key);
+    }
+
+    // Must run inside the transaction that applies the movement: a concurrent duplicate then fails on the primary key
+    // and rolls back its own balance changes
+    public void record(String key, String requestHash, Transaction response) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey(key);
+        record.setRequestHash(requestHash);
+        record.setResponseBody(writeResponse(response));
+        record.setCreatedAt(LocalDateTime.now());
+        record.setExpiresAt(record.getCreatedAt().plus(ttl));
+        idempotencyRecordRepository.insert(key, requestHash, record.getResponseBody(), record.getCreatedAt(),
+                record.getExpiresAt());
+
+        // Only committed responses may be replayed from memory
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(key, record);
+                }
+            });
+        } else {
+            cache.put(key, record);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${financialapp.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Transaction readResponse(IdempotencyRecord record) {
+        try {
+            return objectMapper.readValue(record.getResponseBody(), Transaction.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored response for idempotency key " + record.getIdempotencyKey()
+                    + " cannot be read", ex);
+        }
+    }
+
+    private String writeResponse(Transaction response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Transaction response cannot be serialized", ex);
+        }
+    }
+
+    private static Long accountId(Product product) {
+        return product == null ? null : product.getId();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.financialapp.application.service.impl;
+
+import com.example.financialapp.adapters.outbound.BalanceCheckpointRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.adapters.outbound.TransactionRepository;
+import com.example.financialapp.application.service.AccountStatementService;
+import com.example.financialapp.application.service.strategy.HotAccountBalances;
+import com.example.financialapp.domain.BalanceAsOf;
+import com.example.financialapp.domain.BalanceCheckpoint;
+import com.example.financialapp.domain.CursorPage;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.StatementEntry;
+import com.example.financialapp.domain.TransactionExportRow;
+import com.example.financialapp.domain.TransactionType;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.Constants;
+import com.example.financialapp.util.PageCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class AccountStatementServiceImpl implements AccountStatementService {
+
+    private final ProductRepository productRepository;
+    private final TransactionRepository transactionRepository;
+    private final HotAccountBalances hotAccountBalances;
+    private final BalanceCheckpointRepository checkpointRepository;
+
+    @Autowired
+    public AccountStatementServiceImpl(ProductRepository productRepository, TransactionRepository transactionRepository,
+                                       HotAccountBalances hotAccountBalances,
+                                       BalanceCheckpointRepository checkpointRepository) {
+        this.productRepository = productRepository;
+        this.transactionRepository = transactionRepository;
+        this.hotAccountBalances = hotAccountBalances;
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    // Running balances are worked out backwards from the current balance, minus whatever moved after the page.
+    // One read-only transaction, so on MySQL all the reads see the same snapshot
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<StatementEntry> getStatement(Long productId, LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException(Constants.INVALID_STATEMENT_RANGE);
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + productId));
+
+        LocalDateTime afterDate = from;
+        Long afterId = 0L;
+        if (cursor != null) {
+            PageCursor.TimestampAndId after = PageCursor.decodeTimestampAndId(cursor);
+            afterDate = after.timestamp();
+            afterId = after.id();
+        }
+        CursorPage<TransactionExportRow> page = CursorPage.of(
+                transactionRepository.findStatementPage(productId, afterDate, afterId, to, Limit.of(size + 1)), size,
+                row -> PageCursor.of(row.transactionDate(), row.id()));
+        if (page.getItems().isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        TransactionExportRow last = page.getItems().get(page.getItems().size() - 1);
+        Money balance = hotAccountBalances.totalBalance(product).minus(Money.of(
+                transactionRepository.sumMovementsAfter(productId, last.transactionDate(), last.id())));
+        List<StatementEntry> entries = new ArrayList<>(page.getItems().size());
+        for (int i = page.getItems().size() - 1; i >= 0; i--) {
+            TransactionExportRow row = page.getItems().get(i);
+            Money amount = effectOn(productId, row);
+            entries.add(StatementEntry.builder()
+                    .transactionId(row.id())
+                    .transactionType(row.transactionType())
+                    .transactionDate(row.transactionDate())
+                    .amount(amount)
+                    .balance(balance)
+                    .counterpartyAccountId(productId.equals(row.sourceAccountId())
+                            ? row.destinationAccountId() : row.sourceAccountId())
+                    .build());
+            balance = balance.minus(amount);
+        }
+        Collections.reverse(entries);
+        return new CursorPage<>(entries, page.getNextCursor());
+    }
+
+    // Starts from the last daily checkpoint before asOf's day, so at most about a day of movements is summed. Without
+    // one, the first checkpoint after asOf is walked back instead, and without any checkpoint the current balance
+    @Override
+    @Transactional(readOnly = true)
+    public BalanceAsOf getBalanceAsOf(Long productId, LocalDateTime asOf) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + productId));
+        if (product.getCreatedAt() != null && asOf.isBefore(product.getCreatedAt())) {
+            throw new InvalidRequestException(Constants.BALANCE_BEFORE_PRODUCT_CREATION);
+        }
+
+        LocalDate day = asOf.toLocalDate();
+        Optional<BalanceCheckpoint> before =
+                checkpointRepository.findFirstByProductIdAndBalanceDateLessThanOrderByBalanceDateDesc(productId, day);
+        Money balance;
+        if (before.isPresent()) {
+            balance = before.get().getBalance().plus(Money.of(
+                    transactionRepository.sumMovementsBetween(productId, endOf(before.get()), asOf)));
+        } else {
+            balance = checkpointRepository.findFirstByProductIdAndBalanceDateGreaterThanEqualOrderByBalanceDateAsc(productId, day)
+                    .map(after -> after.getBalance().minus(Money.of(
+                            transactionRepository.sumMovementsBetween(productId, asOf, endOf(after)))))
+                    .orElseGet(() -> hotAccountBalances.totalBalance(product).minus(Money.of(
+                            transactionRepository.sumMovementsFrom(productId, asOf))));
+        }
+        return new BalanceAsOf(productId, asOf, balance);
+    }
+
+    private static LocalDateTime endOf(BalanceCheckpoint checkpoint) {
+        return checkpoint.getBalanceDate().plusDays(1).atStartOfDay();
+    }
+
+    // Mirrors the strategies: withdrawals carry a negative amount, transfers a positive one taken from the source
+    private static Money effectOn(Long productId, TransactionExportRow row) {
+        Money effect = Money.ZERO;
+        if (productId.equals(row.destinationAccountId())) {
+            effect = effect.plus(row.amount());
+        }
+        if (productId.equals(row.sourceAccountId())) {
+            effect = effect.plus(row.transactionType() == TransactionType.WITHDRAWAL ? row.amount() : row.amount().negate());
+        }
+        return effect;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.financialapp.application.service.impl;
+
+import com.example.financialapp.adapters.outbound.ClientRepository;
+import com.example.financialapp.application.service.ClientImportService;
+import com.example.financialapp.application.service.onboarding.ClientRowParser;
+import com.example.financialapp.application.service.onboarding.CsvRow;
+import com.example.financialapp.application.service.onboarding.RowRejectedException;
+import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.ClientImportResult;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Loads clients and their products from an uploaded CSV (see ClientRowParser.HEADER). Rows are read as they arrive and
+// saved in chunks of chunk-size clients, one database transaction each; with pooled ids Hibernate sends every chunk's
+// inserts as JDBC batches. A bad row stops the import, the chunks before it stay committed. Large files on disk go
+// through ClientImportPipeline instead
+@Service
+public class ClientImportServiceImpl implements ClientImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientImportServiceImpl.class);
+
+    private final ClientRepository clientRepository;
+    private final ClientRowParser clientRowParser;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public ClientImportServiceImpl(ClientRepository clientRepository, ClientRowParser clientRowParser,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${financialapp.client-import.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Client import chunk size must be positive");
+        }
+        this.clientRepository = clientRepository;
+        this.clientRowParser = clientRowParser;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ClientImportResult importClients(InputStream csv) {
+        long started = System.nanoTime();
+        Progress progress = new Progress();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            if (!ClientRowParser.HEADER.equals(reader.readLine())) {
+                throw new InvalidRequestException(Constants.INVALID_CLIENT_IMPORT_HEADER + ClientRowParser.HEADER);
+            }
+            List<CsvRow> clientRows = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                progress.line++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (!clientRows.isEmpty()
+                        && !ClientRowParser.clientKey(clientRows.get(0).text()).equals(ClientRowParser.clientKey(line))) {
+                    add(clientRows, progress);
+                }
+                clientRows.add(new CsvRow(progress.line, line));
+            }
+            if (!clientRows.isEmpty()) {
+                add(clientRows, progress);
+            }
+            save(progress);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        ClientImportResult result = ClientImportResult.of(progress.clients, progress.products, 0,
+                System.nanoTime() - started);
+        logger.info("Imported {} clients and {} products in {} ms ({} clients/s)", result.clients(), result.products(),
+                result.elapsedMillis(), result.clientsPerSecond());
+        return result;
+    }
+
+    private void add(List<CsvRow> clientRows, Progress progress) {
+        if (progress.chunk.size() == chunkSize) {
+            save(progress);
+        }
+        if (progress.chunk.isEmpty()) {
+            progress.chunkFirstLine = clientRows.get(0).lineNumber();
+        }
+        progress.chunkLastLine = clientRows.get(clientRows.size() - 1).lineNumber();
+        try {
+            progress.chunk.add(clientRowParser.parse(clientRows));
+        } catch (RowRejectedException ex) {
+            throw new InvalidRequestException(Constants.CLIENT_IMPORT_FAILED + ex.getLineNumber() + " after "
+                    + progress.clients + " clients were imported: " + ex.getMessage());
+        }
+        clientRows.clear();
+    }
+
+    private void save(Progress progress) {
+        if (progress.chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> clientRepository.saveAll(progress.chunk));
+        } catch (DataIntegrityViolationException ex) {
+            throw new InvalidRequestException(Constants.CLIENT_IMPORT_FAILED + progress.chunkFirstLine + " after "
+                    + progress.clients + " clients were imported: a client between this line and line " + progress.chunkLastLine
+                    + " repeats an identification number, email or account number that is already registered");
+        }
+        progress.clients += progress.chunk.size();
+        progress.products += progress.chunk.stream().mapToLong(client -> client.getProducts().size()).sum();
+        progress.chunk.clear();
+    }
+
+    private final class Progress {
+        private final List<Client> chunk = new ArrayList<>(chunkSize);
+        private long line = 1;
+        private long chunkFirstLine;
+        private long chunkLastLine;
+        private long clients;
+        private long products;
+    }
+}
@@ -1,34 +1,38 @@
 package com.example.financialapp.application.service.impl;
 
 import com.example.financialapp.application.service.ClientService;
+import com.example.financialapp.application.service.cache.ClientCache;
+import com.example.financialapp.application.service.onboarding.OnboardingRules;
 import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.ClientSummary;
+import com.example.financialapp.domain.CursorPage;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
 import com.example.financialapp.adapters.outbound.ClientRepository;
 import com.example.financialapp.util.Constants;
+import com.example.financialapp.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
+    private final ClientCache clientCache;
 
     @Autowired
-    public ClientServiceImpl(ClientRepository clientRepository) {
+    public ClientServiceImpl(ClientRepository clientRepository, ClientCache clientCache) {
         this.clientRepository = clientRepository;
+        this.clientCache = clientCache;
     }
 
     @Override
     public Client createClient(Client client) {
-        if (client.getBirthdate().plusYears(18).isAfter(LocalDate.now())) {
-            throw new InvalidRequestException(Constants.CLIENT_UNDERAGE);
-        }
+        OnboardingRules.checkNewClient(client);
         return clientRepository.save(client);
     }
 
@@ -41,7 +45,9 @@ public class ClientServiceImpl implements ClientService {
         client.setLastName(clientDetails.getLastName());
         client.setEmail(clientDetails.getEmail());
         client.setUpdatedAt(LocalDateTime.now());
-        return clientRepository.save(client);
+        Client savedClient = clientRepository.save(client);
+        clientCache.evictAfterCommit(id);
+        return savedClient;
     }
 
     @Override
@@ -53,15 +59,31 @@ public class ClientServiceImpl implements ClientService {
             throw new InvalidRequestException(Constants.CLIENT_HAS_PRODUCTS);
         }
         clientRepository.delete(client);
+        clientCache.evictAfterCommit(id);
     }
 
     @Override
-    public List<Client> getAllClients() {
-        return clientRepository.findAll();
+    public CursorPage<Client> getClients(String cursor, int size) {
+        Long afterId = cursor == null ? 0L : PageCursor.decodeId(cursor);
+        return CursorPage.of(clientRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1)), size,
+                client -> PageCursor.ofId(client.getId()));
     }
 
+    // Not served from ClientCache: this response carries the client's products and their balances, which a summary
+    // snapshot would let go stale. The client, its product list and each product are in the second-level cache
+    // instead, and every balance change evicts its product there, so a repeated read issues no SQL yet stays current
     @Override
     public Optional<Client> getClientById(Long id) {
         return clientRepository.findById(id);
     }
+
+    @Override
+    public Optional<ClientSummary> getClientByIdentificationNumber(String identificationNumber) {
+        return clientCache.getByIdentificationNumber(identificationNumber, clientRepository::findByIdentificationNumber);
+    }
+
+    @Override
+    public Optional<ClientSummary> getClientByEmail(String email) {
+        return clientCache.getByEmail(email, clientRepository::findByEmail);
+    }
 }
@@ -2,20 +2,29 @@ package com.example.financialapp.application.service.impl;
 
 import com.example.financialapp.adapters.outbound.ClientRepository;
 import com.example.financialapp.application.service.ProductService;
+import com.example.financialapp.application.service.cache.ProductCache;
+import com.example.financialapp.application.service.ledger.LedgerEngine;
+import com.example.financialapp.application.service.onboarding.OnboardingRules;
+import com.example.financialapp.application.service.sequence.AccountNumberAllocator;
+import com.example.financialapp.application.service.strategy.HotAccountBalances;
 import com.example.financialapp.domain.AccountStatus;
-import com.example.financialapp.domain.AccountType;
 import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.CursorPage;
+import com.example.financialapp.domain.Money;
 import com.example.financialapp.domain.Product;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
 import com.example.financialapp.adapters.outbound.ProductRepository;
 import com.example.financialapp.util.Constants;
+import com.example.financialapp.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -23,11 +32,21 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final ClientRepository clientRepository;
+    private final HotAccountBalances hotAccountBalances;
+    private final ProductCache productCache;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final Optional<LedgerEngine> ledgerEngine;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository, ClientRepository clientRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, ClientRepository clientRepository,
+                              HotAccountBalances hotAccountBalances, ProductCache productCache,
+                              AccountNumberAllocator accountNumberAllocator, Optional<LedgerEngine> ledgerEngine) {
         this.productRepository = productRepository;
         this.clientRepository = clientRepository;
+        this.hotAccountBalances = hotAccountBalances;
+        this.productCache = productCache;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.ledgerEngine = ledgerEngine;
     }
 
     @Override
@@ -35,71 +54,102 @@ public class ProductServiceImpl implements ProductService {
         Client client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new ResourceNotFoundException("Client not found with id " + clientId));
 
-        validateAndSetDefaults(product);
-
-        if (product.getStatus() == AccountStatus.CANCELED) {
-            throw new InvalidRequestException("Cannot create a product with a CANCELLED status");
-        }
+        OnboardingRules.checkNewProductAndSetDefaults(product);
         product.setClient(client);
-        Product savedProduct = productRepository.save(product);
-        savedProduct.setAccountNumber(generateAccountNumber(savedProduct));
-
-        return productRepository.save(savedProduct);
-    }
-
-    private void validateAndSetDefaults(Product product) {
-        if (product.getAccountType() == AccountType.SAVINGS) {
-            // Ensure savings account balance is not negative
-            if (product.getBalance().compareTo(BigDecimal.ZERO) < 0) {
-                throw new InvalidRequestException("Savings account balance cannot be negative");
-            }
-            // Set default status to ACTIVE for savings accounts
-            if (product.getStatus() == null) {
-                product.setStatus(AccountStatus.ACTIVE);
-            }
-        }
-    }
+        // Known before the INSERT, so the product is written once
+        product.setAccountNumber(accountNumberAllocator.next(product.getAccountType()));
 
-    private String generateAccountNumber(Product product) {
-        String prefix = product.getAccountType() == AccountType.SAVINGS ? "53" : "33";
-        String uniqueNumber = String.format("%08d", product.getId()); // Use the generated ID of the product
-        return prefix + uniqueNumber;
+        return productRepository.save(product);
     }
 
+    // The slot reset runs a modifying query; it, the save and the cache eviction after commit form one unit, so a
+    // failed save cannot lose the balances held in the slots
     @Override
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + id));
 
-        if (productDetails.getStatus() == AccountStatus.CANCELED && product.getBalance().compareTo(BigDecimal.ZERO) != 0) {
-            throw new InvalidRequestException("Cannot cancel an account with a non-zero balance");
+        boolean canceling = productDetails.getStatus() == AccountStatus.CANCELED;
+        if (ledgerEngine.isEmpty() && canceling && !hotAccountBalances.totalBalance(product).isZero()) {
+            throw new InvalidRequestException(Constants.CANCEL_NON_EMPTY_ACCOUNT);
         }
         product.setStatus(productDetails.getStatus());
-        product.setBalance(productDetails.getBalance());
+        if (ledgerEngine.isEmpty()) {
+            product.setBalance(productDetails.getBalance());
+        }
         product.setGmfExempt(productDetails.isGmfExempt());
         product.setUpdatedAt(LocalDateTime.now());
 
-        return productRepository.save(product);
+        hotAccountBalances.clearSlots(id);
+        Product savedProduct = productRepository.save(product);
+        if (ledgerEngine.isPresent()) {
+            // The UPDATE above leaves the balance column alone (Product is @DynamicUpdate)
+            setBalanceAfterCommit(ledgerEngine.get(), id, productDetails.getBalance(), canceling);
+            savedProduct = hotAccountBalances.snapshot(savedProduct);
+            savedProduct.setBalance(productDetails.getBalance());
+        }
+        productCache.evictAfterCommit(id);
+        return savedProduct;
+    }
+
+    // The engine owns the balance and persists its movements on its own threads, so the new balance is applied once
+    // this update has committed. Canceling closes the account meanwhile: the engine checks that its balance is zero
+    // and holds off its movements until the outcome is known
+    private void setBalanceAfterCommit(LedgerEngine engine, Long id, Money balance, boolean canceling) {
+        if (canceling) {
+            engine.closeToCancel(id);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (canceling) {
+                    engine.reopen(id);
+                }
+                if (status == STATUS_COMMITTED) {
+                    engine.setBalance(id, balance);
+                }
+            }
+        });
     }
 
     @Override
+    @Transactional
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + id));
-        if (product.getBalance().compareTo(BigDecimal.ZERO) != 0) {
-            throw new InvalidRequestException("Cannot delete an account with a non-zero balance");
+        if (ledgerEngine.isPresent()) {
+            // The engine checks the balance it holds, stops taking movements for the account and waits until the
+            // earlier ones are in the tables; the account is handed back if the delete does not commit
+            LedgerEngine engine = ledgerEngine.get();
+            engine.close(id);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        engine.reopen(id);
+                    }
+                }
+            });
+        } else if (!hotAccountBalances.totalBalance(product).isZero()) {
+            throw new InvalidRequestException(Constants.DELETE_NON_EMPTY_ACCOUNT);
         }
 
         productRepository.delete(product);
+        productCache.evictAfterCommit(id);
     }
 
     @Override
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public CursorPage<Product> getProducts(String cursor, int size) {
+        Long afterId = cursor == null ? 0L : PageCursor.decodeId(cursor);
+        return CursorPage.of(productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1)), size,
+                        product -> PageCursor.ofId(product.getId()))
+                .map(hotAccountBalances::withTotalBalance);
     }
 
     @Override
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        // Served from a detached snapshot, never the managed entity
+        return productCache.get(id, key -> productRepository.findById(key).map(hotAccountBalances::snapshot));
     }
 }
@@ -0,0 +1,119 @@
+package com.example.financialapp.application.service.impl;
+
+import com.example.financialapp.adapters.outbound.TransactionRepository;
+import com.example.financialapp.application.service.TransactionExportService;
+import com.example.financialapp.domain.TransactionExportFormat;
+import com.example.financialapp.domain.TransactionExportRow;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.util.Constants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportServiceImpl.class);
+    private static final String CSV_HEADER = "id,transactionType,amount,transactionDate,sourceAccountId,destinationAccountId";
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    @Autowired
+    public TransactionExportServiceImpl(TransactionRepository transactionRepository, ObjectMapper objectMapper,
+                                        PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        // Rows are flushed by the generator's buffer filling up, not one socket write each
+        this.rowWriter = objectMapper.writerFor(TransactionExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    // Validated before anything is written, so a bad range still gets a 400; the rows are only read once the
+    // response body is written, and go out as they come off the cursor
+    @Override
+    public StreamingResponseBody exportTransactions(LocalDateTime from, LocalDateTime to, Long accountId,
+                                                    TransactionExportFormat format) {
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException(Constants.INVALID_EXPORT_RANGE);
+        }
+        return out -> {
+            try {
+                long rows = readOnlyTransactionTemplate.execute(status -> {
+                    try (Stream<TransactionExportRow> stream = transactionRepository.streamForExport(from, to, accountId)) {
+                        return format == TransactionExportFormat.CSV
+                                ? writeCsv(stream.iterator(), out)
+                                : writeNdjson(stream.iterator(), out);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                logger.info("Exported {} transactions between {} and {}", rows, from, to);
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
+    }
+
+    private long writeNdjson(Iterator<TransactionExportRow> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = rowWriter.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Each row ends with its own newline, so no space is written between root values
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                rowWriter.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<TransactionExportRow> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            TransactionExportRow row = rows.next();
+            writer.write(String.valueOf(row.id()));
+            writer.write(',');
+            writer.write(row.transactionType().name());
+            writer.write(',');
+            writer.write(row.amount().toString());
+            writer.write(',');
+            writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(row.transactionDate()));
+            writer.write(',');
+            writer.write(row.sourceAccountId() == null ? "" : row.sourceAccountId().toString());
+            writer.write(',');
+            writer.write(row.destinationAccountId() == null ? "" : row.destinationAccountId().toString());
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+}
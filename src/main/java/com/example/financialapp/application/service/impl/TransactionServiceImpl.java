@@ -1,37 +1,307 @@
 package com.example.financialapp.application.service.impl;
 
 import com.example.financialapp.application.service.TransactionService;
+import com.example.financialapp.application.service.commit.GroupCommitter;
+import com.example.financialapp.application.service.idempotency.IdempotencyStore;
+import com.example.financialapp.application.service.ledger.LedgerEngine;
+import com.example.financialapp.application.service.metrics.TransactionMetrics;
 import com.example.financialapp.application.service.strategy.TransactionStrategy;
+import com.example.financialapp.domain.CursorPage;
+import com.example.financialapp.domain.Product;
 import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionBatchItemResult;
 import com.example.financialapp.domain.TransactionType;
+import com.example.financialapp.domain.TransactionView;
+import com.example.financialapp.infrastructure.exception.AccountLockTimeoutException;
+import com.example.financialapp.infrastructure.exception.IdempotencyKeyInProgressException;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
 import com.example.financialapp.adapters.outbound.ProductRepository;
 import com.example.financialapp.adapters.outbound.TransactionRepository;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
 import com.example.financialapp.util.Constants;
+import com.example.financialapp.util.PageCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TransactionServiceImpl.class);
+
     private final TransactionRepository transactionRepository;
     private final ProductRepository productRepository;
     private final Map<TransactionType, TransactionStrategy> strategyMap;
+    private final Optional<LedgerEngine> ledgerEngine;
+    private final Optional<GroupCommitter> groupCommitter;
+    private final IdempotencyStore idempotencyStore;
+    private final TransactionMetrics transactionMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate itemTransactionTemplate;
+    private final int batchChunkSize;
+    private final int batchMaxSize;
 
     @Autowired
     public TransactionServiceImpl(TransactionRepository transactionRepository, ProductRepository productRepository,
-                                  Map<TransactionType, TransactionStrategy> strategyMap) {
+                                  Map<TransactionType, TransactionStrategy> strategyMap,
+                                  Optional<LedgerEngine> ledgerEngine,
+                                  Optional<GroupCommitter> groupCommitter,
+                                  IdempotencyStore idempotencyStore,
+                                  TransactionMetrics transactionMetrics,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${financialapp.transactions.batch.chunk-size:100}") int batchChunkSize,
+                                  @Value("${financialapp.transactions.batch.max-size:5000}") int batchMaxSize) {
         this.transactionRepository = transactionRepository;
         this.productRepository = productRepository;
         this.strategyMap = strategyMap;
+        this.ledgerEngine = ledgerEngine;
+        this.groupCommitter = groupCommitter;
+        this.idempotencyStore = idempotencyStore;
+        this.transactionMetrics = transactionMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.itemTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.itemTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.batchChunkSize = batchChunkSize;
+        this.batchMaxSize = batchMaxSize;
     }
 
     @Override
     public Transaction createTransaction(Transaction transaction) {
+        return transactionMetrics.track(1, () -> create(transaction));
+    }
+
+    @Override
+    public Transaction createTransaction(Transaction transaction, String idempotencyKey) {
+        return transactionMetrics.track(1, () -> idempotencyKey == null
+                ? create(transaction)
+                : createIdempotent(transaction, idempotencyKey));
+    }
+
+    private Transaction create(Transaction transaction) {
+        TransactionStrategy strategy = resolveStrategy(transaction);
+
+        // In LEDGER and JOURNAL modes balances live in the partitioned engine, which also persists the transaction row
+        if (ledgerEngine.isPresent()) {
+            return ledgerEngine.get().execute(transaction);
+        }
+
+        // The strategies issue conditional UPDATEs, so the balance changes and the transaction row commit or roll back together
+        return inTransaction(() -> {
+            executeAndSave(strategy, transaction);
+            return transaction;
+        });
+    }
+
+    private Transaction createIdempotent(Transaction transaction, String idempotencyKey) {
+        idempotencyStore.validateKey(idempotencyKey);
+
+        // A retry of a request that already completed gets the original response without touching any balance
+        String requestHash = idempotencyStore.fingerprint(transaction);
+        Optional<Transaction> replay = idempotencyStore.findReplay(idempotencyKey, requestHash);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        TransactionStrategy strategy = resolveStrategy(transaction);
+        if (ledgerEngine.isPresent()) {
+            return createIdempotentOnLedger(transaction, idempotencyKey, requestHash, ledgerEngine.get());
+        }
+        try {
+            // The key is inserted in the same database transaction as the balance updates, so of two simultaneous
+            // requests with the same key only one commits and the other rolls back
+            return inTransaction(() -> {
+                executeAndSave(strategy, transaction);
+                idempotencyStore.record(idempotencyKey, requestHash, transaction);
+                return transaction;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            return idempotencyStore.findReplay(idempotencyKey, requestHash).orElseThrow(() -> ex);
+        }
+    }
+
+    // The engine commits on its own threads, so the key cannot be inserted in the movement's transaction: it is
+    // reserved before the movement is submitted, and a duplicate that finds it reserved never reaches the engine
+    private Transaction createIdempotentOnLedger(Transaction transaction, String idempotencyKey, String requestHash,
+                                                 LedgerEngine engine) {
+        if (!idempotencyStore.reserve(idempotencyKey)) {
+            return idempotencyStore.findReplay(idempotencyKey, requestHash).orElseThrow(() ->
+                    new IdempotencyKeyInProgressException(Constants.IDEMPOTENCY_KEY_IN_PROGRESS + idempotencyKey));
+        }
+        try {
+            // The request that held the reservation may have recorded its response since the first lookup
+            Optional<Transaction> replay = idempotencyStore.findReplay(idempotencyKey, requestHash);
+            if (replay.isPresent()) {
+                return replay.get();
+            }
+            Transaction applied = engine.execute(transaction);
+            transactionTemplate.executeWithoutResult(status -> idempotencyStore.record(idempotencyKey, requestHash, applied));
+            return applied;
+        } finally {
+            idempotencyStore.release(idempotencyKey);
+        }
+    }
+
+    @Override
+    public List<TransactionBatchItemResult> createTransactions(List<Transaction> transactions) {
+        return transactionMetrics.track(transactions == null ? 0 : transactions.size(), () -> createBatch(transactions));
+    }
+
+    private List<TransactionBatchItemResult> createBatch(List<Transaction> transactions) {
+        if (transactions == null || transactions.isEmpty() || transactions.size() > batchMaxSize) {
+            throw new InvalidRequestException(Constants.INVALID_TRANSACTION_BATCH_SIZE + batchMaxSize);
+        }
+
+        // Every item is checked before the first chunk runs, so a malformed one is rejected without touching a balance
+        TransactionBatchItemResult[] results = new TransactionBatchItemResult[transactions.size()];
+        List<Integer> valid = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            try {
+                validate(transactions.get(i));
+                valid.add(i);
+            } catch (InvalidRequestException ex) {
+                results[i] = rejected(i, ex);
+            }
+        }
+
+        if (ledgerEngine.isPresent()) {
+            createTransactionsOnLedger(transactions, valid, results, ledgerEngine.get());
+        } else {
+            for (int from = 0; from < valid.size(); from += batchChunkSize) {
+                executeChunk(transactions, valid.subList(from, Math.min(from + batchChunkSize, valid.size())), results);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // Runs inside one database transaction so the whole chunk pays a single commit
+    private void executeChunk(List<Transaction> transactions, List<Integer> chunk, TransactionBatchItemResult[] results) {
+        List<Integer> remaining = new ArrayList<>(chunk);
+        while (!remaining.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> executeItems(transactions, remaining, results, status));
+                return;
+            } catch (ChunkItemFailure failure) {
+                // Rolled back with everything the chunk did so far, so it runs again without the failed item
+                results[failure.index] = rejected(failure.index, failure.getCause());
+                remaining.remove(Integer.valueOf(failure.index));
+            } catch (RuntimeException ex) {
+                // The commit itself failed, so none of the chunk is durable
+                logger.warn("Transaction batch chunk of {} items failed to commit", remaining.size(), ex);
+                remaining.forEach(index -> results[index] = rejected(index, ex));
+                return;
+            }
+        }
+    }
+
+    private void executeItems(List<Transaction> transactions, List<Integer> items, TransactionBatchItemResult[] results,
+                              TransactionStatus status) {
+        for (int index : items) {
+            Transaction transaction = transactions.get(index);
+            try {
+                // Each item runs under a savepoint so a transfer rejected after its first UPDATE is undone on its own
+                itemTransactionTemplate.executeWithoutResult(itemStatus -> executeAndSave(resolveStrategy(transaction), transaction));
+                results[index] = TransactionBatchItemResult.accepted(index, transaction);
+            } catch (RuntimeException ex) {
+                // A statement that failed inside Hibernate, such as a deadlock victim, leaves the whole transaction
+                // rollback-only; rolling back to the savepoint does not clear that
+                if (status.isRollbackOnly()) {
+                    throw new ChunkItemFailure(index, ex);
+                }
+                results[index] = rejected(index, ex);
+            }
+        }
+    }
+
+    private void createTransactionsOnLedger(List<Transaction> transactions, List<Integer> items,
+                                            TransactionBatchItemResult[] results, LedgerEngine engine) {
+        List<CompletableFuture<Transaction>> futures = new ArrayList<>(items.size());
+        for (int index : items) {
+            try {
+                futures.add(engine.submit(transactions.get(index)));
+            } catch (RuntimeException ex) {
+                futures.add(CompletableFuture.failedFuture(ex));
+            }
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            int index = items.get(i);
+            try {
+                results[index] = TransactionBatchItemResult.accepted(index, futures.get(i).join());
+            } catch (CompletionException ex) {
+                results[index] = rejected(index, ex.getCause());
+            }
+        }
+    }
+
+    // Rejections the client can act on keep their message; anything else is logged and reported generically
+    private TransactionBatchItemResult rejected(int index, Throwable cause) {
+        transactionMetrics.rejected(cause);
+        if (cause instanceof InvalidRequestException || cause instanceof ResourceNotFoundException
+                || cause instanceof AccountLockTimeoutException) {
+            return TransactionBatchItemResult.rejected(index, cause.getMessage());
+        }
+        logger.warn("Transaction batch item {} failed", index, cause);
+        return TransactionBatchItemResult.rejected(index, Constants.TRANSACTION_FAILED);
+    }
+
+    private void validate(Transaction transaction) {
+        if (transaction == null || transaction.getAmount() == null) {
+            throw new InvalidRequestException(Constants.INVALID_TRANSACTION);
+        }
+        resolveStrategy(transaction);
+        switch (transaction.getTransactionType()) {
+            case DEPOSIT -> requireAccount(transaction.getDestinationAccount());
+            case WITHDRAWAL -> requireAccount(transaction.getSourceAccount());
+            case TRANSFER -> {
+                requireAccount(transaction.getSourceAccount());
+                requireAccount(transaction.getDestinationAccount());
+            }
+        }
+    }
+
+    private static void requireAccount(Product account) {
+        if (account == null || account.getId() == null) {
+            throw new InvalidRequestException(Constants.INVALID_TRANSACTION);
+        }
+    }
+
+    private void executeAndSave(TransactionStrategy strategy, Transaction transaction) {
+        // Work rerun after a rollback (a batch chunk, or a request retried alone after a failed group commit) still
+        // carries the SEQUENCE id of its rolled-back insert, and save() would merge it instead of persisting it
+        transaction.setId(null);
+        TransactionType type = transaction.getTransactionType();
+        transactionMetrics.timeStrategy(type, () -> strategy.execute(transaction, productRepository));
+        // Flushed so the timer covers the INSERT itself, which pooled SEQUENCE ids would otherwise defer to the commit,
+        // and so a failing insert fails its own batch item or group commit savepoint rather than the whole commit
+        transactionMetrics.timeSave(type, () -> transactionRepository.saveAndFlush(transaction));
+    }
+
+    // In GROUP_COMMIT mode the work shares a database transaction with other concurrent requests
+    private Transaction inTransaction(Supplier<Transaction> work) {
+        if (groupCommitter.isPresent()) {
+            return groupCommitter.get().execute(work);
+        }
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    private TransactionStrategy resolveStrategy(Transaction transaction) {
         if (transaction.getTransactionType() == null) {
             throw new InvalidRequestException(Constants.INVALID_TRANSACTION);
         }
@@ -40,29 +310,47 @@ public class TransactionServiceImpl implements TransactionService {
         if (strategy == null) {
             throw new InvalidRequestException(Constants.INVALID_TRANSACTION_TYPE);
         }
-
-        strategy.execute(transaction, productRepository);
-        transactionRepository.save(transaction);
-        return transaction;
+        return strategy;
     }
 
     @Override
-    public List<Transaction> getTransactionsBySourceAccountId(Long sourceAccountId) {
-        return transactionRepository.findBySourceAccountId(sourceAccountId);
+    public CursorPage<TransactionView> getTransactionsBySourceAccountId(Long sourceAccountId, String cursor, int size) {
+        Long afterId = cursor == null ? 0L : PageCursor.decodeId(cursor);
+        return CursorPage.of(transactionRepository.findSourcePage(sourceAccountId, afterId, Limit.of(size + 1)), size,
+                transaction -> PageCursor.ofId(transaction.id()));
     }
 
     @Override
-    public List<Transaction> getTransactionsByDestinationAccountId(Long destinationAccountId) {
-        return transactionRepository.findByDestinationAccountId(destinationAccountId);
+    public CursorPage<TransactionView> getTransactionsByDestinationAccountId(Long destinationAccountId, String cursor, int size) {
+        Long afterId = cursor == null ? 0L : PageCursor.decodeId(cursor);
+        return CursorPage.of(transactionRepository.findDestinationPage(destinationAccountId, afterId, Limit.of(size + 1)), size,
+                transaction -> PageCursor.ofId(transaction.id()));
     }
 
     @Override
-    public Optional<Transaction> getTransactionById(Long id) {
-        return transactionRepository.findById(id);
+    public Optional<TransactionView> getTransactionById(Long id) {
+        return transactionRepository.findViewById(id);
     }
 
     @Override
-    public List<Transaction> findAll() {
-        return transactionRepository.findAll();
+    public CursorPage<TransactionView> getTransactions(String cursor, int size) {
+        List<TransactionView> rows;
+        if (cursor == null) {
+            rows = transactionRepository.findFirstPage(Limit.of(size + 1));
+        } else {
+            PageCursor.TimestampAndId after = PageCursor.decodeTimestampAndId(cursor);
+            rows = transactionRepository.findPageAfter(after.timestamp(), after.id(), Limit.of(size + 1));
+        }
+        return CursorPage.of(rows, size, transaction -> PageCursor.of(transaction.transactionDate(), transaction.id()));
+    }
+
+    // Carries the item whose failure doomed the chunk's transaction out of it, so the chunk is rolled back
+    private static final class ChunkItemFailure extends RuntimeException {
+        private final int index;
+
+        private ChunkItemFailure(int index, RuntimeException cause) {
+            super(cause);
+            this.index = index;
+        }
     }
 }
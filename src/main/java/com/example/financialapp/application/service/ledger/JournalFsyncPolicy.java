@@ -0,0 +1,11 @@
+package com.example.financialapp.application.service.ledger;
+
+public enum JournalFsyncPolicy {
+    // Force the written records to disk before acknowledging them; one fsync covers every record of a partition batch
+    ALWAYS,
+    // Acknowledge once the record is in the mapped segment and force at most every fsync-interval-ms;
+    // survives a process crash, an OS crash can lose the last interval
+    INTERVAL,
+    // Leave write-back to the operating system
+    NEVER
+}
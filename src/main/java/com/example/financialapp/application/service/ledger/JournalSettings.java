@@ -0,0 +1,13 @@
+package com.example.financialapp.application.service.ledger;
+
+import java.nio.file.Path;
+
+public record JournalSettings(Path directory, JournalFsyncPolicy fsyncPolicy, long fsyncIntervalMillis,
+                              int segmentSizeBytes) {
+
+    public JournalSettings {
+        if (segmentSizeBytes < LedgerJournal.RECORD_SIZE) {
+            throw new IllegalArgumentException("Journal segments must hold at least one record");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.financialapp.application.service.ledger;
+
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Transaction;
+
+import java.util.concurrent.CompletableFuture;
+
+record LedgerCommand(Operation operation, Long accountId, Money amount, Transaction transaction,
+                     CompletableFuture<Transaction> future) {
+
+    // SET_BALANCE carries the new balance as amount; it, CLOSE, CLOSE_TO_CANCEL and REOPEN complete with null.
+    // TRANSFER_SETTLED tells the source partition that the transfer's credit is in the tables
+    enum Operation {
+        DEPOSIT, WITHDRAWAL, TRANSFER_DEBIT, TRANSFER_CREDIT, TRANSFER_REFUND, TRANSFER_SETTLED, SET_BALANCE, CLOSE,
+        CLOSE_TO_CANCEL, REOPEN, WAKE_UP
+    }
+
+    static final LedgerCommand WAKE_UP = new LedgerCommand(Operation.WAKE_UP, null, null, null, null);
+
+    LedgerCommand next(Operation operation, Long accountId) {
+        return new LedgerCommand(operation, accountId, amount, transaction, future);
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.financialapp.application.service.ledger;
+
+import com.example.financialapp.adapters.outbound.JournalCheckpointRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.adapters.outbound.TransactionRepository;
+import com.example.financialapp.application.service.cache.ProductCache;
+import com.example.financialapp.application.service.ledger.LedgerCommand.Operation;
+import com.example.financialapp.domain.JournalCheckpoint;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.util.Constants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnExpression("'${financialapp.transactions.processing-mode:DIRECT}' == 'LEDGER' "
+        + "or '${financialapp.transactions.processing-mode:DIRECT}' == 'JOURNAL'")
+public class LedgerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEngine.class);
+    private static final String PARTITION_DIRECTORY_PREFIX = "partition-";
+
+    private final LedgerPartition[] partitions;
+    private final LedgerPersister persister;
+    private final JournalCheckpointRepository journalCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JournalSettings journalSettings;
+    // Commands queued or handed off to a partition and not yet applied and published, hand-offs they cause included
+    private final AtomicLong outstandingCommands = new AtomicLong();
+    private volatile boolean accepting = true;
+    private LedgerJournal[] journals;
+
+    @Autowired
+    public LedgerEngine(ProductRepository productRepository, TransactionRepository transactionRepository,
+                        JournalCheckpointRepository journalCheckpointRepository,
+                        PlatformTransactionManager transactionManager,
+                        Optional<JournalSettings> journalSettings,
+                        ProductCache productCache,
+                        @Value("${financialapp.ledger.partitions:4}") int partitionCount,
+                        @Value("${financialapp.ledger.ring-buffer-size:1024}") int ringBufferSize,
+                        @Value("${financialapp.ledger.batch-size:256}") int batchSize,
+                        @Value("${financialapp.ledger.max-accounts-per-partition:100000}") int maxAccountsPerPartition) {
+        if (partitionCount < 1 || ringBufferSize < 1 || batchSize < 1 || maxAccountsPerPartition < 1) {
+            throw new IllegalArgumentException(
+                    "Ledger partitions, ring buffer size, batch size and accounts per partition must be positive");
+        }
+        this.journalCheckpointRepository = journalCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journalSettings = journalSettings.orElse(null);
+        this.persister = new LedgerPersister(productRepository, transactionRepository, journalCheckpointRepository,
+                transactionTemplate, productCache == null ? productIds -> { } : productCache::evict, ringBufferSize,
+                batchSize);
+        this.partitions = new LedgerPartition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new LedgerPartition(i, this, productRepository, persister, ringBufferSize, batchSize,
+                    maxAccountsPerPartition);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        journals = new LedgerJournal[partitions.length];
+        if (journalSettings != null) {
+            recoverJournal();
+        }
+        persister.start(journalSettings == null ? null : journals);
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i].start(journals[i]);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // A transfer still moves between partitions after intake stops, so no partition stops until every command,
+        // hand-offs included, has been applied everywhere; only then do the partitions and the persister shut down
+        accepting = false;
+        while (outstandingCommands.get() > 0) {
+            Thread.sleep(1);
+        }
+        for (LedgerPartition partition : partitions) {
+            partition.stop();
+        }
+        for (LedgerJournal journal : journals) {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+        persister.stop();
+    }
+
+    // Replays every record written after the last checkpoint of each partition directory found on disk (the partition
+    // count may have changed since they were written), then starts every partition on a fresh segment
+    private void recoverJournal() {
+        Map<Integer, Path> directories = partitionDirectories();
+        for (int i = 0; i < partitions.length; i++) {
+            directories.putIfAbsent(i, journalSettings.directory().resolve(PARTITION_DIRECTORY_PREFIX + i));
+        }
+        Map<Integer, Long> checkpoints = loadCheckpoints(directories.keySet());
+
+        for (Map.Entry<Integer, Path> entry : directories.entrySet()) {
+            int partition = entry.getKey();
+            LedgerJournal.Recovery recovery = LedgerJournal.recover(entry.getValue(), partition, checkpoints.get(partition));
+            if (!recovery.writes().isEmpty()) {
+                logger.info("Replaying {} journal records of ledger partition {}", recovery.writes().size(), partition);
+                persister.persistRecovered(recovery.writes());
+            }
+            LedgerJournal.deleteSegments(entry.getValue());
+            if (partition < partitions.length) {
+                journals[partition] = new LedgerJournal(entry.getValue(), journalSettings, recovery.lastSequence() + 1);
+            }
+        }
+    }
+
+    private Map<Integer, Path> partitionDirectories() {
+        Map<Integer, Path> directories = new TreeMap<>();
+        if (!Files.isDirectory(journalSettings.directory())) {
+            return directories;
+        }
+        try (Stream<Path> files = Files.list(journalSettings.directory())) {
+            files.filter(path -> path.getFileName().toString().startsWith(PARTITION_DIRECTORY_PREFIX))
+                    .forEach(path -> directories.put(Integer.parseInt(
+                            path.getFileName().toString().substring(PARTITION_DIRECTORY_PREFIX.length())), path));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot list journal directory " + journalSettings.directory(), ex);
+        }
+        return directories;
+    }
+
+    private Map<Integer, Long> loadCheckpoints(Iterable<Integer> partitionIds) {
+        return transactionTemplate.execute(status -> {
+            Map<Integer, JournalCheckpoint> existing = journalCheckpointRepository.findAll().stream()
+                    .collect(Collectors.toMap(JournalCheckpoint::getPartitionId, Function.identity()));
+            for (Integer partitionId : partitionIds) {
+                existing.computeIfAbsent(partitionId, id -> {
+                    JournalCheckpoint checkpoint = new JournalCheckpoint();
+                    checkpoint.setPartitionId(id);
+                    return journalCheckpointRepository.save(checkpoint);
+                });
+            }
+            return existing.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getSequence()));
+        });
+    }
+
+    public Transaction execute(Transaction transaction) {
+        return await(submit(transaction));
+    }
+
+    // In LEDGER and JOURNAL modes the engine owns the balances, so a new balance set through PUT /api/products/{id}
+    // is applied as a movement of the difference
+    public void setBalance(Long accountId, Money balance) {
+        await(send(Operation.SET_BALANCE, accountId, balance));
+    }
+
+    // Rejects the account's later movements and returns once its earlier ones are in the tables, so its row can be
+    // deleted. Fails unless the balance is zero
+    public void close(Long accountId) {
+        await(send(Operation.CLOSE, accountId, null));
+    }
+
+    // close for an account being canceled rather than deleted
+    public void closeToCancel(Long accountId) {
+        await(send(Operation.CLOSE_TO_CANCEL, accountId, null));
+    }
+
+    // Undoes close when the delete did not commit
+    public void reopen(Long accountId) {
+        await(send(Operation.REOPEN, accountId, null));
+    }
+
+    private CompletableFuture<Transaction> send(Operation operation, Long accountId, Money amount) {
+        CompletableFuture<Transaction> future = new CompletableFuture<>();
+        enqueue(new LedgerCommand(operation, accountId, amount, null, future));
+        return future;
+    }
+
+    // Counted before accepting is read, while stop() clears accepting before reading the count: either the command is
+    // refused here or stop() waits for it
+    private void enqueue(LedgerCommand command) {
+        commandQueued();
+        if (!accepting) {
+            commandsApplied(1);
+            throw new IllegalStateException("Ledger engine is stopped");
+        }
+        try {
+            partitionFor(command.accountId()).enqueue(command);
+        } catch (IllegalStateException ex) {
+            commandsApplied(1);
+            throw ex;
+        }
+    }
+
+    void commandQueued() {
+        outstandingCommands.incrementAndGet();
+    }
+
+    void commandsApplied(int count) {
+        outstandingCommands.addAndGet(-count);
+    }
+
+    private static Transaction await(CompletableFuture<Transaction> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    // Everything a command needs is checked here, before it is queued: a partition that found a transfer without a
+    // destination after debiting the source would have applied half of it
+    public CompletableFuture<Transaction> submit(Transaction transaction) {
+        Money amount = transaction.getAmount();
+        if (amount == null) {
+            throw new InvalidRequestException(Constants.INVALID_TRANSACTION);
+        }
+        CompletableFuture<Transaction> future = new CompletableFuture<>();
+        LedgerCommand command = switch (transaction.getTransactionType()) {
+            case DEPOSIT -> {
+                if (!amount.isPositive()) {
+                    throw new InvalidRequestException(Constants.INVALID_DEPOSIT_AMOUNT);
+                }
+                yield new LedgerCommand(Operation.DEPOSIT, accountId(transaction.getDestinationAccount()), amount,
+                        transaction, future);
+            }
+            case WITHDRAWAL -> {
+                if (!amount.isNegative()) {
+                    throw new InvalidRequestException(Constants.INVALID_WITHDRAWAL_AMOUNT);
+                }
+                yield new LedgerCommand(Operation.WITHDRAWAL, accountId(transaction.getSourceAccount()), amount.abs(),
+                        transaction, future);
+            }
+            case TRANSFER -> {
+                if (!amount.isPositive()) {
+                    throw new InvalidRequestException(Constants.INVALID_TRANSFER_AMOUNT);
+                }
+                accountId(transaction.getDestinationAccount());
+                yield new LedgerCommand(Operation.TRANSFER_DEBIT, accountId(transaction.getSourceAccount()), amount,
+                        transaction, future);
+            }
+        };
+        enqueue(command);
+        return future;
+    }
+
+    private static Long accountId(Product account) {
+        if (account == null || account.getId() == null) {
+            throw new InvalidRequestException(Constants.INVALID_TRANSACTION);
+        }
+        return account.getId();
+    }
+
+    LedgerPartition partitionFor(Long accountId) {
+        return partitions[Math.floorMod(accountId, partitions.length)];
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.financialapp.application.service.ledger;
+
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only journal of one ledger partition, written only by that partition's writer thread.
+// Segments are preallocated files mapped into memory and named after the sequence of their first record.
+//
+// Record layout (64 bytes, big endian):
+//   0 sequence        8 product id (0 = none)   16 balance change minor units   24 balance change scale
+//  28 flags (1 = carries a transaction row, 2 = also debits the row's source account by its amount)
+//  29 transaction type ordinal   30 reserved
+//  32 amount minor units 40 amount scale           44 source account id  52 destination account id
+//  60 CRC32 of bytes 0-59
+final class LedgerJournal {
+
+    static final int RECORD_SIZE = 64;
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerJournal.class);
+    private static final int CRC_OFFSET = 60;
+    private static final byte HAS_TRANSACTION = 1;
+    private static final byte DEBITS_SOURCE = 2;
+    private static final byte[] NO_TRANSACTION = new byte[CRC_OFFSET - 28];
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    // Ordinals are part of the on-disk format, new transaction types may only be appended
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final JournalSettings settings;
+    private final int recordsPerSegment;
+    private final long fsyncIntervalNanos;
+    private final Deque<Segment> closedSegments = new ArrayDeque<>();
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private Segment segment;
+    private MappedByteBuffer buffer;
+    private long nextSequence;
+    private int dirtyFrom = -1;
+    private int dirtyTo;
+    private long lastForceNanos = System.nanoTime();
+    // Written by the persister thread once the tables hold everything up to this sequence
+    private volatile long checkpoint;
+
+    LedgerJournal(Path directory, JournalSettings settings, long nextSequence) {
+        this.directory = directory;
+        this.settings = settings;
+        this.recordsPerSegment = settings.segmentSizeBytes() / RECORD_SIZE;
+        this.fsyncIntervalNanos = settings.fsyncIntervalMillis() * 1_000_000L;
+        this.nextSequence = nextSequence;
+        this.checkpoint = nextSequence - 1;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create journal directory " + directory, ex);
+        }
+        openSegment();
+    }
+
+    long append(Long productId, Money change, Transaction transaction) {
+        return append(productId, change, transaction, false);
+    }
+
+    // A transfer is one record: the credit of productId and, with debitsSource, the debit of the transaction's source
+    long append(Long productId, Money change, Transaction transaction, boolean debitsSource) {
+        if (nextSequence - segment.firstSequence() == recordsPerSegment) {
+            rollSegment();
+        }
+        long sequence = nextSequence++;
+        encode(sequence, productId, change, transaction, debitsSource);
+        int offset = (int) (sequence - segment.firstSequence()) * RECORD_SIZE;
+        buffer.put(offset, scratch, 0, RECORD_SIZE);
+        if (dirtyFrom < 0) {
+            dirtyFrom = offset;
+        }
+        dirtyTo = offset + RECORD_SIZE;
+        return sequence;
+    }
+
+    // Called by the partition before it acknowledges anything appended since the previous call
+    void sync() {
+        if (dirtyFrom < 0) {
+            return;
+        }
+        switch (settings.fsyncPolicy()) {
+            case ALWAYS -> force();
+            case INTERVAL -> {
+                if (System.nanoTime() - lastForceNanos >= fsyncIntervalNanos) {
+                    force();
+                }
+            }
+            case NEVER -> dirtyFrom = -1;
+        }
+    }
+
+    void checkpoint(long sequence) {
+        if (sequence > checkpoint) {
+            checkpoint = sequence;
+        }
+    }
+
+    void close() {
+        if (settings.fsyncPolicy() != JournalFsyncPolicy.NEVER) {
+            force();
+        }
+    }
+
+    private void force() {
+        if (dirtyFrom >= 0) {
+            buffer.force(dirtyFrom, dirtyTo - dirtyFrom);
+            dirtyFrom = -1;
+        }
+        lastForceNanos = System.nanoTime();
+    }
+
+    private void rollSegment() {
+        force();
+        closedSegments.add(segment);
+        // Segments are only removed once the tables hold all of their records
+        while (!closedSegments.isEmpty() && closedSegments.peek().lastSequence(recordsPerSegment) <= checkpoint) {
+            Segment obsolete = closedSegments.poll();
+            try {
+                Files.deleteIfExists(obsolete.path());
+            } catch (IOException ex) {
+                logger.warn("Could not delete journal segment {}", obsolete.path(), ex);
+            }
+        }
+        openSegment();
+    }
+
+    private void openSegment() {
+        Path path = directory.resolve(segmentName(nextSequence));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // Mapping past the end of the file preallocates the whole segment, zero filled
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create journal segment " + path, ex);
+        }
+        segment = new Segment(path, nextSequence);
+        dirtyFrom = -1;
+    }
+
+    private void encode(long sequence, Long productId, Money change, Transaction transaction, boolean debitsSource) {
+        scratch.clear();
+        scratch.putLong(sequence);
+        scratch.putLong(productId == null ? 0 : productId);
+        putMoney(change);
+        if (transaction != null) {
+            scratch.put(debitsSource ? (byte) (HAS_TRANSACTION | DEBITS_SOURCE) : HAS_TRANSACTION);
+            scratch.put((byte) transaction.getTransactionType().ordinal());
+            scratch.putShort((short) 0);
+            putMoney(transaction.getAmount());
+            scratch.putLong(accountId(transaction.getSourceAccount()));
+            scratch.putLong(accountId(transaction.getDestinationAccount()));
+        } else {
+            scratch.put(NO_TRANSACTION);
+        }
+        crc.reset();
+        crc.update(scratch.array(), 0, CRC_OFFSET);
+        scratch.putInt((int) crc.getValue());
+    }
+
+    private void putMoney(Money value) {
+        if (value == null) {
+            scratch.putLong(0).putInt(0);
+            return;
+        }
+        scratch.putLong(value.minorUnits());
+        scratch.putInt(Money.SCALE);
+    }
+
+    // Reads every intact record after the checkpoint; a torn or zeroed record marks the end of the journal
+    static Recovery recover(Path directory, int partition, long checkpoint) {
+        List<LedgerWrite> writes = new ArrayList<>();
+        long lastSequence = checkpoint;
+        CRC32 crc = new CRC32();
+        byte[] record = new byte[RECORD_SIZE];
+        for (Path path : segments(directory)) {
+            long firstSequence = firstSequence(path);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (int offset = 0; offset + RECORD_SIZE <= mapped.capacity(); offset += RECORD_SIZE) {
+                    mapped.get(offset, record);
+                    ByteBuffer view = ByteBuffer.wrap(record);
+                    long sequence = view.getLong(0);
+                    crc.reset();
+                    crc.update(record, 0, CRC_OFFSET);
+                    if (sequence != firstSequence + offset / RECORD_SIZE || view.getInt(CRC_OFFSET) != (int) crc.getValue()) {
+                        break;
+                    }
+                    lastSequence = Math.max(lastSequence, sequence);
+                    if (sequence > checkpoint) {
+                        writes.add(decode(view, partition));
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot read journal segment " + path, ex);
+            }
+        }
+        return new Recovery(writes, lastSequence);
+    }
+
+    static void deleteSegments(Path directory) {
+        for (Path path : segments(directory)) {
+            try {
+                Files.delete(path);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot delete journal segment " + path, ex);
+            }
+        }
+    }
+
+    private static LedgerWrite decode(ByteBuffer view, int partition) {
+        long sequence = view.getLong(0);
+        long productId = view.getLong(8);
+        byte flags = view.get(28);
+        Transaction transaction = null;
+        if ((flags & HAS_TRANSACTION) != 0) {
+            transaction = new Transaction();
+            transaction.setTransactionType(TRANSACTION_TYPES[view.get(29)]);
+            transaction.setAmount(readMoney(view, 32));
+            transaction.setSourceAccount(reference(view.getLong(44)));
+            transaction.setDestinationAccount(reference(view.getLong(52)));
+        }
+        return new LedgerWrite(partition, sequence, productId == 0 ? null : productId,
+                productId == 0 ? null : readMoney(view, 16), transaction, (flags & DEBITS_SOURCE) != 0, null);
+    }
+
+    // The scale is stored next to the units so segments written with a different Money.SCALE still read correctly
+    private static Money readMoney(ByteBuffer view, int offset) {
+        return Money.of(BigDecimal.valueOf(view.getLong(offset), view.getInt(offset + 8)));
+    }
+
+    private static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted((left, right) -> Long.compare(firstSequence(left), firstSequence(right)))
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot list journal directory " + directory, ex);
+        }
+    }
+
+    private static String segmentName(long firstSequence) {
+        return SEGMENT_PREFIX + String.format("%020d", firstSequence) + SEGMENT_SUFFIX;
+    }
+
+    private static long firstSequence(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static long accountId(Product account) {
+        return account == null || account.getId() == null ? 0 : account.getId();
+    }
+
+    private static Product reference(long accountId) {
+        if (accountId == 0) {
+            return null;
+        }
+        Product reference = new Product();
+        reference.setId(accountId);
+        return reference;
+    }
+
+    record Recovery(List<LedgerWrite> writes, long lastSequence) {
+    }
+
+    private record Segment(Path path, long firstSequence) {
+
+        long lastSequence(int recordsPerSegment) {
+            return firstSequence + recordsPerSegment - 1;
+        }
+    }
+}
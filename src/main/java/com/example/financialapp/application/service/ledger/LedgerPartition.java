@@ -0,0 +1,344 @@
+package com.example.financialapp.application.service.ledger;
+
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.application.service.ledger.LedgerCommand.Operation;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+// Owns a disjoint subset of accounts; every balance mutation for those accounts runs on this partition's single writer thread
+final class LedgerPartition {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerPartition.class);
+
+    private final int index;
+    private final LedgerEngine engine;
+    private final ProductRepository productRepository;
+    private final LedgerPersister persister;
+    private final BlockingQueue<LedgerCommand> ringBuffer;
+    // Commands forwarded by other partitions never block, so two partitions exchanging transfers cannot deadlock
+    private final Queue<LedgerCommand> handOffs = new ConcurrentLinkedQueue<>();
+    // Every balance change of an engine-owned account goes through its partition, PUT /api/products/{id} included,
+    // so a loaded account stays current for as long as it stays loaded. In access order, least recently used first
+    private final LinkedHashMap<Long, Product> accounts = new LinkedHashMap<>(16, 0.75f, true);
+    // Writes per account that are not in the tables yet; written by this partition's writer, settled by the persister
+    private final Map<Long, Integer> unpersisted = new ConcurrentHashMap<>();
+    // Accounts being or already deleted; their movements fail as if the product did not exist
+    private final Set<Long> closed = new HashSet<>();
+    // Transfers debited here whose credit is not yet in the tables; until then a refund may still come back
+    private final Map<Long, Integer> transfersOut = new HashMap<>();
+    // Results of the current batch; they only become visible once the batch's journal records are durable
+    private final List<LedgerWrite> pendingWrites = new ArrayList<>();
+    private final List<Runnable> pendingActions = new ArrayList<>();
+    private final int batchSize;
+    private final int maxAccounts;
+    private final Thread writer;
+    private LedgerJournal journal;
+    private volatile boolean running = true;
+
+    LedgerPartition(int index, LedgerEngine engine, ProductRepository productRepository, LedgerPersister persister,
+                    int ringBufferSize, int batchSize, int maxAccounts) {
+        this.index = index;
+        this.engine = engine;
+        this.productRepository = productRepository;
+        this.persister = persister;
+        this.ringBuffer = new ArrayBlockingQueue<>(ringBufferSize);
+        this.batchSize = batchSize;
+        this.maxAccounts = maxAccounts;
+        this.writer = new Thread(this::run, "ledger-partition-" + index);
+    }
+
+    void start(LedgerJournal journal) {
+        this.journal = journal;
+        writer.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join();
+    }
+
+    void enqueue(LedgerCommand command) {
+        try {
+            ringBuffer.put(command);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while submitting to the ledger", ex);
+        }
+    }
+
+    void handOff(LedgerCommand command) {
+        engine.commandQueued();
+        handOffs.add(command);
+        // If the ring is full the writer is busy and will pick the hand-off up between commands anyway
+        ringBuffer.offer(LedgerCommand.WAKE_UP);
+    }
+
+    private void run() {
+        List<LedgerCommand> batch = new ArrayList<>(batchSize);
+        while (running || !ringBuffer.isEmpty() || !handOffs.isEmpty()) {
+            try {
+                LedgerCommand first = ringBuffer.poll(100, TimeUnit.MILLISECONDS);
+                int applied = drainHandOffs();
+                if (first != null) {
+                    batch.add(first);
+                    ringBuffer.drainTo(batch, batchSize - 1);
+                    for (LedgerCommand command : batch) {
+                        if (command.operation() != Operation.WAKE_UP) {
+                            applied++;
+                        }
+                        apply(command);
+                        applied += drainHandOffs();
+                    }
+                }
+                publish();
+                // After publish, so the hand-offs the batch caused are already counted
+                engine.commandsApplied(applied);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // One journal sync covers the whole batch; only then are callers answered, transfer legs forwarded
+    // and the writes released to the persister
+    private void publish() {
+        if (journal != null) {
+            journal.sync();
+        }
+        for (LedgerWrite write : pendingWrites) {
+            persister.enqueue(write);
+        }
+        pendingWrites.clear();
+        for (Runnable action : pendingActions) {
+            action.run();
+        }
+        pendingActions.clear();
+    }
+
+    private int drainHandOffs() {
+        int applied = 0;
+        LedgerCommand command;
+        while ((command = handOffs.poll()) != null) {
+            apply(command);
+            applied++;
+        }
+        return applied;
+    }
+
+    private void apply(LedgerCommand command) {
+        Transaction transaction = command.transaction();
+        try {
+            switch (command.operation()) {
+                case DEPOSIT -> {
+                    Product account = credit(command.accountId(), command.amount());
+                    transaction.setDestinationAccount(snapshot(account));
+                    complete(command, account, command.amount());
+                }
+                case WITHDRAWAL -> {
+                    Product account = debit(command.accountId(), command.amount());
+                    transaction.setSourceAccount(snapshot(account));
+                    complete(command, account, command.amount().negate());
+                }
+                case TRANSFER_DEBIT -> {
+                    // Resolved before the debit, so nothing can fail between the debit and the hand-off of the credit.
+                    // Nothing is journaled here: the destination partition journals the transfer as one record
+                    // carrying both legs, so a crash can never leave a durable debit without its credit
+                    Long destinationId = transaction.getDestinationAccount().getId();
+                    Product source = debit(command.accountId(), command.amount());
+                    transaction.setSourceAccount(snapshot(source));
+                    transfersOut.merge(command.accountId(), 1, Integer::sum);
+                    LedgerCommand credit = command.next(Operation.TRANSFER_CREDIT, destinationId);
+                    pendingActions.add(() -> engine.partitionFor(destinationId).handOff(credit));
+                }
+                case TRANSFER_CREDIT -> applyTransferCredit(command);
+                case TRANSFER_REFUND -> {
+                    // The debit was never journaled, so giving it back only concerns the balance held here
+                    credit(command.accountId(), command.amount());
+                    settleTransferOut(command.accountId());
+                }
+                case TRANSFER_SETTLED -> settleTransferOut(command.accountId());
+                case SET_BALANCE -> {
+                    Product account = load(command.accountId());
+                    Money change = command.amount().minus(account.getBalance());
+                    account.setBalance(command.amount());
+                    write(account, change, null);
+                    pendingActions.add(() -> command.future().complete(null));
+                }
+                case CLOSE, CLOSE_TO_CANCEL -> {
+                    Product account = load(command.accountId());
+                    if (!account.getBalance().isZero()) {
+                        throw new InvalidRequestException(command.operation() == Operation.CLOSE
+                                ? Constants.DELETE_NON_EMPTY_ACCOUNT : Constants.CANCEL_NON_EMPTY_ACCOUNT);
+                    }
+                    if (transfersOut.containsKey(command.accountId())) {
+                        throw new InvalidRequestException(Constants.DELETE_ACCOUNT_WITH_TRANSFER_IN_PROGRESS);
+                    }
+                    accounts.remove(command.accountId());
+                    closed.add(command.accountId());
+                    // Answered once the earlier writes of the account are in the tables, so its row can be deleted
+                    pendingWrites.add(LedgerWrite.barrier(index, () -> command.future().complete(null)));
+                }
+                case REOPEN -> {
+                    closed.remove(command.accountId());
+                    pendingActions.add(() -> command.future().complete(null));
+                }
+                case WAKE_UP -> {
+                    // Only used to unblock the writer when a hand-off arrives
+                }
+            }
+        } catch (RuntimeException ex) {
+            if (command.future() != null) {
+                pendingActions.add(() -> command.future().completeExceptionally(ex));
+            } else {
+                logger.error("Ledger command {} failed for account {}", command.operation(), command.accountId(), ex);
+            }
+        }
+    }
+
+    private void applyTransferCredit(LedgerCommand command) {
+        Product destination;
+        try {
+            destination = credit(command.accountId(), command.amount());
+        } catch (ResourceNotFoundException ex) {
+            // The source was already debited on its own partition, give the money back before failing the caller
+            Long sourceId = command.transaction().getSourceAccount().getId();
+            LedgerCommand refund = new LedgerCommand(Operation.TRANSFER_REFUND, sourceId, command.amount(),
+                    command.transaction(), null);
+            pendingActions.add(() -> engine.partitionFor(sourceId).handOff(refund));
+            throw ex;
+        }
+        Transaction transaction = command.transaction();
+        transaction.setDestinationAccount(snapshot(destination));
+        Long sourceId = transaction.getSourceAccount().getId();
+        LedgerCommand settled = new LedgerCommand(Operation.TRANSFER_SETTLED, sourceId, null, null, null);
+        write(destination, command.amount(), forPersistence(transaction), true,
+                () -> engine.partitionFor(sourceId).handOff(settled));
+        pendingActions.add(() -> command.future().complete(transaction));
+    }
+
+    private void settleTransferOut(Long accountId) {
+        transfersOut.computeIfPresent(accountId, (id, count) -> count == 1 ? null : count - 1);
+    }
+
+    private Product credit(Long accountId, Money amount) {
+        Product account = load(accountId);
+        account.setBalance(account.getBalance().plus(amount));
+        return account;
+    }
+
+    private Product debit(Long accountId, Money amount) {
+        Product account = load(accountId);
+        if (account.getBalance().isLessThan(amount)) {
+            throw new InvalidRequestException(Constants.INSUFFICIENT_BALANCE);
+        }
+        account.setBalance(account.getBalance().minus(amount));
+        return account;
+    }
+
+    private Product load(Long accountId) {
+        if (closed.contains(accountId)) {
+            throw new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + accountId);
+        }
+        Product account = accounts.get(accountId);
+        if (account == null) {
+            account = productRepository.findById(accountId)
+                    .orElseThrow(() -> new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + accountId));
+            accounts.put(accountId, account);
+            evictColdAccounts(accountId);
+        }
+        return account;
+    }
+
+    // Reloading an account with writes not yet in the tables, or with a transfer out whose debit is not, would lose
+    // them, so only settled accounts are evicted; the map may stay over its bound until they settle
+    private void evictColdAccounts(Long loadedId) {
+        Iterator<Long> coldest = accounts.keySet().iterator();
+        while (accounts.size() > maxAccounts && coldest.hasNext()) {
+            Long accountId = coldest.next();
+            if (!accountId.equals(loadedId) && !unpersisted.containsKey(accountId)
+                    && !transfersOut.containsKey(accountId)) {
+                coldest.remove();
+            }
+        }
+    }
+
+    private void complete(LedgerCommand command, Product account, Money change) {
+        write(account, change, forPersistence(command.transaction()));
+        pendingActions.add(() -> command.future().complete(command.transaction()));
+    }
+
+    // The change rather than the resulting balance is persisted, so the tables never depend on what the engine loaded
+    private void write(Product account, Money change, Transaction transaction) {
+        write(account, change, transaction, false, null);
+    }
+
+    private void write(Product account, Money change, Transaction transaction, boolean debitsSource,
+                       Runnable onPersisted) {
+        Long accountId = account.getId();
+        long sequence = journal == null ? 0 : journal.append(accountId, change, transaction, debitsSource);
+        unpersisted.merge(accountId, 1, Integer::sum);
+        pendingWrites.add(new LedgerWrite(index, sequence, accountId, change, transaction, debitsSource, () -> {
+            unpersisted.computeIfPresent(accountId, (id, count) -> count == 1 ? null : count - 1);
+            if (onPersisted != null) {
+                onPersisted.run();
+            }
+        }));
+    }
+
+    // The caller keeps the returned transaction, the persister gets its own copy with id-only account references
+    private static Transaction forPersistence(Transaction transaction) {
+        Transaction copy = new Transaction();
+        copy.setTransactionType(transaction.getTransactionType());
+        copy.setAmount(transaction.getAmount());
+        copy.setSourceAccount(reference(transaction.getSourceAccount()));
+        copy.setDestinationAccount(reference(transaction.getDestinationAccount()));
+        return copy;
+    }
+
+    private static Product reference(Product account) {
+        if (account == null) {
+            return null;
+        }
+        Product reference = new Product();
+        reference.setId(account.getId());
+        return reference;
+    }
+
+    private static Product snapshot(Product account) {
+        Product snapshot = new Product();
+        snapshot.setId(account.getId());
+        snapshot.setAccountType(account.getAccountType());
+        snapshot.setAccountNumber(account.getAccountNumber());
+        snapshot.setStatus(account.getStatus());
+        snapshot.setBalance(account.getBalance());
+        snapshot.setGmfExempt(account.isGmfExempt());
+        snapshot.setCreatedAt(account.getCreatedAt());
+        snapshot.setUpdatedAt(account.getUpdatedAt());
+        snapshot.setClient(account.getClient());
+        return snapshot;
+    }
+}
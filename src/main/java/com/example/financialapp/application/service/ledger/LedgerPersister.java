@@ -0,0 +1,243 @@
+package com.example.financialapp.application.service.ledger;
+
+import com.example.financialapp.adapters.outbound.JournalCheckpointRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.adapters.outbound.TransactionRepository;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+final class LedgerPersister {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerPersister.class);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 1000;
+
+    private final ProductRepository productRepository;
+    private final TransactionRepository transactionRepository;
+    private final JournalCheckpointRepository journalCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Consumer<Collection<Long>> persistedProducts;
+    private final BlockingQueue<LedgerWrite> queue;
+    private final int batchSize;
+    private final Thread thread;
+    private LedgerJournal[] journals;
+    private volatile boolean running = true;
+
+    LedgerPersister(ProductRepository productRepository, TransactionRepository transactionRepository,
+                    JournalCheckpointRepository journalCheckpointRepository, TransactionTemplate transactionTemplate,
+                    Consumer<Collection<Long>> persistedProducts, int capacity, int batchSize) {
+        this.productRepository = productRepository;
+        this.transactionRepository = transactionRepository;
+        this.journalCheckpointRepository = journalCheckpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.persistedProducts = persistedProducts;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.thread = new Thread(this::run, "ledger-persister");
+    }
+
+    void start(LedgerJournal[] journals) {
+        this.journals = journals;
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    // Blocks the partition writer when the database falls behind, which in turn applies backpressure to submitters
+    void enqueue(LedgerWrite write) {
+        try {
+            queue.put(write);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing ledger write", ex);
+        }
+    }
+
+    private void run() {
+        List<LedgerWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LedgerWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!persist(batch, true)) {
+                    stoppedWithPendingWrites(batch);
+                    return;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Stopping with the database unavailable
+    private void stoppedWithPendingWrites(List<LedgerWrite> batch) {
+        List<LedgerWrite> pending = new ArrayList<>(batch);
+        queue.drainTo(pending);
+        if (journals != null) {
+            // The checkpoint cannot move past these, so they are all replayed from the journal on the next start
+            logger.error("Ledger persister stopped with {} journaled writes pending replay", pending.size());
+            return;
+        }
+        logger.error("Ledger persister stopped with the database unavailable, {} acknowledged writes are not persisted",
+                pending.size());
+        pending.forEach(write -> logger.error("Not persisted: {}", describe(write)));
+    }
+
+    // Used on start-up to replay journal records, before the persister thread runs
+    void persistRecovered(List<LedgerWrite> writes) {
+        for (int from = 0; from < writes.size(); from += batchSize) {
+            if (!persist(writes.subList(from, Math.min(from + batchSize, writes.size())), false)) {
+                throw new IllegalStateException("Could not replay the ledger journal into the database");
+            }
+        }
+    }
+
+    // Callers were answered before their writes got here, so nothing is given up on: failures the database may
+    // recover from are retried while the persister runs, and a batch the database rejects is split so only the
+    // offending write is left out, and reported
+    private boolean persist(List<LedgerWrite> batch, boolean retryUntilStopped) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                persistTogether(batch);
+                return true;
+            } catch (RuntimeException ex) {
+                if (rejected(ex)) {
+                    return persistOneByOne(batch, retryUntilStopped, ex);
+                }
+                logger.warn("Ledger batch persistence failed (attempt {})", attempt, ex);
+                boolean retry = retryUntilStopped ? running : attempt < MAX_ATTEMPTS;
+                if (!retry || !pause()) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private boolean persistOneByOne(List<LedgerWrite> batch, boolean retryUntilStopped, RuntimeException cause) {
+        if (batch.size() == 1) {
+            LedgerWrite write = batch.get(0);
+            logger.error("The database rejected an acknowledged ledger write, it is not persisted: {}", describe(write), cause);
+            // Still moves the checkpoint past it, so a journaled partition does not retry it forever
+            return persist(List.of(write.withoutRows()), retryUntilStopped);
+        }
+        logger.warn("The database rejected a ledger batch of {} writes, persisting them one by one", batch.size(), cause);
+        for (LedgerWrite write : batch) {
+            if (!persist(List.of(write), retryUntilStopped)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void persistTogether(List<LedgerWrite> batch) {
+        // The changes of an account are summed, so every touched account costs one UPDATE
+        Map<Long, Money> changes = new LinkedHashMap<>();
+        List<Transaction> transactions = new ArrayList<>();
+        Map<Integer, Long> checkpoints = new HashMap<>();
+        for (LedgerWrite write : batch) {
+            if (write.sequence() > 0) {
+                checkpoints.merge(write.partition(), write.sequence(), Math::max);
+            }
+            if (write.productId() != null) {
+                changes.merge(write.productId(), write.change(), Money::plus);
+            }
+            if (write.debitsSource()) {
+                Transaction transfer = write.transaction();
+                changes.merge(transfer.getSourceAccount().getId(), transfer.getAmount().negate(), Money::plus);
+            }
+            if (write.transaction() != null) {
+                transactions.add(write.transaction());
+            }
+        }
+
+        if (!changes.isEmpty() || !transactions.isEmpty() || !checkpoints.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                changes.forEach((productId, change) -> {
+                    if (!change.isZero() && productRepository.addToBalance(productId, change.toBigDecimal()) == 0) {
+                        throw new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + productId);
+                    }
+                });
+                transactionRepository.saveAll(transactions);
+                // Committed together with the rows, so a replay never re-applies what already reached the tables
+                checkpoints.forEach((partition, sequence) -> journalCheckpointRepository.advance(partition, sequence));
+            });
+        }
+        persistedProducts.accept(changes.keySet());
+        checkpoints.forEach((partition, sequence) -> {
+            if (journals != null && partition < journals.length) {
+                journals[partition].checkpoint(sequence);
+            }
+        });
+        for (LedgerWrite write : batch) {
+            if (write.onPersisted() != null) {
+                write.onPersisted().run();
+            }
+        }
+        logger.debug("Persisted ledger batch: {} balance changes, {} transactions", changes.size(), transactions.size());
+    }
+
+    // Constraint violations and missing products fail the same way on every attempt
+    private static boolean rejected(RuntimeException ex) {
+        return ex instanceof NonTransientDataAccessException || ex instanceof ResourceNotFoundException;
+    }
+
+    private static String describe(LedgerWrite write) {
+        StringBuilder description = new StringBuilder("partition ").append(write.partition())
+                .append(", sequence ").append(write.sequence());
+        if (write.productId() != null) {
+            description.append(", product ").append(write.productId()).append(" balance change ").append(write.change());
+        }
+        Transaction transaction = write.transaction();
+        if (transaction != null) {
+            if (write.debitsSource()) {
+                description.append(", debiting ").append(accountId(transaction.getSourceAccount()));
+            }
+            description.append(", ").append(transaction.getTransactionType()).append(" of ").append(transaction.getAmount())
+                    .append(" from ").append(accountId(transaction.getSourceAccount()))
+                    .append(" to ").append(accountId(transaction.getDestinationAccount()));
+        }
+        return description.toString();
+    }
+
+    private static Long accountId(Product account) {
+        return account == null ? null : account.getId();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.financialapp.application.service.ledger;
+
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Transaction;
+
+// A balance change and/or a transaction row waiting to be flushed by the LedgerPersister.
+// The sequence is the record's position in the partition journal, 0 when the engine runs without one.
+// debitsSource marks a transfer persisted as one write: besides crediting productId it takes the transaction's amount
+// from its source account, so both legs reach the tables together or not at all.
+// onPersisted, if any, runs once the write and every write queued before it are in the tables.
+record LedgerWrite(int partition, long sequence, Long productId, Money change, Transaction transaction,
+                   boolean debitsSource, Runnable onPersisted) {
+
+    LedgerWrite(int partition, long sequence, Long productId, Money change, Transaction transaction) {
+        this(partition, sequence, productId, change, transaction, false, null);
+    }
+
+    // Carries nothing to write, only the callback
+    static LedgerWrite barrier(int partition, Runnable onPersisted) {
+        return new LedgerWrite(partition, 0, null, null, null, false, onPersisted);
+    }
+
+    // Keeps the position in the journal so the checkpoint can still move past a record the database rejected
+    LedgerWrite withoutRows() {
+        return new LedgerWrite(partition, sequence, null, null, null, false, onPersisted);
+    }
+}
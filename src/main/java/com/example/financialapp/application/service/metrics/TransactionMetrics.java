@@ -0,0 +1,116 @@
+package com.example.financialapp.application.service.metrics;
+
+import com.example.financialapp.domain.TransactionType;
+import com.example.financialapp.infrastructure.exception.AccountLockTimeoutException;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.Constants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Per-type latency of the two steps a movement goes through in DIRECT and GROUP_COMMIT modes (the ledger engine runs
+// neither on the request), rejections by reason and the transactions in flight.
+// Timers publish histogram buckets so /actuator/prometheus can compute percentiles across instances
+@Component
+public class TransactionMetrics {
+
+    public static final String INSUFFICIENT_BALANCE = "insufficient_balance";
+    public static final String NOT_FOUND = "not_found";
+    public static final String INVALID_AMOUNT = "invalid_amount";
+    public static final String INVALID_REQUEST = "invalid_request";
+    public static final String LOCK_TIMEOUT = "lock_timeout";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TransactionType, Timer> strategyTimers = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionType, Timer> saveTimers = new EnumMap<>(TransactionType.class);
+    private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Autowired
+    public TransactionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (TransactionType type : TransactionType.values()) {
+            strategyTimers.put(type, timer("transactions.strategy", "Time spent applying the balance changes", type));
+            saveTimers.put(type, timer("transactions.save", "Time spent inserting and flushing the transaction row", type));
+        }
+        // Registered up front so every reason shows up as a zero series before the first rejection
+        for (String reason : new String[]{INSUFFICIENT_BALANCE, NOT_FOUND, INVALID_AMOUNT, INVALID_REQUEST, LOCK_TIMEOUT, ERROR}) {
+            rejectionCounter(reason);
+        }
+        Gauge.builder("transactions.in_flight", inFlight, AtomicInteger::get)
+                .description("Transactions received and not yet committed or rejected")
+                .register(meterRegistry);
+    }
+
+    // Counts the work as in flight while it runs and its exception, if any, as a rejection
+    public <T> T track(int transactions, Supplier<T> work) {
+        inFlight.addAndGet(transactions);
+        try {
+            return work.get();
+        } catch (RuntimeException ex) {
+            rejected(ex);
+            throw ex;
+        } finally {
+            inFlight.addAndGet(-transactions);
+        }
+    }
+
+    public void timeStrategy(TransactionType type, Runnable step) {
+        strategyTimers.get(type).record(step);
+    }
+
+    public void timeSave(TransactionType type, Runnable step) {
+        saveTimers.get(type).record(step);
+    }
+
+    public void rejected(Throwable cause) {
+        rejectionCounter(reason(cause)).increment();
+    }
+
+    static String reason(Throwable cause) {
+        if (cause instanceof ResourceNotFoundException) {
+            return NOT_FOUND;
+        }
+        if (cause instanceof AccountLockTimeoutException) {
+            return LOCK_TIMEOUT;
+        }
+        if (cause instanceof InvalidRequestException) {
+            String message = cause.getMessage();
+            if (Constants.INSUFFICIENT_BALANCE.equals(message)) {
+                return INSUFFICIENT_BALANCE;
+            }
+            if (Constants.INVALID_DEPOSIT_AMOUNT.equals(message) || Constants.INVALID_WITHDRAWAL_AMOUNT.equals(message)
+                    || Constants.INVALID_TRANSFER_AMOUNT.equals(message)) {
+                return INVALID_AMOUNT;
+            }
+            return INVALID_REQUEST;
+        }
+        return ERROR;
+    }
+
+    private Counter rejectionCounter(String reason) {
+        return rejectionCounters.computeIfAbsent(reason, r -> Counter.builder("transactions.rejected")
+                .description("Transactions rejected, by reason")
+                .tag("reason", r)
+                .register(meterRegistry));
+    }
+
+    private Timer timer(String name, String description, TransactionType type) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("type", type.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,474 @@
+package com.example.financialapp.application.service.onboarding;
+
+import com.example.financialapp.adapters.outbound.ClientImportChunkRepository;
+import com.example.financialapp.adapters.outbound.ClientRepository;
+import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.ClientImportChunk;
+import com.example.financialapp.domain.ClientImportProgress;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.Constants;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Imports client files too large to upload, from the import directory, in the background. The file is read through
+// NIO and cut into chunks of chunk-size clients; parser threads check the chunks in parallel and hand them through a
+// bounded queue to writer threads, which insert each chunk in one batched transaction together with its
+// client_import_chunks row. At most parsers + queue-capacity * 2 + writers chunks are in memory whatever the file
+// size. Rejected lines go to <file>.rejects with their line number and reason. Starting the same file again skips the
+// chunks already committed, so an import interrupted by a crash or shutdown resumes where it stopped; the lines a
+// chunk rejected are written after it commits, so a resumed import does not write them twice
+@Component
+public class ClientImportPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientImportPipeline.class);
+    private static final ParsedChunk END = new ParsedChunk(null, List.of(), List.of());
+    private static final int MAX_FALLBACK_ATTEMPTS = 3;
+
+    private final ClientRowParser clientRowParser;
+    private final ClientRepository clientRepository;
+    private final ClientImportChunkRepository chunkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final int chunkSize;
+    private final int parsers;
+    private final int writers;
+    private final int queueCapacity;
+    private final int readBufferBytes;
+    // Imports run one at a time, in the order they were started
+    private final ExecutorService runner;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> failures = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ClientImportPipeline(ClientRowParser clientRowParser, ClientRepository clientRepository,
+                                ClientImportChunkRepository chunkRepository, PlatformTransactionManager transactionManager,
+                                @Value("${financialapp.client-import.directory:imports}") String directory,
+                                @Value("${financialapp.client-import.chunk-size:500}") int chunkSize,
+                                @Value("${financialapp.client-import.parsers:4}") int parsers,
+                                @Value("${financialapp.client-import.writers:2}") int writers,
+                                @Value("${financialapp.client-import.queue-capacity:8}") int queueCapacity,
+                                @Value("${financialapp.client-import.read-buffer-kb:1024}") int readBufferKb) {
+        if (chunkSize < 1 || parsers < 1 || writers < 1 || queueCapacity < 1 || readBufferKb < 1) {
+            throw new IllegalArgumentException("Client import chunk size, threads, queue capacity and buffer must be positive");
+        }
+        this.clientRowParser = clientRowParser;
+        this.clientRepository = clientRepository;
+        this.chunkRepository = chunkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.chunkSize = chunkSize;
+        this.parsers = parsers;
+        this.writers = writers;
+        this.queueCapacity = queueCapacity;
+        this.readBufferBytes = readBufferKb * 1024;
+        this.runner = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "client-import"));
+    }
+
+    public ClientImportProgress start(String fileName) {
+        Path file = resolve(fileName);
+        if (!running.add(fileName)) {
+            throw new InvalidRequestException(Constants.CLIENT_IMPORT_RUNNING + fileName);
+        }
+        failures.remove(fileName);
+        try {
+            runner.execute(() -> {
+                try {
+                    run(fileName, file);
+                } catch (RuntimeException ex) {
+                    logger.error("Import of {} stopped", fileName, ex);
+                    failures.put(fileName, String.valueOf(ex.getMessage()));
+                } finally {
+                    running.remove(fileName);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            running.remove(fileName);
+            throw ex;
+        }
+        return progress(fileName);
+    }
+
+    public ClientImportProgress progress(String fileName) {
+        Path file = resolve(fileName);
+        // Read before the chunks: an import that finishes in between would otherwise be reported as finished with
+        // the counts from before its last commits
+        boolean active = running.contains(fileName);
+        long committedBytes = 0;
+        long clients = 0;
+        long products = 0;
+        long rejected = 0;
+        for (ClientImportChunk chunk : chunkRepository.findByFileNameOrderByStartOffsetAsc(fileName)) {
+            committedBytes += chunk.getEndOffset() - chunk.getStartOffset();
+            clients += chunk.getClients();
+            products += chunk.getProducts();
+            rejected += chunk.getRejected();
+        }
+        try {
+            return new ClientImportProgress(fileName, active, Files.size(file), committedBytes,
+                    clients, products, rejected, failures.get(fileName));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // The running import stops after its current line; the chunks it committed are kept for the next start
+    @PreDestroy
+    public void stop() {
+        runner.shutdownNow();
+    }
+
+    private Path resolve(String fileName) {
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.getParent().equals(directory) || !Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException(Constants.CLIENT_IMPORT_FILE_NOT_FOUND + fileName);
+        }
+        return file;
+    }
+
+    private void run(String fileName, Path file) {
+        long started = System.nanoTime();
+        TreeMap<Long, ClientImportChunk> committed = new TreeMap<>();
+        chunkRepository.findByFileNameOrderByStartOffsetAsc(fileName)
+                .forEach(chunk -> committed.put(chunk.getStartOffset(), chunk));
+        Run run = new Run(fileName);
+        Path rejectsFile = file.resolveSibling(fileName + ".rejects");
+        try (CsvLineReader reader = new CsvLineReader(file, readBufferBytes);
+             Writer rejects = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (!ClientRowParser.HEADER.equals(reader.nextLine())) {
+                throw new InvalidRequestException(Constants.INVALID_CLIENT_IMPORT_HEADER + ClientRowParser.HEADER);
+            }
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor parsing = new ThreadPoolExecutor(parsers, parsers, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> new Thread(runnable, "client-import-parser-" + threadNumber.incrementAndGet()),
+                    // A full queue has the reader parse the chunk itself, which holds back reading
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            BlockingQueue<ParsedChunk> parsed = new ArrayBlockingQueue<>(queueCapacity);
+            List<Thread> writerThreads = new ArrayList<>(writers);
+            for (int i = 1; i <= writers; i++) {
+                Thread writer = new Thread(() -> writeLoop(parsed, rejects, run), "client-import-writer-" + i);
+                writer.start();
+                writerThreads.add(writer);
+            }
+            try {
+                read(reader, committed, parsing, parsed, run);
+            } catch (IOException | RuntimeException ex) {
+                run.fail(ex);
+            } finally {
+                finish(parsing, parsed, writerThreads, run);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (run.failure.get() != null) {
+            throw new IllegalStateException("Import of " + fileName + " stopped: " + run.failure.get().getMessage(),
+                    run.failure.get());
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - started);
+        logger.info("Imported {} clients and {} products from {} in {} ms ({} clients/s), {} lines rejected",
+                run.clients, run.products, fileName, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                run.clients.get() * 1_000_000_000L / elapsedNanos, run.rejected);
+    }
+
+    // Cuts the file into chunks at client boundaries, skipping the ranges committed by earlier runs
+    private void read(CsvLineReader reader, TreeMap<Long, ClientImportChunk> committed, ThreadPoolExecutor parsing,
+                      BlockingQueue<ParsedChunk> parsed, Run run) throws IOException {
+        RawChunk chunk = null;
+        while (run.failure.get() == null) {
+            if (Thread.currentThread().isInterrupted()) {
+                run.fail(new InterruptedException("Import interrupted at line " + reader.lineNumber()));
+                return;
+            }
+            long offset = reader.position();
+            Map.Entry<Long, ClientImportChunk> done = committed.floorEntry(offset);
+            if (done != null && offset < done.getValue().getEndOffset()) {
+                submit(chunk, parsing, parsed, run);
+                chunk = null;
+                reader.seek(done.getValue().getEndOffset(), done.getValue().getLastLine());
+                continue;
+            }
+            String line = reader.nextLine();
+            if (line == null) {
+                break;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            String key = ClientRowParser.clientKey(line);
+            if (chunk != null && !key.equals(chunk.lastKey) && chunk.clients.size() == chunkSize) {
+                submit(chunk, parsing, parsed, run);
+                chunk = null;
+            }
+            if (chunk == null) {
+                chunk = new RawChunk(offset, reader.lineNumber());
+            }
+            if (!key.equals(chunk.lastKey)) {
+                chunk.clients.add(new ArrayList<>());
+                chunk.lastKey = key;
+            }
+            chunk.clients.get(chunk.clients.size() - 1).add(new CsvRow(reader.lineNumber(), line));
+            chunk.endOffset = reader.position();
+            chunk.lastLine = reader.lineNumber();
+        }
+        submit(chunk, parsing, parsed, run);
+    }
+
+    private void submit(RawChunk chunk, ThreadPoolExecutor parsing, BlockingQueue<ParsedChunk> parsed, Run run) {
+        if (chunk == null || run.failure.get() != null) {
+            return;
+        }
+        parsing.execute(() -> {
+            try {
+                parsed.put(parse(chunk));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                run.fail(ex);
+            } catch (RuntimeException ex) {
+                run.fail(ex);
+            }
+        });
+    }
+
+    private ParsedChunk parse(RawChunk chunk) {
+        List<ParsedClient> accepted = new ArrayList<>(chunk.clients.size());
+        List<String> rejects = new ArrayList<>();
+        for (List<CsvRow> rows : chunk.clients) {
+            try {
+                accepted.add(new ParsedClient(clientRowParser.parse(rows), rows));
+            } catch (RowRejectedException ex) {
+                reject(rows, "line " + ex.getLineNumber() + ": " + ex.getMessage(), rejects);
+            }
+        }
+        return new ParsedChunk(chunk, accepted, rejects);
+    }
+
+    // After a failure the writers keep taking chunks without writing them, so no parser stays blocked on the queue
+    private void writeLoop(BlockingQueue<ParsedChunk> parsed, Writer rejects, Run run) {
+        while (true) {
+            ParsedChunk chunk;
+            try {
+                chunk = parsed.take();
+            } catch (InterruptedException ex) {
+                run.fail(ex);
+                return;
+            }
+            if (chunk == END) {
+                return;
+            }
+            if (run.failure.get() == null) {
+                try {
+                    write(chunk, rejects, run);
+                } catch (IOException | RuntimeException ex) {
+                    run.fail(ex);
+                }
+            }
+        }
+    }
+
+    private void write(ParsedChunk chunk, Writer rejects, Run run) throws IOException {
+        List<Client> clients = chunk.clients.stream().map(ParsedClient::client).toList();
+        int rejected = chunk.rejects.size();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                clientRepository.saveAll(clients);
+                chunkRepository.save(checkpoint(chunk, clients.size(), products(clients), rejected, run));
+            });
+            appendRejects(chunk.rejects, rejects);
+            run.add(clients.size(), products(clients), rejected);
+            return;
+        } catch (DataIntegrityViolationException ex) {
+            logger.debug("Chunk at line {} of {} repeats a registered client, saving its clients one by one",
+                    chunk.raw.firstLine, run.fileName);
+        }
+        List<Client> saved = new ArrayList<>(clients.size());
+        List<String> duplicates = new ArrayList<>();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    saved.clear();
+                    duplicates.clear();
+                    saveOrReject(chunk, saved, duplicates);
+                    // Committed with the clients it counts
+                    chunkRepository.save(checkpoint(chunk, saved.size(), products(saved), rejected + duplicates.size(), run));
+                });
+                break;
+            } catch (DataIntegrityViolationException ex) {
+                // Another writer committed one of these clients after it was looked up
+                if (attempt == MAX_FALLBACK_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+        appendRejects(chunk.rejects, rejects);
+        appendRejects(duplicates, rejects);
+        run.add(saved.size(), products(saved), rejected + duplicates.size());
+    }
+
+    // The clients are looked up rather than left to fail on insert: a constraint violation would take the whole
+    // transaction with it. The lookups flush the clients saved before them, so a repeat within the chunk is found too
+    private void saveOrReject(ParsedChunk chunk, List<Client> saved, List<String> duplicates) {
+        for (ParsedClient parsedClient : chunk.clients) {
+            Client client = parsedClient.client();
+            // Assigned by the rolled back attempt
+            client.setId(null);
+            client.getProducts().forEach(product -> product.setId(null));
+            if (clientRepository.existsByIdentificationNumberOrEmail(client.getIdentificationNumber(), client.getEmail())) {
+                reject(parsedClient.rows(), Constants.CLIENT_IMPORT_DUPLICATE, duplicates);
+            } else {
+                clientRepository.save(client);
+                saved.add(client);
+            }
+        }
+    }
+
+    private void finish(ThreadPoolExecutor parsing, BlockingQueue<ParsedChunk> parsed, List<Thread> writerThreads, Run run) {
+        boolean interrupted = false;
+        parsing.shutdown();
+        while (true) {
+            try {
+                if (parsing.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException ex) {
+                interrupted = true;
+                run.fail(ex);
+            }
+        }
+        for (int i = 0; i < writerThreads.size(); ) {
+            try {
+                parsed.put(END);
+                i++;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+                run.fail(ex);
+            }
+        }
+        for (int i = 0; i < writerThreads.size(); ) {
+            try {
+                writerThreads.get(i).join();
+                i++;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+                run.fail(ex);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ClientImportChunk checkpoint(ParsedChunk chunk, int clients, int products, int rejected, Run run) {
+        ClientImportChunk checkpoint = new ClientImportChunk();
+        checkpoint.setFileName(run.fileName);
+        checkpoint.setStartOffset(chunk.raw.startOffset);
+        checkpoint.setEndOffset(chunk.raw.endOffset);
+        checkpoint.setFirstLine(chunk.raw.firstLine);
+        checkpoint.setLastLine(chunk.raw.lastLine);
+        checkpoint.setClients(clients);
+        checkpoint.setProducts(products);
+        checkpoint.setRejected(rejected);
+        checkpoint.setCommittedAt(LocalDateTime.now());
+        return checkpoint;
+    }
+
+    private static int products(List<Client> clients) {
+        return clients.stream().mapToInt(client -> client.getProducts().size()).sum();
+    }
+
+    private static void reject(List<CsvRow> rows, String reason, List<String> rejects) {
+        String quotedReason = '"' + reason.replace("\"", "\"\"") + '"';
+        rows.forEach(row -> rejects.add(row.lineNumber() + "," + quotedReason + "," + row.text()));
+    }
+
+    // Written once the chunk has committed, so a chunk that rolls back leaves no rejects behind
+    private static void appendRejects(List<String> lines, Writer rejects) throws IOException {
+        if (lines.isEmpty()) {
+            return;
+        }
+        synchronized (rejects) {
+            for (String line : lines) {
+                rejects.write(line);
+                rejects.write('\n');
+            }
+            rejects.flush();
+        }
+    }
+
+    private static final class Run {
+        private final String fileName;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final AtomicLong clients = new AtomicLong();
+        private final AtomicLong products = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        private Run(String fileName) {
+            this.fileName = fileName;
+        }
+
+        private void fail(Throwable ex) {
+            failure.compareAndSet(null, ex);
+        }
+
+        private void add(int clients, int products, int rejected) {
+            this.clients.addAndGet(clients);
+            this.products.addAndGet(products);
+            this.rejected.addAndGet(rejected);
+        }
+    }
+
+    // The lines of each client in the chunk, and the byte range and line numbers they span
+    private static final class RawChunk {
+        private final long startOffset;
+        private final long firstLine;
+        private final List<List<CsvRow>> clients = new ArrayList<>();
+        private long endOffset;
+        private long lastLine;
+        private String lastKey;
+
+        private RawChunk(long startOffset, long firstLine) {
+            this.startOffset = startOffset;
+            this.firstLine = firstLine;
+        }
+    }
+
+    private record ParsedClient(Client client, List<CsvRow> rows) {
+    }
+
+    private record ParsedChunk(RawChunk raw, List<ParsedClient> clients, List<String> rejects) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.financialapp.application.service.onboarding;
+
+import com.example.financialapp.application.service.sequence.AccountNumberAllocator;
+import com.example.financialapp.domain.AccountStatus;
+import com.example.financialapp.domain.AccountType;
+import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Turns the lines of one client in an import file into the client with its products, checked like POST /api/clients
+// and POST /api/products. Safe to call from several threads
+@Component
+public class ClientRowParser {
+
+    // One line per product; consecutive lines of the same client add products to it, an empty accountType adds none
+    public static final String HEADER = "identificationType,identificationNumber,firstName,lastName,email,birthdate,"
+            + "accountType,balance,gmfExempt";
+    private static final int COLUMNS = 9;
+
+    private final Validator validator;
+    private final AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    public ClientRowParser(Validator validator, AccountNumberAllocator accountNumberAllocator) {
+        this.validator = validator;
+        this.accountNumberAllocator = accountNumberAllocator;
+    }
+
+    // The identificationNumber column, which tells where the lines of the next client start
+    public static String clientKey(String line) {
+        int first = line.indexOf(',');
+        int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+        return second < 0 ? line : line.substring(first + 1, second);
+    }
+
+    // Account numbers are only allocated once every line of the client passed
+    public Client parse(List<CsvRow> rows) {
+        Client client = null;
+        for (CsvRow row : rows) {
+            String[] fields = row.text().split(",", -1);
+            if (fields.length != COLUMNS) {
+                throw new RowRejectedException(row.lineNumber(), "expected " + COLUMNS + " columns but found " + fields.length);
+            }
+            if (client == null) {
+                client = parseClient(row, fields);
+            }
+            if (!fields[6].isEmpty()) {
+                client.getProducts().add(parseProduct(row, fields, client));
+            }
+        }
+        client.getProducts().forEach(product ->
+                product.setAccountNumber(accountNumberAllocator.next(product.getAccountType())));
+        return client;
+    }
+
+    private Client parseClient(CsvRow row, String[] fields) {
+        if (fields[0].isEmpty() || fields[1].isEmpty() || fields[4].isEmpty()) {
+            throw new RowRejectedException(row.lineNumber(), "identificationType, identificationNumber and email are required");
+        }
+        Client client = new Client();
+        client.setIdentificationType(fields[0]);
+        client.setIdentificationNumber(fields[1]);
+        client.setFirstName(fields[2]);
+        client.setLastName(fields[3]);
+        client.setEmail(fields[4]);
+        try {
+            client.setBirthdate(LocalDate.parse(fields[5]));
+        } catch (DateTimeParseException ex) {
+            throw new RowRejectedException(row.lineNumber(), "birthdate is not a date: " + fields[5]);
+        }
+        Set<ConstraintViolation<Client>> violations = validator.validate(client);
+        if (!violations.isEmpty()) {
+            throw new RowRejectedException(row.lineNumber(), violations.iterator().next().getMessage());
+        }
+        check(row, () -> OnboardingRules.checkNewClient(client));
+        client.setProducts(new ArrayList<>());
+        return client;
+    }
+
+    private Product parseProduct(CsvRow row, String[] fields, Client client) {
+        Product product = new Product();
+        try {
+            product.setAccountType(AccountType.valueOf(fields[6]));
+            product.setBalance(Money.of(new BigDecimal(fields[7])));
+        } catch (IllegalArgumentException | ArithmeticException ex) {
+            throw new RowRejectedException(row.lineNumber(), "invalid accountType or balance: " + fields[6] + ", " + fields[7]);
+        }
+        product.setGmfExempt(Boolean.parseBoolean(fields[8]));
+        // Imported accounts are open, checking ones included
+        product.setStatus(AccountStatus.ACTIVE);
+        check(row, () -> OnboardingRules.checkNewProductAndSetDefaults(product));
+        product.setClient(client);
+        return product;
+    }
+
+    private static void check(CsvRow row, Runnable rule) {
+        try {
+            rule.run();
+        } catch (InvalidRequestException ex) {
+            throw new RowRejectedException(row.lineNumber(), ex.getMessage());
+        }
+    }
+}
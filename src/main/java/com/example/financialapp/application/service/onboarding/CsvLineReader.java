@@ -0,0 +1,84 @@
+package com.example.financialapp.application.service.onboarding;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Reads a file line by line through a FileChannel and one fixed-size buffer, so memory does not grow with the file.
+// Tracks the byte offset where the next line starts, which is what an interrupted import resumes from
+final class CsvLineReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long position;
+    private long lineNumber;
+    private boolean endOfFile;
+
+    CsvLineReader(Path file, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+    }
+
+    // Offset of the first byte of the next line
+    long position() {
+        return position;
+    }
+
+    // Number of the line returned last
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    // offset must be the start of a line, the one after lineNumber
+    void seek(long offset, long lineNumber) throws IOException {
+        channel.position(offset);
+        buffer.clear().flip();
+        this.position = offset;
+        this.lineNumber = lineNumber;
+        this.endOfFile = false;
+    }
+
+    // Null at the end of the file
+    String nextLine() throws IOException {
+        while (true) {
+            for (int i = buffer.position(); i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    return take(i + 1);
+                }
+            }
+            if (endOfFile) {
+                // The last line has no line break
+                return buffer.hasRemaining() ? take(buffer.limit()) : null;
+            }
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                throw new IllegalStateException("Line " + (lineNumber + 1) + " is longer than the read buffer of "
+                        + buffer.capacity() + " bytes");
+            }
+            buffer.compact();
+            endOfFile = channel.read(buffer) < 0;
+            buffer.flip();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private String take(int end) {
+        int start = buffer.position();
+        int length = end - start;
+        buffer.position(end);
+        position += length;
+        lineNumber++;
+        while (length > 0 && (buffer.get(start + length - 1) == '\n' || buffer.get(start + length - 1) == '\r')) {
+            length--;
+        }
+        return new String(buffer.array(), start, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.financialapp.application.service.onboarding;
+
+// One line of an import file with its 1-based line number, the header being line 1
+public record CsvRow(long lineNumber, String text) {
+}
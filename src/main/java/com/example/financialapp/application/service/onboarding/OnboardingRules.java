@@ -0,0 +1,39 @@
+package com.example.financialapp.application.service.onboarding;
+
+import com.example.financialapp.domain.AccountStatus;
+import com.example.financialapp.domain.AccountType;
+import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.util.Constants;
+
+import java.time.LocalDate;
+
+// Checks a new client or product must pass, whether it comes through the API or an import
+public final class OnboardingRules {
+
+    private OnboardingRules() {
+    }
+
+    public static void checkNewClient(Client client) {
+        if (client.getBirthdate().plusYears(18).isAfter(LocalDate.now())) {
+            throw new InvalidRequestException(Constants.CLIENT_UNDERAGE);
+        }
+    }
+
+    public static void checkNewProductAndSetDefaults(Product product) {
+        if (product.getAccountType() == AccountType.SAVINGS) {
+            // Ensure savings account balance is not negative
+            if (product.getBalance().isNegative()) {
+                throw new InvalidRequestException("Savings account balance cannot be negative");
+            }
+            // Set default status to ACTIVE for savings accounts
+            if (product.getStatus() == null) {
+                product.setStatus(AccountStatus.ACTIVE);
+            }
+        }
+        if (product.getStatus() == AccountStatus.CANCELED) {
+            throw new InvalidRequestException("Cannot create a product with a CANCELLED status");
+        }
+    }
+}
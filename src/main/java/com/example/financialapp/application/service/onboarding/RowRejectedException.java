@@ -0,0 +1,15 @@
+package com.example.financialapp.application.service.onboarding;
+
+public class RowRejectedException extends RuntimeException {
+
+    private final long lineNumber;
+
+    public RowRejectedException(long lineNumber, String reason) {
+        super(reason);
+        this.lineNumber = lineNumber;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.financialapp.application.service.sequence;
+
+import com.example.financialapp.adapters.outbound.AccountNumberBlockRepository;
+import com.example.financialapp.domain.AccountNumberBlock;
+import com.example.financialapp.domain.AccountType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hands out account numbers hi-lo style: each prefix's row in account_number_blocks is moved block-size ahead in a
+// short transaction of its own, and the numbers in between are given out from memory. Numbers left in a block when the
+// application stops are skipped, never reused
+@Component
+public class AccountNumberAllocator {
+
+    // Eight digits follow the two digit prefix in the 10 character account_number column
+    static final long MAX_VALUE = 99_999_999L;
+
+    private final AccountNumberBlockRepository blockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final Map<AccountType, Sequence> sequences = new EnumMap<>(AccountType.class);
+
+    @Autowired
+    public AccountNumberAllocator(AccountNumberBlockRepository blockRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${financialapp.account-numbers.block-size:100}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Account number block size must be positive");
+        }
+        this.blockRepository = blockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The row lock is released right away instead of when the product's transaction ends
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+        for (AccountType accountType : AccountType.values()) {
+            sequences.put(accountType, new Sequence(accountType.getAccountNumberPrefix()));
+        }
+    }
+
+    public String next(AccountType accountType) {
+        Sequence sequence = sequences.get(accountType);
+        return sequence.prefix + String.format("%08d", nextValue(sequence));
+    }
+
+    private long nextValue(Sequence sequence) {
+        while (true) {
+            Block block = sequence.block.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            refill(sequence, block);
+        }
+    }
+
+    // Only the first thread to find the block used up reserves the next one; the others wait for it and retry
+    private void refill(Sequence sequence, Block exhausted) {
+        sequence.refillLock.lock();
+        try {
+            if (sequence.block.get() == exhausted) {
+                sequence.block.set(reserve(sequence.prefix));
+            }
+        } finally {
+            sequence.refillLock.unlock();
+        }
+    }
+
+    private Block reserve(String prefix) {
+        try {
+            return transactionTemplate.execute(status -> reserveIn(prefix));
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance created the prefix's row first
+            return transactionTemplate.execute(status -> reserveIn(prefix));
+        }
+    }
+
+    private Block reserveIn(String prefix) {
+        AccountNumberBlock row = blockRepository.findForUpdate(prefix).orElseGet(() -> {
+            // V5 seeds the rows of migrated databases; a schema generated from the entities starts at 1
+            AccountNumberBlock created = new AccountNumberBlock();
+            created.setPrefix(prefix);
+            created.setNextValue(1);
+            return created;
+        });
+        long start = row.getNextValue();
+        if (start > MAX_VALUE) {
+            throw new IllegalStateException("No account numbers left for prefix " + prefix);
+        }
+        long end = Math.min(start + blockSize, MAX_VALUE + 1);
+        row.setNextValue(end);
+        blockRepository.save(row);
+        return new Block(start, end);
+    }
+
+    private static final class Sequence {
+        private final String prefix;
+        private final AtomicReference<Block> block = new AtomicReference<>(new Block(0, 0));
+        private final ReentrantLock refillLock = new ReentrantLock();
+
+        private Sequence(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    // Numbers from next up to end (exclusive); next keeps counting past end once the block is used up
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
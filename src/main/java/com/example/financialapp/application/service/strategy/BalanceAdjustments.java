@@ -0,0 +1,33 @@
+package com.example.financialapp.application.service.strategy;
+
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.Constants;
+
+import java.math.BigDecimal;
+
+import static com.example.financialapp.domain.Money.SCALE;
+
+// Single-statement balance changes shared by the strategies; the existence check only runs on the rejection path.
+// Amounts arrive as minor units and only become a BigDecimal when bound to the statement.
+final class BalanceAdjustments {
+
+    private BalanceAdjustments() {
+    }
+
+    static void credit(ProductRepository productRepository, Long accountId, long minorUnits) {
+        if (productRepository.adjustBalance(accountId, BigDecimal.valueOf(minorUnits, SCALE)) == 0) {
+            throw new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + accountId);
+        }
+    }
+
+    static void debit(ProductRepository productRepository, Long accountId, long minorUnits) {
+        if (productRepository.adjustBalance(accountId, BigDecimal.valueOf(-minorUnits, SCALE)) == 0) {
+            if (!productRepository.existsById(accountId)) {
+                throw new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + accountId);
+            }
+            throw new InvalidRequestException(Constants.INSUFFICIENT_BALANCE);
+        }
+    }
+}
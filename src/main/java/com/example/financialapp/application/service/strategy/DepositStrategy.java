@@ -1,35 +1,39 @@
 package com.example.financialapp.application.service.strategy;
 
-import com.example.financialapp.application.service.strategy.TransactionStrategy;
-import com.example.financialapp.domain.Product;
+import com.example.financialapp.application.service.cache.ProductCache;
 import com.example.financialapp.domain.Transaction;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
-import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
 import com.example.financialapp.adapters.outbound.ProductRepository;
 import com.example.financialapp.util.Constants;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-
 @Component
 public class DepositStrategy implements TransactionStrategy {
 
-    @Override
-    public void execute(Transaction transaction, ProductRepository productRepository) {
-        validateDepositAmount(transaction.getAmount());
+    private final HotAccountBalances hotAccountBalances;
+    private final ProductCache productCache;
 
-        Product account = productRepository.findById(transaction.getDestinationAccount().getId())
-                .orElseThrow(() -> new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + transaction.getDestinationAccount().getId()));
+    @Autowired
+    public DepositStrategy(HotAccountBalances hotAccountBalances, ProductCache productCache) {
+        this.hotAccountBalances = hotAccountBalances;
+        this.productCache = productCache;
+    }
 
-        account.setBalance(account.getBalance().add(transaction.getAmount()));
-        productRepository.save(account);
+    @Override
+    public void execute(Transaction transaction, ProductRepository productRepository) {
+        long amount = transaction.getAmount().minorUnits();
+        validateDepositAmount(amount);
 
-        transaction.setDestinationAccount(account);
+        Long destinationAccountId = transaction.getDestinationAccount().getId();
+        hotAccountBalances.credit(productRepository, destinationAccountId, amount);
+        transaction.setDestinationAccount(hotAccountBalances.current(productRepository, destinationAccountId));
+        productCache.evictAfterCommit(destinationAccountId);
     }
 
-    private void validateDepositAmount(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new InvalidRequestException("The deposit amount must be positive.");
+    private void validateDepositAmount(long amount) {
+        if (amount <= 0) {
+            throw new InvalidRequestException(Constants.INVALID_DEPOSIT_AMOUNT);
         }
     }
 }
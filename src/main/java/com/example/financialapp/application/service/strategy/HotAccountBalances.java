@@ -0,0 +1,183 @@
+package com.example.financialapp.application.service.strategy;
+
+import com.example.financialapp.adapters.outbound.ProductBalanceSlotRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.ProductBalanceSlot;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.Constants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.financialapp.domain.Money.SCALE;
+
+// Opt-in sharding of the balance of accounts that receive a large share of all deposits (payroll collection,
+// merchant settlement). Credits to a hot account go to one of its slot rows, picked by hashing the calling thread,
+// so concurrent deposits no longer queue on the products row. Debits still run against products.balance and only
+// move the slots into it, under a lock on all of them, when that balance alone is short.
+@Component
+public class HotAccountBalances {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotAccountBalances.class);
+
+    private final ProductBalanceSlotRepository slotRepository;
+    private final Set<Long> hotAccountIds;
+    private final int slots;
+    private final Counter consolidationCounter;
+
+    @Autowired
+    public HotAccountBalances(ProductBalanceSlotRepository slotRepository, MeterRegistry meterRegistry,
+                              @Value("${financialapp.hot-accounts.product-ids:}") Set<Long> hotAccountIds,
+                              @Value("${financialapp.hot-accounts.slots:16}") int slots) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("Hot account slot count must be positive");
+        }
+        this.slotRepository = slotRepository;
+        this.hotAccountIds = Set.copyOf(hotAccountIds);
+        this.slots = slots;
+        this.consolidationCounter = Counter.builder("account.hot.consolidations")
+                .description("Debits that had to move the slot balances of a hot account into its products row")
+                .register(meterRegistry);
+    }
+
+    public boolean isHot(Long accountId) {
+        return hotAccountIds.contains(accountId);
+    }
+
+    // Slots are only created for hot accounts that already exist; until then their deposits go to the products row
+    @EventListener(ApplicationReadyEvent.class)
+    public void createMissingSlots(ApplicationReadyEvent event) {
+        createMissingSlots(event.getApplicationContext().getBean(ProductRepository.class));
+    }
+
+    public void createMissingSlots(ProductRepository productRepository) {
+        for (Long accountId : hotAccountIds) {
+            if (!productRepository.existsById(accountId)) {
+                logger.warn("Hot account {} does not exist, its deposits are not sharded", accountId);
+                continue;
+            }
+            Set<Integer> existing = new HashSet<>(slotRepository.findSlotNumbers(accountId));
+            List<ProductBalanceSlot> missing = new ArrayList<>();
+            for (int slot = 0; slot < slots; slot++) {
+                if (!existing.contains(slot)) {
+                    ProductBalanceSlot balanceSlot = new ProductBalanceSlot();
+                    balanceSlot.setProductId(accountId);
+                    balanceSlot.setSlot(slot);
+                    balanceSlot.setBalance(Money.ZERO);
+                    missing.add(balanceSlot);
+                }
+            }
+            try {
+                slotRepository.saveAll(missing);
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance created them first
+                logger.debug("Balance slots of hot account {} already exist", accountId);
+            }
+        }
+    }
+
+    public void credit(ProductRepository productRepository, Long accountId, long minorUnits) {
+        if (isHot(accountId)
+                && slotRepository.credit(accountId, slotForCurrentThread(), BigDecimal.valueOf(minorUnits, SCALE)) == 1) {
+            return;
+        }
+        BalanceAdjustments.credit(productRepository, accountId, minorUnits);
+    }
+
+    public void debit(ProductRepository productRepository, Long accountId, long minorUnits) {
+        if (isHot(accountId)) {
+            if (productRepository.adjustBalance(accountId, BigDecimal.valueOf(-minorUnits, SCALE)) == 1) {
+                return;
+            }
+            consolidate(productRepository, accountId);
+        }
+        BalanceAdjustments.debit(productRepository, accountId, minorUnits);
+    }
+
+    // Must run inside the caller's transaction so the slot locks are held until the debit commits
+    private void consolidate(ProductRepository productRepository, Long accountId) {
+        long total = 0;
+        for (BigDecimal balance : slotRepository.lockSlots(accountId)) {
+            total = Math.addExact(total, Money.of(balance).minorUnits());
+        }
+        if (total == 0) {
+            return;
+        }
+        consolidationCounter.increment();
+        slotRepository.clear(accountId);
+        BalanceAdjustments.credit(productRepository, accountId, total);
+    }
+
+    public Money totalBalance(Product product) {
+        if (!isHot(product.getId()) || product.getBalance() == null) {
+            return product.getBalance();
+        }
+        return product.getBalance().plus(Money.of(slotRepository.sumBalance(product.getId())));
+    }
+
+    // A copy carrying the summed balance, so the managed entity is never written back with it
+    public Product withTotalBalance(Product product) {
+        if (!isHot(product.getId())) {
+            return product;
+        }
+        return snapshot(product);
+    }
+
+    // Always a detached copy, for callers that keep the product beyond the current request
+    public Product snapshot(Product product) {
+        return copy(product, totalBalance(product));
+    }
+
+    // The account as the current transaction has left it, for the response to a movement. The UPDATE cannot hand the
+    // new balance back on MySQL, so a single SELECT reads it, slots included; the other columns come from findById,
+    // which the second-level cache answers because the balance UPDATEs do not invalidate it
+    public Product current(ProductRepository productRepository, Long accountId) {
+        Product account = productRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + accountId));
+        BigDecimal balance = isHot(accountId)
+                ? productRepository.findTotalBalance(accountId)
+                : productRepository.findBalance(accountId);
+        return copy(account, Money.of(balance));
+    }
+
+    private static Product copy(Product product, Money balance) {
+        Product copy = new Product();
+        copy.setId(product.getId());
+        copy.setAccountType(product.getAccountType());
+        copy.setAccountNumber(product.getAccountNumber());
+        copy.setStatus(product.getStatus());
+        copy.setBalance(balance);
+        copy.setGmfExempt(product.isGmfExempt());
+        copy.setCreatedAt(product.getCreatedAt());
+        copy.setUpdatedAt(product.getUpdatedAt());
+        copy.setClient(product.getClient());
+        return copy;
+    }
+
+    // Setting the balance of a hot account replaces its total, so the slots start again from zero
+    public void clearSlots(Long accountId) {
+        if (isHot(accountId)) {
+            slotRepository.clear(accountId);
+        }
+    }
+
+    private int slotForCurrentThread() {
+        long threadId = Thread.currentThread().threadId();
+        return Math.floorMod(Long.hashCode(threadId * 0x9E3779B97F4A7C15L), slots);
+    }
+}
@@ -1,37 +1,57 @@
 package com.example.financialapp.application.service.strategy;
 
-import com.example.financialapp.application.service.strategy.TransactionStrategy;
-import com.example.financialapp.domain.Product;
+import com.example.financialapp.application.service.lock.AccountLockManager;
+import com.example.financialapp.application.service.cache.ProductCache;
 import com.example.financialapp.domain.Transaction;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
-import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
 import com.example.financialapp.adapters.outbound.ProductRepository;
 import com.example.financialapp.util.Constants;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class TransferStrategy implements TransactionStrategy {
 
-    @Override
-    public void execute(Transaction transaction, ProductRepository productRepository) {
-
-        Product sourceAccount = productRepository.findById(transaction.getSourceAccount().getId())
-                .orElseThrow(() -> new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + transaction.getSourceAccount().getId()));
+    private final AccountLockManager accountLockManager;
+    private final HotAccountBalances hotAccountBalances;
+    private final ProductCache productCache;
 
-        Product destinationAccount = productRepository.findById(transaction.getDestinationAccount().getId())
-                .orElseThrow(() -> new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + transaction.getDestinationAccount().getId()));
+    @Autowired
+    public TransferStrategy(AccountLockManager accountLockManager, HotAccountBalances hotAccountBalances,
+                         ProductCache productCache) {
+        this.accountLockManager = accountLockManager;
+        this.hotAccountBalances = hotAccountBalances;
+        this.productCache = productCache;
+    }
 
-        if (sourceAccount.getBalance().compareTo(transaction.getAmount()) < 0) {
-            throw new InvalidRequestException(Constants.INSUFFICIENT_BALANCE);
+    @Override
+    public void execute(Transaction transaction, ProductRepository productRepository) {
+        Long sourceAccountId = transaction.getSourceAccount().getId();
+        Long destinationAccountId = transaction.getDestinationAccount().getId();
+        long amount = transaction.getAmount().minorUnits();
+        validateTransferAmount(amount);
+
+        // Rows are always locked and updated in ascending id order so concurrent A->B and B->A transfers cannot deadlock.
+        // Either update failing throws, rolling back the other one with the surrounding transaction.
+        // The stripes are released once that transaction completes (see AccountLockManager.Locks).
+        try (AccountLockManager.Locks locks = accountLockManager.lock(productRepository, sourceAccountId, destinationAccountId)) {
+            if (sourceAccountId <= destinationAccountId) {
+                hotAccountBalances.debit(productRepository, sourceAccountId, amount);
+                hotAccountBalances.credit(productRepository, destinationAccountId, amount);
+            } else {
+                hotAccountBalances.credit(productRepository, destinationAccountId, amount);
+                hotAccountBalances.debit(productRepository, sourceAccountId, amount);
+            }
         }
+        transaction.setSourceAccount(hotAccountBalances.current(productRepository, sourceAccountId));
+        transaction.setDestinationAccount(hotAccountBalances.current(productRepository, destinationAccountId));
+        productCache.evictAfterCommit(sourceAccountId);
+        productCache.evictAfterCommit(destinationAccountId);
+    }
 
-        sourceAccount.setBalance(sourceAccount.getBalance().subtract(transaction.getAmount()));
-        destinationAccount.setBalance(destinationAccount.getBalance().add(transaction.getAmount()));
-
-        productRepository.save(sourceAccount);
-        productRepository.save(destinationAccount);
-
-        transaction.setSourceAccount(sourceAccount);
-        transaction.setDestinationAccount(destinationAccount);
+    private void validateTransferAmount(long amount) {
+        if (amount <= 0) {
+            throw new InvalidRequestException(Constants.INVALID_TRANSFER_AMOUNT);
+        }
     }
 }
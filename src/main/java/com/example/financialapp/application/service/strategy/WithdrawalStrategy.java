@@ -1,39 +1,45 @@
 package com.example.financialapp.application.service.strategy;
 
-import com.example.financialapp.application.service.strategy.TransactionStrategy;
-import com.example.financialapp.domain.Product;
+import com.example.financialapp.application.service.lock.AccountLockManager;
+import com.example.financialapp.application.service.cache.ProductCache;
 import com.example.financialapp.domain.Transaction;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
-import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
 import com.example.financialapp.adapters.outbound.ProductRepository;
 import com.example.financialapp.util.Constants;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-
 @Component
 public class WithdrawalStrategy implements TransactionStrategy {
 
+    private final AccountLockManager accountLockManager;
+    private final HotAccountBalances hotAccountBalances;
+    private final ProductCache productCache;
+
+    @Autowired
+    public WithdrawalStrategy(AccountLockManager accountLockManager, HotAccountBalances hotAccountBalances,
+                           ProductCache productCache) {
+        this.accountLockManager = accountLockManager;
+        this.hotAccountBalances = hotAccountBalances;
+        this.productCache = productCache;
+    }
+
     @Override
     public void execute(Transaction transaction, ProductRepository productRepository) {
-        validateWithdrawalAmount(transaction.getAmount());
+        long amount = transaction.getAmount().minorUnits();
+        validateWithdrawalAmount(amount);
 
-        Product account = productRepository.findById(transaction.getSourceAccount().getId())
-                .orElseThrow(() -> new ResourceNotFoundException(Constants.PRODUCT_NOT_FOUND + transaction.getSourceAccount().getId()));
-
-        if (account.getBalance().compareTo(transaction.getAmount().abs()) < 0) {
-            throw new InvalidRequestException(Constants.INSUFFICIENT_BALANCE);
+        Long sourceAccountId = transaction.getSourceAccount().getId();
+        try (AccountLockManager.Locks locks = accountLockManager.lock(productRepository, sourceAccountId)) {
+            hotAccountBalances.debit(productRepository, sourceAccountId, -amount);
         }
-
-        account.setBalance(account.getBalance().subtract(transaction.getAmount().abs()));
-        productRepository.save(account);
-
-        transaction.setSourceAccount(account);
+        transaction.setSourceAccount(hotAccountBalances.current(productRepository, sourceAccountId));
+        productCache.evictAfterCommit(sourceAccountId);
     }
 
-    private void validateWithdrawalAmount(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) >= 0) {
-            throw new InvalidRequestException("The withdrawal amount must be negative.");
+    private void validateWithdrawalAmount(long amount) {
+        if (amount >= 0) {
+            throw new InvalidRequestException(Constants.INVALID_WITHDRAWAL_AMOUNT);
         }
     }
 }
@@ -0,0 +1,24 @@
+package com.example.financialapp.config;
+
+import com.example.financialapp.application.service.ledger.JournalFsyncPolicy;
+import com.example.financialapp.application.service.ledger.JournalSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(name = "financialapp.transactions.processing-mode", havingValue = "JOURNAL")
+public class LedgerJournalConfig {
+
+    @Bean
+    public JournalSettings journalSettings(
+            @Value("${financialapp.ledger.journal.directory:journal}") String directory,
+            @Value("${financialapp.ledger.journal.fsync-policy:ALWAYS}") JournalFsyncPolicy fsyncPolicy,
+            @Value("${financialapp.ledger.journal.fsync-interval-ms:10}") long fsyncIntervalMillis,
+            @Value("${financialapp.ledger.journal.segment-size-mb:64}") int segmentSizeMb) {
+        return new JournalSettings(Path.of(directory), fsyncPolicy, fsyncIntervalMillis, segmentSizeMb * 1024 * 1024);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.financialapp.config;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.SavepointManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+// Hibernate's dialect offers no savepoints, so PROPAGATION_NESTED failed with NestedTransactionNotSupportedException.
+// These are set on the session's JDBC connection: the session is flushed before each one, so everything before it is
+// in the database, and cleared after rolling back to one, so nothing from after it is flushed later. A statement that
+// fails inside Hibernate still leaves the whole transaction rollback-only, which callers check for
+public class SavepointHibernateJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        return new SavepointTransactionData(super.beginTransaction(entityManager, definition),
+                entityManager.unwrap(SessionImplementor.class));
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        // Also called with the data of prepareTransaction, which is not wrapped
+        super.cleanupTransaction(transactionData instanceof SavepointTransactionData data ? data.transactionData() : transactionData);
+    }
+
+    private record SavepointTransactionData(Object transactionData, SessionImplementor session) implements SavepointManager {
+
+        @Override
+        public Object createSavepoint() {
+            session.flush();
+            try {
+                return connection().setSavepoint();
+            } catch (SQLException ex) {
+                throw new CannotCreateTransactionException("Could not create JDBC savepoint", ex);
+            }
+        }
+
+        @Override
+        public void rollbackToSavepoint(Object savepoint) {
+            try {
+                connection().rollback((Savepoint) savepoint);
+            } catch (SQLException ex) {
+                throw new TransactionSystemException("Could not roll back to JDBC savepoint", ex);
+            }
+            session.clear();
+        }
+
+        @Override
+        public void releaseSavepoint(Object savepoint) {
+            try {
+                connection().releaseSavepoint((Savepoint) savepoint);
+            } catch (SQLException ex) {
+                // Released with the transaction anyway
+            }
+        }
+
+        private Connection connection() {
+            return session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection();
+        }
+    }
+}
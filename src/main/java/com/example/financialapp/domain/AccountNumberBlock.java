@@ -0,0 +1,18 @@
+package com.example.financialapp.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Next account number not yet reserved by any application instance, per account number prefix
+@Data
+@Entity
+@Table(name = "account_number_blocks")
+public class AccountNumberBlock {
+
+    @Id
+    @Column(name = "prefix", length = 2)
+    private String prefix;
+
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+}
@@ -1,5 +1,16 @@
 package com.example.financialapp.domain;
 
 public enum AccountType {
-    SAVINGS, CHECKING
+    SAVINGS("53"),
+    CHECKING("33");
+
+    private final String accountNumberPrefix;
+
+    AccountType(String accountNumberPrefix) {
+        this.accountNumberPrefix = accountNumberPrefix;
+    }
+
+    public String getAccountNumberPrefix() {
+        return accountNumberPrefix;
+    }
 }
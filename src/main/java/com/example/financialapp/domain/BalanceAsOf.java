@@ -0,0 +1,7 @@
+package com.example.financialapp.domain;
+
+import java.time.LocalDateTime;
+
+// Balance of the account after every movement dated before asOf
+public record BalanceAsOf(Long productId, LocalDateTime asOf, Money balance) {
+}
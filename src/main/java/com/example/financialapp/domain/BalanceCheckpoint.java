@@ -0,0 +1,40 @@
+package com.example.financialapp.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Balance of an account once every movement dated before the day after balanceDate is applied
+@Data
+@Entity
+@Table(name = "balance_checkpoints", indexes = @Index(name = "idx_balance_checkpoints_date", columnList = "balance_date"))
+@IdClass(BalanceCheckpoint.Key.class)
+public class BalanceCheckpoint {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "balance_date")
+    private LocalDate balanceDate;
+
+    @Column(name = "balance", nullable = false, precision = 19, scale = Money.SCALE)
+    private Money balance;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long productId;
+        private LocalDate balanceDate;
+    }
+}
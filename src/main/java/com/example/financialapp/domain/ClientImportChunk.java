@@ -0,0 +1,55 @@
+package com.example.financialapp.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// A committed byte range of an import file; committed together with the clients it holds, so a restarted import
+// skips exactly these ranges
+@Data
+@Entity
+@Table(name = "client_import_chunks")
+@IdClass(ClientImportChunk.Key.class)
+public class ClientImportChunk {
+
+    @Id
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Id
+    @Column(name = "start_offset")
+    private Long startOffset;
+
+    @Column(name = "end_offset", nullable = false)
+    private long endOffset;
+
+    @Column(name = "first_line", nullable = false)
+    private long firstLine;
+
+    @Column(name = "last_line", nullable = false)
+    private long lastLine;
+
+    @Column(name = "clients", nullable = false)
+    private int clients;
+
+    @Column(name = "products", nullable = false)
+    private int products;
+
+    @Column(name = "rejected", nullable = false)
+    private int rejected;
+
+    @Column(name = "committed_at", nullable = false)
+    private LocalDateTime committedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String fileName;
+        private Long startOffset;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.financialapp.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// committedBytes is the size of the chunks imported so far, which leaves out the header and blank lines; failure is why
+// the last run stopped early
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ClientImportProgress(String fileName, boolean running, long fileBytes, long committedBytes, long clients,
+                                   long products, long rejected, String failure) {
+}
@@ -0,0 +1,10 @@
+package com.example.financialapp.domain;
+
+public record ClientImportResult(long clients, long products, long rejected, long elapsedMillis, long clientsPerSecond) {
+
+    public static ClientImportResult of(long clients, long products, long rejected, long elapsedNanos) {
+        long elapsedMillis = elapsedNanos / 1_000_000;
+        long clientsPerSecond = elapsedNanos == 0 ? clients : clients * 1_000_000_000L / elapsedNanos;
+        return new ClientImportResult(clients, products, rejected, elapsedMillis, clientsPerSecond);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.financialapp.domain;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// A client without its products, for lookups whose answer can be cached: a snapshot of the products would go stale
+// on every balance change
+public record ClientSummary(Long id, String identificationType, String identificationNumber, String firstName,
+                            String lastName, String email, LocalDate birthdate, LocalDateTime createdAt,
+                            LocalDateTime updatedAt) {
+
+    public static ClientSummary of(Client client) {
+        return new ClientSummary(client.getId(), client.getIdentificationType(), client.getIdentificationNumber(),
+                client.getFirstName(), client.getLastName(), client.getEmail(), client.getBirthdate(),
+                client.getCreatedAt(), client.getUpdatedAt());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.financialapp.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "journal_checkpoints")
+public class JournalCheckpoint {
+
+    @Id
+    @Column(name = "partition_id", nullable = false)
+    private Integer partitionId;
+
+    // Highest journal sequence of this partition whose balances and transaction rows are committed to the tables
+    @Column(name = "sequence", nullable = false)
+    private long sequence;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.financialapp.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Amount in minor units (cents) of the single currency the institution operates in.
+// Arithmetic stays on the long; BigDecimal only appears at the JSON and JDBC boundaries.
+// Serializable because Hibernate keeps entity state, second-level cache entries included, as Serializable values.
+public record Money(long minorUnits) implements Comparable<Money>, Serializable {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        try {
+            return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " must have at most " + SCALE
+                    + " decimal places and fit in " + Long.MAX_VALUE + " minor units", ex);
+        }
+    }
+
+    public static Money of(long units) {
+        return ofMinor(Math.multiplyExact(units, 100L));
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public Money abs() {
+        return minorUnits < 0 ? negate() : this;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
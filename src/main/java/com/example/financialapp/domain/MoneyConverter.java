@@ -0,0 +1,23 @@
+package com.example.financialapp.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Mutability;
+
+import java.math.BigDecimal;
+
+// Keeps the balance and amount columns DECIMAL while the entities carry Money
+@Converter(autoApply = true)
+@Mutability(MoneyMutabilityPlan.class)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        return Money.of(amount);
+    }
+}
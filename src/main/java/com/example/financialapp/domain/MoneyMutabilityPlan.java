@@ -0,0 +1,31 @@
+package com.example.financialapp.domain;
+
+import org.hibernate.SharedSessionContract;
+import org.hibernate.type.descriptor.java.MutabilityPlan;
+
+import java.io.Serializable;
+
+// Money is immutable, so it is never copied for dirty checking; second-level cache entries hold the minor units
+// as a plain Long rather than a serialized Money
+public class MoneyMutabilityPlan implements MutabilityPlan<Money> {
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Money deepCopy(Money value) {
+        return value;
+    }
+
+    @Override
+    public Serializable disassemble(Money value, SharedSessionContract session) {
+        return value == null ? null : value.minorUnits();
+    }
+
+    @Override
+    public Money assemble(Serializable cached, SharedSessionContract session) {
+        return cached == null ? null : Money.ofMinor((Long) cached);
+    }
+}
@@ -3,16 +3,25 @@ package com.example.financialapp.domain;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.Data;
-import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "products", uniqueConstraints = @UniqueConstraint(columnNames = "account_number"))
+@Table(name = "products", uniqueConstraints = @UniqueConstraint(columnNames = "account_number"),
+        indexes = @Index(name = "idx_products_client_id", columnList = "client_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
+// Updates only write the changed columns, so saving a product never writes back a balance it did not change
+@DynamicUpdate
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -26,8 +35,8 @@ public class Product {
     @Column(name = "status", nullable = false)
     private AccountStatus status;
 
-    @Column(name = "balance", nullable = false)
-    private BigDecimal balance;
+    @Column(name = "balance", nullable = false, precision = 19, scale = Money.SCALE)
+    private Money balance;
 
     @Column(name = "gmf_exempt", nullable = false)
     private boolean gmfExempt;
@@ -48,7 +57,6 @@ public class Product {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
 
-        generateAccountNumber();
         if (this.accountType == AccountType.SAVINGS && this.status == null) {
             this.status = AccountStatus.ACTIVE;
         }
@@ -58,10 +66,4 @@ public class Product {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
-
-    private void generateAccountNumber() {
-        String prefix = this.accountType == AccountType.SAVINGS ? "53" : "33";
-        String uniqueNumber = String.format("%08d", this.id);
-        this.accountNumber = prefix + uniqueNumber;
-    }
 }
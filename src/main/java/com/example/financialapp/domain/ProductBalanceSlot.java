@@ -0,0 +1,35 @@
+package com.example.financialapp.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Credit-only share of a hot account's balance; the account's total is products.balance plus all of its slots
+@Data
+@Entity
+@Table(name = "product_balance_slots")
+@IdClass(ProductBalanceSlot.Key.class)
+public class ProductBalanceSlot {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "slot")
+    private Integer slot;
+
+    @Column(name = "balance", nullable = false, precision = 19, scale = Money.SCALE)
+    private Money balance;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long productId;
+        private Integer slot;
+    }
+}
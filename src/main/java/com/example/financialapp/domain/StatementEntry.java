@@ -0,0 +1,22 @@
+package com.example.financialapp.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StatementEntry {
+
+    private final Long transactionId;
+    private final TransactionType transactionType;
+    private final LocalDateTime transactionDate;
+    // Signed effect on the account: negative for withdrawals and outgoing transfers
+    private final Money amount;
+    // Account balance right after this movement
+    private final Money balance;
+    private final Long counterpartyAccountId;
+}
@@ -2,24 +2,28 @@ package com.example.financialapp.domain;
 
 import lombok.Data;
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_date_id", columnList = "transaction_date, id"),
+        @Index(name = "idx_transactions_source_date", columnList = "source_account_id, transaction_date"),
+        @Index(name = "idx_transactions_destination_date", columnList = "destination_account_id, transaction_date")
+})
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "transaction_type", nullable = false)
     private TransactionType transactionType;
 
-    @Column(name = "amount", nullable = false)
-    private BigDecimal amount;
+    @Column(name = "amount", nullable = false, precision = 19, scale = Money.SCALE)
+    private Money amount;
 
     @Column(name = "transaction_date", nullable = false, updatable = false)
     private LocalDateTime transactionDate;
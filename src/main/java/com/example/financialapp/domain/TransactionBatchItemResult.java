@@ -0,0 +1,28 @@
+package com.example.financialapp.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionBatchItemResult {
+
+    public enum Status {
+        ACCEPTED, REJECTED
+    }
+
+    private final int index;
+    private final Status status;
+    private final Transaction transaction;
+    private final String message;
+
+    public static TransactionBatchItemResult accepted(int index, Transaction transaction) {
+        return TransactionBatchItemResult.builder().index(index).status(Status.ACCEPTED).transaction(transaction).build();
+    }
+
+    public static TransactionBatchItemResult rejected(int index, String message) {
+        return TransactionBatchItemResult.builder().index(index).status(Status.REJECTED).message(message).build();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.financialapp.domain;
+
+import java.time.LocalDateTime;
+
+// Flat, unmanaged view of a transaction for exports: rows are read without loading the accounts and are not kept in
+// the persistence context, so memory stays flat however many of them are streamed
+public record TransactionExportRow(Long id, TransactionType transactionType, Money amount, LocalDateTime transactionDate,
+                                   Long sourceAccountId, Long destinationAccountId) {
+}
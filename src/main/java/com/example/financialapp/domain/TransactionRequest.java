@@ -0,0 +1,38 @@
+package com.example.financialapp.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Progress of a transaction submitted with POST /api/transactions?async=true
+@Getter
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionRequest {
+
+    public enum Status {
+        PENDING, COMPLETED, REJECTED
+    }
+
+    private final String trackingId;
+    private final Status status;
+    private final Transaction transaction;
+    private final String message;
+    private final LocalDateTime submittedAt;
+    private final LocalDateTime completedAt;
+
+    public static TransactionRequest pending(String trackingId) {
+        return TransactionRequest.builder().trackingId(trackingId).status(Status.PENDING)
+                .submittedAt(LocalDateTime.now()).build();
+    }
+
+    public TransactionRequest completed(Transaction transaction) {
+        return toBuilder().status(Status.COMPLETED).transaction(transaction).completedAt(LocalDateTime.now()).build();
+    }
+
+    public TransactionRequest rejected(String message) {
+        return toBuilder().status(Status.REJECTED).message(message).completedAt(LocalDateTime.now()).build();
+    }
+}
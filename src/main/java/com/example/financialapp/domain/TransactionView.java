@@ -0,0 +1,9 @@
+package com.example.financialapp.domain;
+
+import java.time.LocalDateTime;
+
+// Read-side shape of a transaction for the GET endpoints: built by one JPQL constructor query with the account
+// numbers joined in, instead of loading both Product entities and, through them, their clients
+public record TransactionView(Long id, TransactionType transactionType, Money amount, LocalDateTime transactionDate,
+                              String sourceAccountNumber, String destinationAccountNumber) {
+}
@@ -1,12 +1,15 @@
 package com.example.financialapp.infrastructure.exception;
 
 import com.example.financialapp.domain.GenericResponse;
+import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
 public class CustomExceptionHandler {
@@ -16,11 +19,28 @@ public class CustomExceptionHandler {
         return new ResponseEntity<>(GenericResponse.builder().message(ex.getMessage()).build(), HttpStatus.NOT_FOUND);
     }
 
-    @ExceptionHandler({InvalidRequestException.class, HttpMessageNotReadableException.class, MethodArgumentNotValidException.class})
+    @ExceptionHandler({InvalidRequestException.class, HttpMessageNotReadableException.class, MethodArgumentNotValidException.class,
+            ConstraintViolationException.class, MissingServletRequestParameterException.class,
+            MethodArgumentTypeMismatchException.class})
     public ResponseEntity<GenericResponse> handleInvalidRequest(Exception ex) {
         return new ResponseEntity<>(GenericResponse.builder().message(ex.getMessage()).build(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(AccountLockTimeoutException.class)
+    public ResponseEntity<GenericResponse> handleAccountLockTimeout(AccountLockTimeoutException ex) {
+        return new ResponseEntity<>(GenericResponse.builder().message(ex.getMessage()).build(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<GenericResponse> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        return new ResponseEntity<>(GenericResponse.builder().message(ex.getMessage()).build(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(TransactionQueueFullException.class)
+    public ResponseEntity<GenericResponse> handleTransactionQueueFull(TransactionQueueFullException ex) {
+        return new ResponseEntity<>(GenericResponse.builder().message(ex.getMessage()).build(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<GenericResponse> handleGenericException(Exception ex) {
         return new ResponseEntity<>(GenericResponse.builder().message(ex.getMessage()).build(), HttpStatus.INTERNAL_SERVER_ERROR);
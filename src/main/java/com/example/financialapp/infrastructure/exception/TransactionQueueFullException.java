@@ -0,0 +1,7 @@
+package com.example.financialapp.infrastructure.exception;
+
+public class TransactionQueueFullException extends RuntimeException {
+    public TransactionQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.financialapp.infrastructure.logging;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// One JSON line per request on the com.example.financialapp.requests logger, which logback-spring.xml writes
+// asynchronously to its own file. Errors and slow requests are always logged, other requests at successSampleRate.
+// Runs ahead of Spring Security so rejected tokens are summarized too
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestSummaryFilter extends OncePerRequestFilter {
+
+    static final String LOGGER_NAME = "com.example.financialapp.requests";
+    private static final Logger requestLogger = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final double successSampleRate;
+    private final long slowThresholdMillis;
+
+    @Autowired
+    public RequestSummaryFilter(@Value("${financialapp.request-log.success-sample-rate:0.01}") double successSampleRate,
+                                @Value("${financialapp.request-log.slow-threshold-ms:1000}") long slowThresholdMillis) {
+        if (successSampleRate < 0 || successSampleRate > 1) {
+            throw new IllegalArgumentException("Request log sample rate must be between 0 and 1");
+        }
+        this.successSampleRate = successSampleRate;
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed && request.isAsyncStarted()) {
+                // Streamed responses such as the transaction export finish after this thread has returned. A failed or
+                // timed out request may still report its earlier status and then complete, so only the first event counts
+                AtomicBoolean summarized = new AtomicBoolean();
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        summarizeOnce(response.getStatus());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        summarizeOnce(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        summarizeOnce(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+
+                    private void summarizeOnce(int status) {
+                        if (summarized.compareAndSet(false, true)) {
+                            summarize(request, status, start);
+                        }
+                    }
+                });
+            } else {
+                // An exception escaping the chain becomes a 500 after this filter has returned
+                summarize(request, completed ? response.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR, start);
+            }
+        }
+    }
+
+    private void summarize(HttpServletRequest request, int status, long start) {
+        if (!requestLogger.isInfoEnabled()) {
+            return;
+        }
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        boolean always = status >= 400 || durationMillis >= slowThresholdMillis;
+        if (!always && ThreadLocalRandom.current().nextDouble() >= successSampleRate) {
+            return;
+        }
+        requestLogger.info(summary(request.getMethod(), path(request), status, durationMillis, always ? 1 : successSampleRate));
+    }
+
+    // The mapped pattern, e.g. /api/clients/by-email/{email}, keeps identification numbers and emails out of the log
+    private static String path(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    // sampleRate lets a reader weight the sampled lines back up to request counts
+    static String summary(String method, String path, int status, long durationMillis, double sampleRate) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        StringBuilder json = new StringBuilder(160)
+                .append("{\"timestamp\":\"").append(Instant.now())
+                .append("\",\"method\":\"").append(encoder.quoteAsString(method))
+                .append("\",\"path\":\"").append(encoder.quoteAsString(path))
+                .append("\",\"status\":").append(status)
+                .append(",\"durationMs\":").append(durationMillis)
+                .append(",\"sampleRate\":").append(sampleRate)
+                .append('}');
+        return json.toString();
+    }
+}
@@ -3,11 +3,40 @@ package com.example.financialapp.util;
 public class Constants {
 
     public static final String CLIENT_NOT_FOUND = "Client not found with ID: ";
+    public static final String CLIENT_NOT_FOUND_BY_IDENTIFICATION = "Client not found with identification number: ";
+    public static final String CLIENT_NOT_FOUND_BY_EMAIL = "Client not found with email: ";
     public static final String PRODUCT_NOT_FOUND = "Product not found with ID: ";
     public static final String CLIENT_UNDERAGE = "Client must be 18 years or older.";
     public static final String CLIENT_HAS_PRODUCTS = "Client cannot be deleted because they have associated products.";
     public static final String INVALID_TRANSACTION = "Invalid transaction request.";
+    public static final String CANCEL_NON_EMPTY_ACCOUNT = "Cannot cancel an account with a non-zero balance";
+    public static final String DELETE_NON_EMPTY_ACCOUNT = "Cannot delete an account with a non-zero balance";
+    public static final String DELETE_ACCOUNT_WITH_TRANSFER_IN_PROGRESS = "Cannot delete or cancel an account while a transfer from it is being applied, please retry";
     public static final String INVALID_TRANSACTION_TYPE = "Invalid transaction type.";
     public static final String INSUFFICIENT_BALANCE = "Insufficient balance to complete the transaction.";
+    public static final String INVALID_DEPOSIT_AMOUNT = "The deposit amount must be positive.";
+    public static final String INVALID_WITHDRAWAL_AMOUNT = "The withdrawal amount must be negative.";
+    public static final String INVALID_TRANSFER_AMOUNT = "The transfer amount must be positive.";
+    public static final String ACCOUNT_LOCK_TIMEOUT = "The account is busy, please retry the transaction. Account ID: ";
+    public static final String TRANSACTION_FAILED = "The transaction could not be processed, please retry it.";
+    public static final String INVALID_TRANSACTION_BATCH_SIZE = "The number of transactions in a batch must be between 1 and ";
+    public static final String INVALID_IDEMPOTENCY_KEY = "The Idempotency-Key header must be non-blank and at most this many characters long: ";
+    public static final String IDEMPOTENCY_KEY_REUSED = "The Idempotency-Key was already used with a different request: ";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS = "A request with this Idempotency-Key is still being processed, please retry it: ";
+    public static final String TRANSACTION_QUEUE_FULL = "Too many transactions are waiting to be processed, please retry later.";
+    public static final String TRANSACTION_REQUEST_NOT_FOUND = "Transaction request not found with tracking ID: ";
+    public static final String INVALID_EXPORT_RANGE = "The export range start must be before its end.";
+    public static final String BALANCE_BEFORE_PRODUCT_CREATION = "The product did not exist yet at the requested time.";
+    public static final String INVALID_STATEMENT_RANGE = "The statement range start must be before its end.";
+    public static final String INVALID_CLIENT_IMPORT_HEADER = "The first line of the client import must be the header: ";
+    public static final String CLIENT_IMPORT_FAILED = "The client import stopped at line ";
+    public static final String CLIENT_IMPORT_FILE_NOT_FOUND = "Import file not found in the import directory: ";
+    public static final String CLIENT_IMPORT_RUNNING = "An import of this file is already queued or running: ";
+    public static final String CLIENT_IMPORT_DUPLICATE = "The identification number, email or account number is already registered.";
+    public static final String INVALID_PAGE_CURSOR = "The page cursor is not valid, pass the nextCursor of a previous page.";
+
+    // Page sizes of the list endpoints
+    public static final String DEFAULT_PAGE_SIZE = "50";
+    public static final int MAX_PAGE_SIZE = 500;
 
 }
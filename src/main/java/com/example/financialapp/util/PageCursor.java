@@ -0,0 +1,63 @@
+package com.example.financialapp.util;
+
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque next-page tokens for keyset pagination: the sort key of the last row of a page, Base64url encoded so
+// clients pass it back as is instead of building their own
+public final class PageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private PageCursor() {
+    }
+
+    public static String ofId(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    public static String of(LocalDateTime timestamp, Long id) {
+        return encode(timestamp.toString() + SEPARATOR + id);
+    }
+
+    public static Long decodeId(String cursor) {
+        try {
+            return Long.valueOf(decode(cursor));
+        } catch (NumberFormatException ex) {
+            throw new InvalidRequestException(Constants.INVALID_PAGE_CURSOR);
+        }
+    }
+
+    public static TimestampAndId decodeTimestampAndId(String cursor) {
+        String value = decode(cursor);
+        int separator = value.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new InvalidRequestException(Constants.INVALID_PAGE_CURSOR);
+        }
+        try {
+            return new TimestampAndId(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new InvalidRequestException(Constants.INVALID_PAGE_CURSOR);
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException(Constants.INVALID_PAGE_CURSOR);
+        }
+    }
+
+    public record TimestampAndId(LocalDateTime timestamp, Long id) {
+    }
+}
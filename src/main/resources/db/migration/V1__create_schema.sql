@@ -0,0 +1,49 @@
+-- Schema as Hibernate maps the entities on MySQL 8, so spring.jpa.hibernate.ddl-auto=validate accepts it
+
+CREATE TABLE clients (
+    id                    BIGINT       NOT NULL AUTO_INCREMENT,
+    identification_type   VARCHAR(255) NOT NULL,
+    identification_number VARCHAR(255) NOT NULL,
+    first_name            VARCHAR(255) NOT NULL,
+    last_name             VARCHAR(255) NOT NULL,
+    email                 VARCHAR(255) NOT NULL,
+    birthdate             DATE         NOT NULL,
+    created_at            DATETIME(6)  NOT NULL,
+    updated_at            DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    -- Also serve findByIdentificationNumber and findByEmail
+    CONSTRAINT uk_clients_identification_number UNIQUE (identification_number),
+    CONSTRAINT uk_clients_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE products (
+    id             BIGINT                                 NOT NULL AUTO_INCREMENT,
+    account_type   ENUM ('SAVINGS', 'CHECKING')           NOT NULL,
+    account_number VARCHAR(10)                            NOT NULL,
+    status         ENUM ('ACTIVE', 'INACTIVE', 'CANCELED') NOT NULL,
+    balance        DECIMAL(19, 2)                         NOT NULL,
+    gmf_exempt     BIT(1)                                 NOT NULL,
+    created_at     DATETIME(6)                            NOT NULL,
+    updated_at     DATETIME(6)                            NOT NULL,
+    client_id      BIGINT                                 NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_products_account_number UNIQUE (account_number),
+    -- findByClientId
+    KEY idx_products_client_id (client_id),
+    CONSTRAINT fk_products_client FOREIGN KEY (client_id) REFERENCES clients (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE transactions (
+    id                     BIGINT                                    NOT NULL AUTO_INCREMENT,
+    transaction_type       ENUM ('DEPOSIT', 'WITHDRAWAL', 'TRANSFER') NOT NULL,
+    amount                 DECIMAL(19, 2)                            NOT NULL,
+    transaction_date       DATETIME(6)                               NOT NULL,
+    source_account_id      BIGINT                                    NULL,
+    destination_account_id BIGINT                                    NULL,
+    PRIMARY KEY (id),
+    -- InnoDB appends the primary key, so these also serve the per-account pages ordered by id
+    KEY idx_transactions_source_account (source_account_id),
+    KEY idx_transactions_destination_account (destination_account_id),
+    CONSTRAINT fk_transactions_source_account FOREIGN KEY (source_account_id) REFERENCES products (id),
+    CONSTRAINT fk_transactions_destination_account FOREIGN KEY (destination_account_id) REFERENCES products (id)
+) ENGINE = InnoDB;
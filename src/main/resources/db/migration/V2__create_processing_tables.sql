@@ -0,0 +1,29 @@
+-- Idempotency keys, ledger journal checkpoints and hot account balance slots. IF NOT EXISTS because databases
+-- baselined at V1 may already have them from when Hibernate managed the schema
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    response_body   TEXT         NOT NULL,
+    created_at      DATETIME(6)  NOT NULL,
+    expires_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (idempotency_key),
+    -- deleteExpired
+    KEY idx_idempotency_keys_expires_at (expires_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS journal_checkpoints (
+    partition_id INT         NOT NULL,
+    sequence     BIGINT      NOT NULL,
+    updated_at   DATETIME(6) NOT NULL,
+    PRIMARY KEY (partition_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS product_balance_slots (
+    product_id BIGINT         NOT NULL,
+    slot       INT            NOT NULL,
+    balance    DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (product_id, slot),
+    -- Balance updates never change product_id, so deposits into the slots do not check or lock the products row
+    CONSTRAINT fk_product_balance_slots_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
@@ -0,0 +1,6 @@
+-- Keyset pages of GET /api/transactions and the export: ORDER BY transaction_date, id
+CREATE INDEX idx_transactions_date_id ON transactions (transaction_date, id);
+
+-- Account statements: each side of "source = ? OR destination = ?" is a range on the movement date
+CREATE INDEX idx_transactions_source_date ON transactions (source_account_id, transaction_date);
+CREATE INDEX idx_transactions_destination_date ON transactions (destination_account_id, transaction_date);
@@ -0,0 +1,13 @@
+-- Closing balance of every account at the end of each day (all movements dated before the next midnight), written by
+-- the nightly DailyBalanceCheckpoints job. Point-in-time balances start from the nearest one
+
+CREATE TABLE balance_checkpoints (
+    product_id   BIGINT         NOT NULL,
+    balance_date DATE           NOT NULL,
+    balance      DECIMAL(19, 2) NOT NULL,
+    created_at   DATETIME(6)    NOT NULL,
+    PRIMARY KEY (product_id, balance_date),
+    -- Oldest checkpointed day, where the backfill continues
+    KEY idx_balance_checkpoints_date (balance_date),
+    CONSTRAINT fk_balance_checkpoints_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
@@ -0,0 +1,14 @@
+-- Next unreserved account number per prefix, reserved in blocks by AccountNumberAllocator. Numbers used to be the
+-- product id, so both sequences start after the highest existing one
+
+CREATE TABLE account_number_blocks (
+    prefix     VARCHAR(2) NOT NULL,
+    next_value BIGINT     NOT NULL,
+    PRIMARY KEY (prefix)
+) ENGINE = InnoDB;
+
+INSERT INTO account_number_blocks (prefix, next_value)
+SELECT '53', COALESCE(MAX(id), 0) + 1 FROM products;
+
+INSERT INTO account_number_blocks (prefix, next_value)
+SELECT '33', COALESCE(MAX(id), 0) + 1 FROM products;
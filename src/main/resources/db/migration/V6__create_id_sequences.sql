@@ -0,0 +1,24 @@
+-- Pooled id generators of Client, Product and Transaction. MySQL has no sequences, so Hibernate keeps each one as a
+-- single-row table and reads it once per 50 ids. A value read is the top of the next pool of 50, so each starts 50
+-- past the highest id AUTO_INCREMENT has handed out; the AUTO_INCREMENT columns are no longer used for new rows
+
+CREATE TABLE clients_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO clients_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM clients;
+
+CREATE TABLE products_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO products_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM products;
+
+CREATE TABLE transactions_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO transactions_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM transactions;
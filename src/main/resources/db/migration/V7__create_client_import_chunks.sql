@@ -0,0 +1,15 @@
+-- Byte ranges of import files already loaded by ClientImportPipeline, each written in the transaction that inserted
+-- its clients. A restarted import skips them
+
+CREATE TABLE client_import_chunks (
+    file_name    VARCHAR(255) NOT NULL,
+    start_offset BIGINT       NOT NULL,
+    end_offset   BIGINT       NOT NULL,
+    first_line   BIGINT       NOT NULL,
+    last_line    BIGINT       NOT NULL,
+    clients      INT          NOT NULL,
+    products     INT          NOT NULL,
+    rejected     INT          NOT NULL,
+    committed_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (file_name, start_offset)
+) ENGINE = InnoDB;
@@ -0,0 +1,14 @@
+-- The V3 account statement indexes start with the same columns, so they also serve the per-account lookups these
+-- did; dropping them saves two index writes per inserted transaction. The foreign keys are recreated around the drop
+-- so that they rest on the V3 indexes, instead of keeping (or re-creating) an index of their own
+
+ALTER TABLE transactions DROP FOREIGN KEY fk_transactions_source_account;
+ALTER TABLE transactions DROP FOREIGN KEY fk_transactions_destination_account;
+
+DROP INDEX idx_transactions_source_account ON transactions;
+DROP INDEX idx_transactions_destination_account ON transactions;
+
+ALTER TABLE transactions
+    ADD CONSTRAINT fk_transactions_source_account FOREIGN KEY (source_account_id) REFERENCES products (id);
+ALTER TABLE transactions
+    ADD CONSTRAINT fk_transactions_destination_account FOREIGN KEY (destination_account_id) REFERENCES products (id);
@@ -1,8 +1,15 @@
 package com.example.financialapp.adapters.inbound;
 
+import com.example.financialapp.application.service.ClientImportService;
 import com.example.financialapp.application.service.ClientService;
+import com.example.financialapp.application.service.onboarding.ClientImportPipeline;
 import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.ClientImportProgress;
+import com.example.financialapp.domain.ClientImportResult;
+import com.example.financialapp.domain.ClientSummary;
+import com.example.financialapp.domain.CursorPage;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.Constants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -12,6 +19,8 @@ import org.slf4j.Logger;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +36,12 @@ class ClientControllerTest {
     @Mock
     private ClientService clientService;
 
+    @Mock
+    private ClientImportService clientImportService;
+
+    @Mock
+    private ClientImportPipeline clientImportPipeline;
+
     @Mock
     private Logger logger;
 
@@ -39,7 +54,7 @@ class ClientControllerTest {
     }
 
     @Test
-    void testGetAllClients() {
+    void testGetClients() {
         // Given
         Client client1 = new Client();
         client1.setId(1L);
@@ -47,16 +62,16 @@ class ClientControllerTest {
         client2.setId(2L);
         List<Client> clients = Arrays.asList(client1, client2);
 
-        when(clientService.getAllClients()).thenReturn(clients);
+        when(clientService.getClients(null, 50)).thenReturn(new CursorPage<>(clients, null));
 
         // When
-        ResponseEntity<List<Client>> response = clientController.getAllClients();
+        ResponseEntity<CursorPage<Client>> response = clientController.getClients(null, 50);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(2, response.getBody().size());
-        verify(clientService, times(1)).getAllClients();
+        assertEquals(2, response.getBody().getItems().size());
+        verify(clientService, times(1)).getClients(null, 50);
     }
 
     @Test
@@ -90,6 +105,34 @@ class ClientControllerTest {
         assertEquals("Client not found with id 1", thrown.getMessage());
     }
 
+    @Test
+    void testGetClientByIdentificationNumber() {
+        // Given
+        Client client = new Client();
+        client.setId(1L);
+        client.setIdentificationNumber("1234567890");
+        when(clientService.getClientByIdentificationNumber("1234567890")).thenReturn(Optional.of(ClientSummary.of(client)));
+
+        // When
+        ResponseEntity<ClientSummary> response = clientController.getClientByIdentificationNumber("1234567890");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1L, response.getBody().id());
+    }
+
+    @Test
+    void testGetClientByEmailNotFound() {
+        // Given
+        when(clientService.getClientByEmail(any())).thenReturn(Optional.empty());
+
+        // When/Then
+        ResourceNotFoundException thrown = org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> clientController.getClientByEmail("nobody@example.com"));
+
+        assertEquals(Constants.CLIENT_NOT_FOUND_BY_EMAIL + "nobody@example.com", thrown.getMessage());
+    }
+
     @Test
     void testCreateClient() {
         // Given
@@ -133,4 +176,34 @@ class ClientControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(clientService, times(1)).deleteClient(1L);
     }
+
+    @Test
+    void testImportClients() {
+        // Given
+        InputStream csv = new ByteArrayInputStream(new byte[0]);
+        ClientImportResult result = new ClientImportResult(2, 3, 0, 10, 200);
+        when(clientImportService.importClients(csv)).thenReturn(result);
+
+        // When
+        ResponseEntity<ClientImportResult> response = clientController.importClients(csv);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+        verify(clientImportService, times(1)).importClients(csv);
+    }
+
+    @Test
+    void testStartFileImport() {
+        // Given
+        ClientImportProgress progress = new ClientImportProgress("portfolio.csv", true, 1000, 0, 0, 0, 0, null);
+        when(clientImportPipeline.start("portfolio.csv")).thenReturn(progress);
+
+        // When
+        ResponseEntity<ClientImportProgress> response = clientController.startFileImport("portfolio.csv");
+
+        // Then
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(progress, response.getBody());
+    }
 }
@@ -1,7 +1,12 @@
 package com.example.financialapp.adapters.inbound;
 
+import com.example.financialapp.application.service.AccountStatementService;
 import com.example.financialapp.application.service.ProductService;
+import com.example.financialapp.domain.BalanceAsOf;
+import com.example.financialapp.domain.CursorPage;
+import com.example.financialapp.domain.Money;
 import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.StatementEntry;
 import com.example.financialapp.domain.Transaction;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +17,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +32,9 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private AccountStatementService accountStatementService;
+
     @InjectMocks
     private ProductController productController;
 
@@ -35,7 +44,7 @@ class ProductControllerTest {
     }
 
     @Test
-    void testGetAllProducts() {
+    void testGetProducts() {
         // Given
         Product product1 = new Product();
         product1.setId(1L);
@@ -43,16 +52,48 @@ class ProductControllerTest {
         product2.setId(2L);
         List<Product> products = Arrays.asList(product1, product2);
 
-        when(productService.getAllProducts()).thenReturn(products);
+        when(productService.getProducts(null, 50)).thenReturn(new CursorPage<>(products, "next"));
 
         // When
-        ResponseEntity<List<Product>> response = productController.getAllProducts();
+        ResponseEntity<CursorPage<Product>> response = productController.getProducts(null, 50);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(2, response.getBody().size());
-        verify(productService, times(1)).getAllProducts();
+        assertEquals(2, response.getBody().getItems().size());
+        assertEquals("next", response.getBody().getNextCursor());
+        verify(productService, times(1)).getProducts(null, 50);
+    }
+
+    @Test
+    void testGetStatement() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime to = from.plusMonths(1);
+        CursorPage<StatementEntry> statement = new CursorPage<>(List.of(StatementEntry.builder().transactionId(1L).build()), null);
+        when(accountStatementService.getStatement(1L, from, to, null, 50)).thenReturn(statement);
+
+        // When
+        ResponseEntity<CursorPage<StatementEntry>> response = productController.getStatement(1L, from, to, null, 50);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(statement, response.getBody());
+    }
+
+    @Test
+    void testGetBalanceAsOf() {
+        // Given
+        LocalDateTime asOf = LocalDateTime.of(2024, 5, 10, 23, 59);
+        BalanceAsOf balance = new BalanceAsOf(1L, asOf, Money.of(375));
+        when(accountStatementService.getBalanceAsOf(1L, asOf)).thenReturn(balance);
+
+        // When
+        ResponseEntity<BalanceAsOf> response = productController.getBalanceAsOf(1L, asOf);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(balance, response.getBody());
     }
 
     @Test
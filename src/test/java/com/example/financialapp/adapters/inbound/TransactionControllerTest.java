@@ -1,7 +1,16 @@
 package com.example.financialapp.adapters.inbound;
 
+import com.example.financialapp.application.service.TransactionExportService;
 import com.example.financialapp.application.service.TransactionService;
+import com.example.financialapp.application.service.async.AsyncTransactionExecutor;
+import com.example.financialapp.domain.CursorPage;
+import com.example.financialapp.domain.Money;
 import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionBatchItemResult;
+import com.example.financialapp.domain.TransactionExportFormat;
+import com.example.financialapp.domain.TransactionRequest;
+import com.example.financialapp.domain.TransactionType;
+import com.example.financialapp.domain.TransactionView;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,15 +18,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class TransactionControllerTest {
@@ -25,6 +39,12 @@ class TransactionControllerTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private AsyncTransactionExecutor asyncTransactionExecutor;
+
+    @Mock
+    private TransactionExportService transactionExportService;
+
     @InjectMocks
     private TransactionController transactionController;
 
@@ -34,53 +54,48 @@ class TransactionControllerTest {
     }
 
     @Test
-    void testGetAllTransactions() {
+    void testGetTransactions() {
         // Given
-        Transaction transaction1 = new Transaction();
-        transaction1.setId(1L);
-        Transaction transaction2 = new Transaction();
-        transaction2.setId(2L);
-        List<Transaction> transactions = Arrays.asList(transaction1, transaction2);
+        List<TransactionView> transactions = Arrays.asList(view(1L), view(2L));
 
-        when(transactionService.findAll()).thenReturn(transactions);
+        when(transactionService.getTransactions("cursor", 2)).thenReturn(new CursorPage<>(transactions, "next"));
 
         // When
-        ResponseEntity<List<Transaction>> response = transactionController.getAllTransactions();
+        ResponseEntity<CursorPage<TransactionView>> response = transactionController.getTransactions("cursor", 2);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(2, response.getBody().size());
-        verify(transactionService, times(1)).findAll();
+        assertEquals(2, response.getBody().getItems().size());
+        assertEquals("next", response.getBody().getNextCursor());
+        verify(transactionService, times(1)).getTransactions("cursor", 2);
     }
 
     @Test
-    void testGetAllTransactionsNoContent() {
+    void testGetTransactionsNoContent() {
         // Given
-        when(transactionService.findAll()).thenReturn(Arrays.asList());
+        when(transactionService.getTransactions(null, 50)).thenReturn(new CursorPage<>(Arrays.asList(), null));
 
         // When
-        ResponseEntity<List<Transaction>> response = transactionController.getAllTransactions();
+        ResponseEntity<CursorPage<TransactionView>> response = transactionController.getTransactions(null, 50);
 
         // Then
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
-        verify(transactionService, times(1)).findAll();
+        verify(transactionService, times(1)).getTransactions(null, 50);
     }
 
     @Test
     void testGetTransactionById() {
         // Given
-        Transaction transaction = new Transaction();
-        transaction.setId(1L);
-        when(transactionService.getTransactionById(anyLong())).thenReturn(Optional.of(transaction));
+        when(transactionService.getTransactionById(anyLong())).thenReturn(Optional.of(view(1L)));
 
         // When
-        ResponseEntity<Transaction> response = transactionController.getTransactionById(1L);
+        ResponseEntity<TransactionView> response = transactionController.getTransactionById(1L);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(1L, response.getBody().getId());
+        assertEquals(1L, response.getBody().id());
         verify(transactionService, times(1)).getTransactionById(1L);
     }
 
@@ -104,26 +119,42 @@ class TransactionControllerTest {
         // Given
         Transaction transaction = new Transaction();
         transaction.setId(1L);
-        when(transactionService.createTransaction(any(Transaction.class))).thenReturn(transaction);
+        when(transactionService.createTransaction(any(Transaction.class), isNull())).thenReturn(transaction);
 
         // When
-        ResponseEntity<Transaction> response = transactionController.createTransaction(transaction);
+        ResponseEntity<Transaction> response = transactionController.createTransaction(transaction, null);
 
         // Then
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(1L, response.getBody().getId());
-        verify(transactionService, times(1)).createTransaction(transaction);
+        verify(transactionService, times(1)).createTransaction(transaction, null);
+    }
+
+    @Test
+    void testCreateTransactionWithIdempotencyKey() {
+        // Given
+        Transaction transaction = new Transaction();
+        transaction.setId(1L);
+        when(transactionService.createTransaction(transaction, "retry-123")).thenReturn(transaction);
+
+        // When
+        ResponseEntity<Transaction> response = transactionController.createTransaction(transaction, "retry-123");
+
+        // Then
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1L, response.getBody().getId());
+        verify(transactionService, times(1)).createTransaction(transaction, "retry-123");
     }
 
     @Test
     void testCreateTransactionError() {
         // Given
-        when(transactionService.createTransaction(any(Transaction.class))).thenThrow(new RuntimeException("Error creating transaction"));
+        when(transactionService.createTransaction(any(Transaction.class), isNull())).thenThrow(new RuntimeException("Error creating transaction"));
 
         // When
         RuntimeException runtimeException = assertThrows(RuntimeException.class, () -> {
-                    transactionController.createTransaction(new Transaction());
+                    transactionController.createTransaction(new Transaction(), null);
                 });
 
         // Then
@@ -131,66 +162,145 @@ class TransactionControllerTest {
     }
 
     @Test
-    void testGetTransactionsBySourceAccountId() {
+    void testSubmitTransaction() {
         // Given
         Transaction transaction = new Transaction();
-        transaction.setId(1L);
-        List<Transaction> transactions = Arrays.asList(transaction);
+        when(asyncTransactionExecutor.submit(transaction, null)).thenReturn(TransactionRequest.pending("abc"));
 
-        when(transactionService.getTransactionsBySourceAccountId(anyLong())).thenReturn(transactions);
+        // When
+        ResponseEntity<TransactionRequest> response = transactionController.submitTransaction(transaction, null);
+
+        // Then
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("abc", response.getBody().getTrackingId());
+        assertEquals(TransactionRequest.Status.PENDING, response.getBody().getStatus());
+        assertEquals("/api/transactions/requests/abc", response.getHeaders().getLocation().toString());
+        verify(transactionService, never()).createTransaction(any(Transaction.class), any());
+    }
+
+    @Test
+    void testGetTransactionRequest() {
+        // Given
+        TransactionRequest rejected = TransactionRequest.pending("abc").rejected("Insufficient balance to complete the transaction.");
+        when(asyncTransactionExecutor.findRequest("abc")).thenReturn(Optional.of(rejected));
 
         // When
-        ResponseEntity<List<Transaction>> response = transactionController.getTransactionsBySourceAccountId(1L);
+        ResponseEntity<TransactionRequest> response = transactionController.getTransactionRequest("abc");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(TransactionRequest.Status.REJECTED, response.getBody().getStatus());
+        assertEquals("Insufficient balance to complete the transaction.", response.getBody().getMessage());
+    }
+
+    @Test
+    void testGetTransactionRequestNotFound() {
+        // Given
+        when(asyncTransactionExecutor.findRequest("missing")).thenReturn(Optional.empty());
+
+        // When/Then
+        assertThrows(ResourceNotFoundException.class, () -> transactionController.getTransactionRequest("missing"));
+    }
+
+    @Test
+    void testCreateTransactions() {
+        // Given
+        Transaction transaction = new Transaction();
+        List<Transaction> transactions = Arrays.asList(transaction, new Transaction());
+        List<TransactionBatchItemResult> results = Arrays.asList(
+                TransactionBatchItemResult.accepted(0, transaction),
+                TransactionBatchItemResult.rejected(1, "Invalid transaction request."));
+        when(transactionService.createTransactions(transactions)).thenReturn(results);
+
+        // When
+        ResponseEntity<List<TransactionBatchItemResult>> response = transactionController.createTransactions(transactions);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(TransactionBatchItemResult.Status.REJECTED, response.getBody().get(1).getStatus());
+        verify(transactionService, times(1)).createTransactions(transactions);
+    }
+
+    @Test
+    void testExportTransactions_CsvContentType() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        StreamingResponseBody body = out -> out.write("id\n".getBytes());
+        when(transactionExportService.exportTransactions(from, to, 3L, TransactionExportFormat.CSV)).thenReturn(body);
+
+        // When
+        ResponseEntity<StreamingResponseBody> response =
+                transactionController.exportTransactions(from, to, 3L, TransactionExportFormat.CSV);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
+        assertSame(body, response.getBody());
+    }
+
+    @Test
+    void testGetTransactionsBySourceAccountId() {
+        // Given
+        List<TransactionView> transactions = Arrays.asList(view(1L));
+
+        when(transactionService.getTransactionsBySourceAccountId(anyLong(), any(), anyInt())).thenReturn(new CursorPage<>(transactions, null));
+
+        // When
+        ResponseEntity<CursorPage<TransactionView>> response = transactionController.getTransactionsBySourceAccountId(1L, null, 50);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(1, response.getBody().size());
-        verify(transactionService, times(1)).getTransactionsBySourceAccountId(1L);
+        assertEquals(1, response.getBody().getItems().size());
+        verify(transactionService, times(1)).getTransactionsBySourceAccountId(1L, null, 50);
     }
 
     @Test
     void testGetTransactionsBySourceAccountIdNoContent() {
         // Given
-        when(transactionService.getTransactionsBySourceAccountId(anyLong())).thenReturn(Arrays.asList());
+        when(transactionService.getTransactionsBySourceAccountId(anyLong(), any(), anyInt())).thenReturn(new CursorPage<>(Arrays.asList(), null));
 
         // When
-        ResponseEntity<List<Transaction>> response = transactionController.getTransactionsBySourceAccountId(1L);
+        ResponseEntity<CursorPage<TransactionView>> response = transactionController.getTransactionsBySourceAccountId(1L, null, 50);
 
         // Then
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
-        verify(transactionService, times(1)).getTransactionsBySourceAccountId(1L);
+        verify(transactionService, times(1)).getTransactionsBySourceAccountId(1L, null, 50);
     }
 
     @Test
     void testGetTransactionsByDestinationAccountId() {
         // Given
-        Transaction transaction = new Transaction();
-        transaction.setId(1L);
-        List<Transaction> transactions = Arrays.asList(transaction);
+        List<TransactionView> transactions = Arrays.asList(view(1L));
 
-        when(transactionService.getTransactionsByDestinationAccountId(anyLong())).thenReturn(transactions);
+        when(transactionService.getTransactionsByDestinationAccountId(anyLong(), any(), anyInt())).thenReturn(new CursorPage<>(transactions, null));
 
         // When
-        ResponseEntity<List<Transaction>> response = transactionController.getTransactionsByDestinationAccountId(1L);
+        ResponseEntity<CursorPage<TransactionView>> response = transactionController.getTransactionsByDestinationAccountId(1L, null, 50);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(1, response.getBody().size());
-        verify(transactionService, times(1)).getTransactionsByDestinationAccountId(1L);
+        assertEquals(1, response.getBody().getItems().size());
+        verify(transactionService, times(1)).getTransactionsByDestinationAccountId(1L, null, 50);
     }
 
     @Test
     void testGetTransactionsByDestinationAccountIdNoContent() {
         // Given
-        when(transactionService.getTransactionsByDestinationAccountId(anyLong())).thenReturn(Arrays.asList());
+        when(transactionService.getTransactionsByDestinationAccountId(anyLong(), any(), anyInt())).thenReturn(new CursorPage<>(Arrays.asList(), null));
 
         // When
-        ResponseEntity<List<Transaction>> response = transactionController.getTransactionsByDestinationAccountId(1L);
+        ResponseEntity<CursorPage<TransactionView>> response = transactionController.getTransactionsByDestinationAccountId(1L, null, 50);
 
         // Then
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
-        verify(transactionService, times(1)).getTransactionsByDestinationAccountId(1L);
+        verify(transactionService, times(1)).getTransactionsByDestinationAccountId(1L, null, 50);
+    }
+
+    private static TransactionView view(Long id) {
+        return new TransactionView(id, TransactionType.DEPOSIT, Money.of(10), LocalDateTime.now(), null, "5300000001");
     }
 }
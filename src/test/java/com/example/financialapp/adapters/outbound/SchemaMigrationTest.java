@@ -0,0 +1,62 @@
+package com.example.financialapp.adapters.outbound;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Builds the schema from the Flyway migrations, on its own H2 database in MySQL mode, and starts Hibernate with the
+// MySQL dialect and ddl-auto=validate against it as the application does; the context only loads if every entity
+// matches the scripts
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:financial_institution_migrated;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testMigrate_AppliesEveryScript() {
+        // When
+        MigrationInfo[] applied = flyway.info().applied();
+
+        // Then
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals("8", applied[applied.length - 1].getVersion().getVersion());
+    }
+
+    @Test
+    void testMigrate_KeepsOnlyTheCompositeAccountIndexes() {
+        // When
+        List<String> indexes = jdbcTemplate.queryForList("SELECT index_name FROM information_schema.indexes "
+                + "WHERE table_name = 'transactions'", String.class);
+
+        // Then
+        assertTrue(indexes.contains("idx_transactions_source_date"));
+        assertTrue(indexes.contains("idx_transactions_destination_date"));
+        assertFalse(indexes.contains("idx_transactions_source_account"));
+        assertFalse(indexes.contains("idx_transactions_destination_account"));
+    }
+}
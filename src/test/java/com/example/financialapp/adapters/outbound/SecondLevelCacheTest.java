@@ -0,0 +1,210 @@
+package com.example.financialapp.adapters.outbound;
+
+import com.example.financialapp.application.service.cache.ProductCache;
+import com.example.financialapp.application.service.strategy.DepositStrategy;
+import com.example.financialapp.application.service.strategy.HotAccountBalances;
+import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "financialapp.hot-accounts.product-ids=2",
+        "financialapp.hot-accounts.slots=1"})
+@Import({DepositStrategy.class, HotAccountBalances.class, ProductCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private DepositStrategy depositStrategy;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM product_balance_slots");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM clients");
+        jdbcTemplate.update("INSERT INTO clients (id, identification_type, identification_number, first_name, last_name, "
+                + "email, birthdate, created_at, updated_at) VALUES (1, 'CC', '1001', 'Jane', 'Doe', 'jane@example.com', "
+                + "DATE '1990-01-01', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        for (long id = 1; id <= 2; id++) {
+            jdbcTemplate.update("INSERT INTO products (id, account_type, account_number, status, balance, gmf_exempt, "
+                    + "created_at, updated_at, client_id) VALUES (?, 'SAVINGS', ?, 'ACTIVE', 100, FALSE, CURRENT_TIMESTAMP, "
+                    + "CURRENT_TIMESTAMP, 1)", id, String.format("53%08d", id));
+        }
+        // The rows above were written behind Hibernate's back
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindById_RepeatedReadIssuesNoSql() {
+        // Given
+        productRepository.findById(1L).orElseThrow();
+        statistics.clear();
+
+        // When
+        Product product = productRepository.findById(1L).orElseThrow();
+
+        // Then
+        assertEquals(Money.of(100), product.getBalance());
+        assertEquals("jane@example.com", product.getClient().getEmail());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void testClientProducts_RepeatedReadIssuesNoSql() {
+        // Given
+        assertEquals(2, productCount(1L));
+        statistics.clear();
+
+        // When
+        int products = productCount(1L);
+
+        // Then
+        assertEquals(2, products);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testClientProducts_ShowTheBalanceOfADeposit() {
+        // Given
+        balances(1L);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> depositStrategy.execute(deposit(1L, 50), productRepository));
+        statistics.clear();
+        List<Money> balances = balances(1L);
+
+        // Then
+        // The client and its product list are still cached, only the credited product is read again
+        assertEquals(List.of(Money.of(150), Money.of(100)), balances);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testDeposit_EvictsOnlyTheCreditedProduct() {
+        // Given
+        productRepository.findById(1L).orElseThrow();
+        productRepository.findById(2L).orElseThrow();
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> depositStrategy.execute(deposit(1L, 50), productRepository));
+        statistics.clear();
+        Product credited = productRepository.findById(1L).orElseThrow();
+        long creditedStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        Product untouched = productRepository.findById(2L).orElseThrow();
+
+        // Then
+        assertEquals(Money.of(150), credited.getBalance());
+        assertTrue(creditedStatements > 0);
+        assertEquals(Money.of(100), untouched.getBalance());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testDeposit_ReadsTheNewBalanceBackInOneStatement() {
+        // Given
+        jdbcTemplate.update("INSERT INTO product_balance_slots (product_id, slot, balance) VALUES (2, 0, 25)");
+        productRepository.findById(1L).orElseThrow();
+        productRepository.findById(2L).orElseThrow();
+
+        // When
+        statistics.clear();
+        Transaction regular = transactionTemplate.execute(status -> {
+            Transaction transaction = deposit(1L, 50);
+            depositStrategy.execute(transaction, productRepository);
+            return transaction;
+        });
+        long regularStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        Transaction hot = transactionTemplate.execute(status -> {
+            Transaction transaction = deposit(2L, 50);
+            depositStrategy.execute(transaction, productRepository);
+            return transaction;
+        });
+        long hotStatements = statistics.getPrepareStatementCount();
+
+        // Then
+        // The UPDATE and one SELECT of the balance; the rest of the account comes from the second-level cache
+        assertEquals(Money.of(150), regular.getDestinationAccount().getBalance());
+        assertEquals(2, regularStatements);
+        assertEquals(Money.of(175), hot.getDestinationAccount().getBalance());
+        assertEquals(2, hotStatements);
+    }
+
+    private List<Money> balances(Long clientId) {
+        return transactionTemplate.execute(status -> clientRepository.findById(clientId).orElseThrow().getProducts()
+                .stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .map(Product::getBalance)
+                .toList());
+    }
+
+    private int productCount(Long clientId) {
+        return transactionTemplate.execute(status -> {
+            Client client = clientRepository.findById(clientId).orElseThrow();
+            return client.getProducts().size();
+        });
+    }
+
+    private static Transaction deposit(Long accountId, long amount) {
+        Product destination = new Product();
+        destination.setId(accountId);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.DEPOSIT);
+        transaction.setAmount(Money.of(amount));
+        transaction.setDestinationAccount(destination);
+        return transaction;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.financialapp.adapters.outbound;
+
+import com.example.financialapp.domain.TransactionView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Counts the SQL statements behind the transaction GET endpoints; each must stay one query however many accounts
+// and clients the page touches
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionRepositoryStatementCountTest {
+
+    private static final int ACCOUNTS = 5;
+    private static final int TRANSACTIONS = 20;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM product_balance_slots");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM clients");
+        // One client per account, so loading entities would also fan out to the clients
+        for (long id = 1; id <= ACCOUNTS; id++) {
+            jdbcTemplate.update("INSERT INTO clients (id, identification_type, identification_number, first_name, last_name, "
+                    + "email, birthdate, created_at, updated_at) VALUES (?, 'CC', ?, 'Jane', 'Doe', ?, DATE '1990-01-01', "
+                    + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", id, "100" + id, "jane" + id + "@example.com");
+            jdbcTemplate.update("INSERT INTO products (id, account_type, account_number, status, balance, gmf_exempt, "
+                    + "created_at, updated_at, client_id) VALUES (?, 'SAVINGS', ?, 'ACTIVE', 0, FALSE, CURRENT_TIMESTAMP, "
+                    + "CURRENT_TIMESTAMP, ?)", id, String.format("53%08d", id), id);
+        }
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 0, 0);
+        for (long id = 1; id <= TRANSACTIONS; id++) {
+            long source = id % ACCOUNTS + 1;
+            long destination = (id + 1) % ACCOUNTS + 1;
+            jdbcTemplate.update("INSERT INTO transactions (id, transaction_type, amount, transaction_date, source_account_id, "
+                    + "destination_account_id) VALUES (?, 'TRANSFER', 10.00, ?, ?, ?)", id, start.plusMinutes(id), source, destination);
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindFirstPage_SingleStatement() {
+        // When
+        List<TransactionView> page = transactionRepository.findFirstPage(Limit.of(TRANSACTIONS + 1));
+
+        // Then
+        assertEquals(TRANSACTIONS, page.size());
+        assertEquals("5300000003", page.get(0).destinationAccountNumber());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindPageAfter_SingleStatement() {
+        // When
+        List<TransactionView> page = transactionRepository.findPageAfter(
+                LocalDateTime.of(2024, 5, 1, 0, 10), 10L, Limit.of(5));
+
+        // Then
+        assertEquals(List.of(11L, 12L, 13L, 14L, 15L), page.stream().map(TransactionView::id).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindSourcePage_SingleStatement() {
+        // When
+        List<TransactionView> page = transactionRepository.findSourcePage(2L, 0L, Limit.of(TRANSACTIONS));
+
+        // Then
+        assertEquals(TRANSACTIONS / ACCOUNTS, page.size());
+        assertTrue(page.stream().allMatch(view -> "5300000002".equals(view.sourceAccountNumber())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindViewById_SingleStatement() {
+        // When
+        TransactionView view = transactionRepository.findViewById(7L).orElseThrow();
+
+        // Then
+        assertEquals("5300000003", view.sourceAccountNumber());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindAllEntities_LoadsAccountsAndClientsSeparately() {
+        // When
+        transactionRepository.findAll();
+
+        // Then
+        assertTrue(statistics.getPrepareStatementCount() > 1);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.financialapp.application.service.async;
+
+import com.example.financialapp.application.service.TransactionService;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionRequest;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.infrastructure.exception.TransactionQueueFullException;
+import com.example.financialapp.util.Constants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+class AsyncTransactionExecutorTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AsyncTransactionExecutor asyncTransactionExecutor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        asyncTransactionExecutor = new AsyncTransactionExecutor(transactionService, meterRegistry, 1, 1,
+                Duration.ofMinutes(1), 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncTransactionExecutor.stop();
+    }
+
+    @Test
+    void testSubmit_CompletesInBackground() throws Exception {
+        // Given
+        Transaction created = new Transaction();
+        created.setId(7L);
+        when(transactionService.createTransaction(any(Transaction.class), isNull())).thenReturn(created);
+
+        // When
+        TransactionRequest pending = asyncTransactionExecutor.submit(new Transaction(), null);
+        TransactionRequest finished = awaitOutcome(pending.getTrackingId());
+
+        // Then
+        assertEquals(TransactionRequest.Status.PENDING, pending.getStatus());
+        assertEquals(TransactionRequest.Status.COMPLETED, finished.getStatus());
+        assertEquals(7L, finished.getTransaction().getId());
+        assertNotNull(finished.getCompletedAt());
+        assertEquals(1, meterRegistry.get("transactions.async.completion").tag("status", "COMPLETED").timer().count());
+    }
+
+    @Test
+    void testSubmit_RejectionKeepsReason() throws Exception {
+        // Given
+        when(transactionService.createTransaction(any(Transaction.class), isNull()))
+                .thenThrow(new InvalidRequestException(Constants.INSUFFICIENT_BALANCE));
+
+        // When
+        TransactionRequest pending = asyncTransactionExecutor.submit(new Transaction(), null);
+        TransactionRequest finished = awaitOutcome(pending.getTrackingId());
+
+        // Then
+        assertEquals(TransactionRequest.Status.REJECTED, finished.getStatus());
+        assertEquals(Constants.INSUFFICIENT_BALANCE, finished.getMessage());
+        assertNull(finished.getTransaction());
+        assertEquals(1, meterRegistry.get("transactions.async.completion").tag("status", "REJECTED").timer().count());
+    }
+
+    @Test
+    void testSubmit_UnexpectedFailureHidesItsMessage() throws Exception {
+        // Given
+        when(transactionService.createTransaction(any(Transaction.class), isNull()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement [insert into transactions ...]"));
+
+        // When
+        TransactionRequest pending = asyncTransactionExecutor.submit(new Transaction(), null);
+        TransactionRequest finished = awaitOutcome(pending.getTrackingId());
+
+        // Then
+        assertEquals(TransactionRequest.Status.REJECTED, finished.getStatus());
+        assertEquals(Constants.TRANSACTION_FAILED, finished.getMessage());
+    }
+
+    @Test
+    void testSubmit_RefusedWhenQueueIsFull() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionService.createTransaction(any(Transaction.class), isNull())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return new Transaction();
+        });
+        asyncTransactionExecutor.submit(new Transaction(), null);
+        started.await();
+        asyncTransactionExecutor.submit(new Transaction(), null);
+
+        // When/Then
+        try {
+            assertThrows(TransactionQueueFullException.class, () -> asyncTransactionExecutor.submit(new Transaction(), null));
+            assertEquals(1, meterRegistry.get("transactions.async.queue.depth").gauge().value());
+            assertEquals(1.0, meterRegistry.get("transactions.async.workers.utilization").gauge().value());
+            assertEquals(1, meterRegistry.get("transactions.async.queue.full").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testFindRequest_UnknownTrackingId() {
+        // When/Then
+        assertTrue(asyncTransactionExecutor.findRequest("unknown").isEmpty());
+    }
+
+    private TransactionRequest awaitOutcome(String trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            TransactionRequest request = asyncTransactionExecutor.findRequest(trackingId).orElseThrow();
+            if (request.getStatus() != TransactionRequest.Status.PENDING) {
+                return request;
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return fail("Transaction request " + trackingId + " did not finish in time");
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.financialapp.application.service.cache;
+
+import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.ClientSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientCacheTest {
+
+    private ClientCache clientCache;
+    private Map<String, Client> clientsByEmail;
+    private Map<String, Client> clientsByIdentificationNumber;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        clientCache = new ClientCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        clientsByEmail = new HashMap<>();
+        clientsByIdentificationNumber = new HashMap<>();
+        loads = new AtomicInteger();
+        store(client(1L, "1234567890", "john@example.com"));
+    }
+
+    @Test
+    void testLookups_ShareOneEntryPerClient() {
+        // When
+        ClientSummary byIdentification = clientCache.getByIdentificationNumber("1234567890", this::loadByIdentification)
+                .orElseThrow();
+        ClientSummary byEmail = clientCache.getByEmail("John@Example.com", this::loadByEmail).orElseThrow();
+
+        // Then
+        assertSame(byIdentification, byEmail);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testEvict_OldEmailStopsResolving() {
+        // Given
+        clientCache.getByEmail("john@example.com", this::loadByEmail);
+        clientsByEmail.clear();
+        store(client(1L, "1234567890", "johnny@example.com"));
+
+        // When
+        clientCache.evictAfterCommit(1L);
+
+        // Then
+        assertTrue(clientCache.getByEmail("john@example.com", this::loadByEmail).isEmpty());
+        assertEquals("johnny@example.com",
+                clientCache.getByIdentificationNumber("1234567890", this::loadByIdentification).orElseThrow().email());
+    }
+
+    @Test
+    void testEvict_DuringLoadKeepsTheLoadedClientOutOfTheCache() {
+        // Given
+        Client old = client(1L, "1234567890", "john@example.com");
+
+        // When
+        Optional<ClientSummary> loaded = clientCache.getByEmail("john@example.com", email -> {
+            // The client is updated and evicted while the lookup still holds the old row
+            clientCache.evictAfterCommit(1L);
+            return Optional.of(old);
+        });
+        clientCache.getByEmail("john@example.com", this::loadByEmail);
+
+        // Then
+        assertTrue(loaded.isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testAbsentClientIsNotCached() {
+        // When
+        clientCache.getByEmail("nobody@example.com", this::loadByEmail);
+        clientCache.getByEmail("nobody@example.com", this::loadByEmail);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<Client> loadByEmail(String email) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(clientsByEmail.get(email.toLowerCase(Locale.ROOT)));
+    }
+
+    private Optional<Client> loadByIdentification(String identificationNumber) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(clientsByIdentificationNumber.get(identificationNumber));
+    }
+
+    private void store(Client client) {
+        clientsByEmail.put(client.getEmail(), client);
+        clientsByIdentificationNumber.put(client.getIdentificationNumber(), client);
+    }
+
+    private static Client client(Long id, String identificationNumber, String email) {
+        Client client = new Client();
+        client.setId(id);
+        client.setIdentificationNumber(identificationNumber);
+        client.setEmail(email);
+        return client;
+    }
+}
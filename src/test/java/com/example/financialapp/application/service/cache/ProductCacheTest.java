@@ -0,0 +1,104 @@
+package com.example.financialapp.application.service.cache;
+
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCache productCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache(meterRegistry, null, 100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGet_LoadsOnceAndRecordsHitRatio() {
+        // When
+        productCache.get(1L, this::load);
+        Product product = productCache.get(1L, this::load).orElseThrow();
+
+        // Then
+        assertEquals(Money.of(100), product.getBalance());
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count());
+        assertEquals(0.5, meterRegistry.get("cache.hit.ratio").tag("cache", "products").gauge().value());
+    }
+
+    @Test
+    void testGet_AbsentProductIsNotCached() {
+        // When
+        Optional<Product> first = productCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        productCache.get(1L, this::load);
+
+        // Then
+        assertTrue(first.isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvictAfterCommit_WithoutTransactionEvictsImmediately() {
+        // Given
+        productCache.get(1L, this::load);
+
+        // When
+        productCache.evictAfterCommit(1L);
+        productCache.get(1L, this::load);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvictAfterCommit_InsideTransactionWaitsForCommit() {
+        // Given
+        productCache.get(1L, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        productCache.evictAfterCommit(1L);
+        productCache.get(1L, this::load);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        productCache.get(1L, this::load);
+
+        // Then
+        assertEquals(1, synchronizations.size());
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<Product> load(Long id) {
+        loads.incrementAndGet();
+        Product product = new Product();
+        product.setId(id);
+        product.setBalance(Money.of(100));
+        return Optional.of(product);
+    }
+}
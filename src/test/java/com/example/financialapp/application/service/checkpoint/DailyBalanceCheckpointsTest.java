@@ -0,0 +1,125 @@
+package com.example.financialapp.application.service.checkpoint;
+
+import com.example.financialapp.adapters.outbound.BalanceCheckpointRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.domain.BalanceCheckpoint;
+import com.example.financialapp.domain.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DailyBalanceCheckpointsTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2024, 5, 1);
+    private static final LocalDate MAY_2 = LocalDate.of(2024, 5, 2);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BalanceCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private DailyBalanceCheckpoints dailyBalanceCheckpoints;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM balance_checkpoints");
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM product_balance_slots");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM clients");
+        jdbcTemplate.update("INSERT INTO clients (id, identification_type, identification_number, first_name, last_name, "
+                + "email, birthdate, created_at, updated_at) VALUES (1, 'CC', '1001', 'Jane', 'Doe', 'jane@example.com', "
+                + "DATE '1990-01-01', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        // Account 1 has 20.00 more in a hot account slot; account 2 is opened on May 2nd
+        createAccount(1L, 1000, LocalDateTime.of(2024, 4, 1, 9, 0));
+        createAccount(2L, 50, LocalDateTime.of(2024, 5, 2, 12, 0));
+        jdbcTemplate.update("INSERT INTO product_balance_slots (product_id, slot, balance) VALUES (1, 0, 20)");
+        insertTransaction(1L, "DEPOSIT", 100, LocalDateTime.of(2024, 5, 1, 10, 0), null, 1L);
+        insertTransaction(2L, "WITHDRAWAL", -30, LocalDateTime.of(2024, 5, 2, 9, 0), 1L, null);
+        insertTransaction(3L, "TRANSFER", 50, LocalDateTime.of(2024, 5, 2, 15, 0), 1L, 2L);
+        // Chunks of one product, so every account is its own INSERT ... SELECT
+        dailyBalanceCheckpoints = new DailyBalanceCheckpoints(productRepository, checkpointRepository, transactionManager, 1, 0);
+    }
+
+    @Test
+    void testCheckpoint_ClosingBalanceFromCurrentBalances() {
+        // When
+        dailyBalanceCheckpoints.checkpoint(MAY_1);
+
+        // Then
+        // Everything dated May 2nd is taken back out of the current 1020.00
+        assertEquals(Money.of(1100), balance(1L, MAY_1).orElseThrow());
+        assertTrue(balance(2L, MAY_1).isEmpty());
+    }
+
+    @Test
+    void testBackfill_DerivesEachDayFromTheNextOne() {
+        // Given
+        dailyBalanceCheckpoints.checkpoint(MAY_2);
+
+        // When
+        dailyBalanceCheckpoints.backfill(MAY_1.minusDays(1));
+
+        // Then
+        assertEquals(Money.of(1020), balance(1L, MAY_2).orElseThrow());
+        assertEquals(Money.of(50), balance(2L, MAY_2).orElseThrow());
+        assertEquals(Money.of(1100), balance(1L, MAY_1).orElseThrow());
+        assertEquals(Money.of(1000), balance(1L, MAY_1.minusDays(1)).orElseThrow());
+        assertTrue(balance(2L, MAY_1).isEmpty());
+    }
+
+    @Test
+    void testCheckpoint_RerunOnlyFillsGaps() {
+        // Given
+        dailyBalanceCheckpoints.checkpoint(MAY_2);
+        jdbcTemplate.update("UPDATE products SET balance = 0");
+
+        // When
+        dailyBalanceCheckpoints.checkpoint(MAY_2);
+
+        // Then
+        assertEquals(2, checkpointRepository.count());
+        assertEquals(Money.of(1020), balance(1L, MAY_2).orElseThrow());
+    }
+
+    private Optional<Money> balance(Long productId, LocalDate date) {
+        return checkpointRepository.findById(new BalanceCheckpoint.Key(productId, date)).map(BalanceCheckpoint::getBalance);
+    }
+
+    private void createAccount(Long id, long balance, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO products (id, account_type, account_number, status, balance, gmf_exempt, "
+                + "created_at, updated_at, client_id) VALUES (?, 'SAVINGS', ?, 'ACTIVE', ?, FALSE, ?, ?, 1)",
+                id, String.format("53%08d", id), balance, createdAt, createdAt);
+    }
+
+    private void insertTransaction(Long id, String type, long amount, LocalDateTime date, Long sourceAccountId,
+                                   Long destinationAccountId) {
+        jdbcTemplate.update("INSERT INTO transactions (id, transaction_type, amount, transaction_date, source_account_id, "
+                + "destination_account_id) VALUES (?, ?, ?, ?, ?, ?)", id, type, amount, date, sourceAccountId,
+                destinationAccountId);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.financialapp.application.service.commit;
+
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.adapters.outbound.TransactionRepository;
+import com.example.financialapp.config.JpaConfig;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionType;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// GroupCommitter against the real JPA transaction manager, whose savepoints come from JpaConfig
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GroupCommitterJpaTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GroupCommitter groupCommitter;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM product_balance_slots");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM clients");
+        jdbcTemplate.update("INSERT INTO clients (id, identification_type, identification_number, first_name, last_name, "
+                + "email, birthdate, created_at, updated_at) VALUES (1, 'CC', '1000', 'Jane', 'Doe', 'jane@example.com', "
+                + "DATE '1990-01-01', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO products (id, account_type, account_number, status, balance, gmf_exempt, "
+                + "created_at, updated_at, client_id) VALUES (1, 'SAVINGS', '5300000001', 'ACTIVE', 100, FALSE, "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1)");
+        meterRegistry = new SimpleMeterRegistry();
+        // A wide window so that concurrently submitted work reliably lands in the same group
+        groupCommitter = new GroupCommitter(transactionManager, meterRegistry, 500_000, 16, 1024);
+        groupCommitter.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        groupCommitter.stop();
+    }
+
+    @Test
+    void testExecute_FailingRequestRollsBackToItsSavepointOnly() throws Exception {
+        // Given
+        CountDownLatch ready = new CountDownLatch(3);
+        List<Callable<Long>> tasks = new ArrayList<>();
+        tasks.add(() -> deposit(ready, 10, false));
+        tasks.add(() -> deposit(ready, 20, true));
+        tasks.add(() -> deposit(ready, 30, false));
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        List<Future<Long>> results;
+        try {
+            results = executor.invokeAll(tasks, 30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertNotNull(results.get(0).get());
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> results.get(1).get());
+        assertInstanceOf(InvalidRequestException.class, thrown.getCause());
+        assertNotNull(results.get(2).get());
+        assertEquals(1, meterRegistry.get("transactions.group_commit.batch.size").summary().count());
+        assertEquals(0, new BigDecimal("140").compareTo(
+                jdbcTemplate.queryForObject("SELECT balance FROM products WHERE id = 1", BigDecimal.class)));
+        assertEquals(2, transactionRepository.count());
+    }
+
+    // Writes a deposit row and its balance change, then rejects it after both statements have run if asked to
+    private Long deposit(CountDownLatch ready, long amount, boolean reject) throws InterruptedException {
+        ready.countDown();
+        ready.await();
+        return groupCommitter.execute(() -> {
+            Product account = new Product();
+            account.setId(1L);
+            Transaction transaction = new Transaction();
+            transaction.setTransactionType(TransactionType.DEPOSIT);
+            transaction.setAmount(Money.of(amount));
+            transaction.setDestinationAccount(account);
+            transactionRepository.save(transaction);
+            productRepository.addToBalance(1L, Money.of(amount).toBigDecimal());
+            if (reject) {
+                throw new InvalidRequestException("Rejected");
+            }
+            return transaction.getId();
+        });
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.financialapp.application.service.commit;
+
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GroupCommitterTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GroupCommitter groupCommitter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        // A wide window so that concurrently submitted work reliably lands in the same group
+        groupCommitter = new GroupCommitter(transactionManager, meterRegistry, 50_000, 16, 1024);
+        groupCommitter.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        groupCommitter.stop();
+    }
+
+    @Test
+    void testExecute_CoalescesConcurrentCallersIntoGroups() throws Exception {
+        // Given
+        int callers = 32;
+        CountDownLatch ready = new CountDownLatch(callers);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            int value = i;
+            tasks.add(() -> {
+                ready.countDown();
+                ready.await();
+                return groupCommitter.execute(() -> value);
+            });
+        }
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<Integer>> results;
+        try {
+            results = executor.invokeAll(tasks, 30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        for (int i = 0; i < callers; i++) {
+            assertEquals(i, results.get(i).get());
+        }
+        double groups = meterRegistry.get("transactions.group_commit.batch.size").summary().count();
+        assertTrue(groups < callers, "Expected shared commits but got " + groups + " groups");
+        assertEquals(callers, meterRegistry.get("transactions.group_commit.batch.size").summary().totalAmount());
+        assertTrue(meterRegistry.get("transactions.group_commit.batch.size").summary().max() <= 16);
+        assertEquals(callers, meterRegistry.get("transactions.group_commit.queue.wait").timer().count());
+    }
+
+    @Test
+    void testExecute_FailingRequestOnlyRollsBackItself() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> failing = executor.submit(() -> groupCommitter.execute(() -> {
+                throw new InvalidRequestException("Rejected");
+            }));
+            Future<String> succeeding = executor.submit(() -> groupCommitter.execute(() -> "committed"));
+
+            // When/Then
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> failing.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(InvalidRequestException.class, thrown.getCause());
+            assertEquals("committed", succeeding.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(transactionManager, atLeastOnce()).rollback(any());
+    }
+
+    @Test
+    void testExecute_RetriesIndividuallyWhenGroupCommitFails() {
+        // Given
+        // Outer transactions are "new", savepoints are not, so only the first shared commit can be made to fail
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus(
+                invocation.<TransactionDefinition>getArgument(0).getPropagationBehavior() != TransactionDefinition.PROPAGATION_NESTED));
+        AtomicBoolean failNextCommit = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            TransactionStatus status = invocation.getArgument(0);
+            if (status.isNewTransaction() && failNextCommit.getAndSet(false)) {
+                throw new TransientDataAccessResourceException("Deadlock found when trying to get lock");
+            }
+            return null;
+        }).when(transactionManager).commit(any());
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = groupCommitter.execute(() -> {
+            attempts.incrementAndGet();
+            return "retried";
+        });
+
+        // Then
+        assertEquals("retried", result);
+        assertEquals(2, attempts.get());
+    }
+}
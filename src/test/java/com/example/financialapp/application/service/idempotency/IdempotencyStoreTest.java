@@ -0,0 +1,137 @@
+package com.example.financialapp.application.service.idempotency;
+
+import com.example.financialapp.adapters.outbound.IdempotencyRecordRepository;
+import com.example.financialapp.domain.IdempotencyRecord;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionType;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        idempotencyStore = new IdempotencyStore(idempotencyRecordRepository, new ObjectMapper().findAndRegisterModules(),
+                Duration.ofHours(24), 1000);
+    }
+
+    @Test
+    void testFindReplay_CacheHitSkipsDatabase() {
+        // Given
+        Transaction transaction = deposit(1L, "100.00");
+        transaction.setId(5L);
+        String hash = idempotencyStore.fingerprint(transaction);
+        idempotencyStore.record("key-1", hash, transaction);
+
+        // When
+        Optional<Transaction> replay = idempotencyStore.findReplay("key-1", hash);
+
+        // Then
+        assertTrue(replay.isPresent());
+        assertEquals(5L, replay.get().getId());
+        assertEquals(Money.of(100), replay.get().getAmount());
+        verify(idempotencyRecordRepository, times(1)).insert(eq("key-1"), eq(hash), anyString(), any(), any());
+        verify(idempotencyRecordRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void testReserve_KeyHeldUntilReleased() {
+        // When/Then
+        assertTrue(idempotencyStore.reserve("key-1"));
+        assertFalse(idempotencyStore.reserve("key-1"));
+        assertTrue(idempotencyStore.reserve("key-2"));
+        idempotencyStore.release("key-1");
+        assertTrue(idempotencyStore.reserve("key-1"));
+    }
+
+    @Test
+    void testFindReplay_CacheMissLoadsFromDatabaseOnce() throws Exception {
+        // Given
+        Transaction transaction = deposit(1L, "50");
+        transaction.setId(9L);
+        String hash = idempotencyStore.fingerprint(transaction);
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey("key-2");
+        record.setRequestHash(hash);
+        record.setResponseBody(new ObjectMapper().findAndRegisterModules().writeValueAsString(transaction));
+        record.setCreatedAt(LocalDateTime.now());
+        record.setExpiresAt(LocalDateTime.now().plusHours(1));
+        when(idempotencyRecordRepository.findById("key-2")).thenReturn(Optional.of(record));
+
+        // When
+        idempotencyStore.findReplay("key-2", hash);
+        Optional<Transaction> replay = idempotencyStore.findReplay("key-2", hash);
+
+        // Then
+        assertEquals(9L, replay.get().getId());
+        verify(idempotencyRecordRepository, times(1)).findById("key-2");
+    }
+
+    @Test
+    void testFindReplay_UnknownKey() {
+        // Given
+        when(idempotencyRecordRepository.findById("key-3")).thenReturn(Optional.empty());
+
+        // When
+        Optional<Transaction> replay = idempotencyStore.findReplay("key-3", "hash");
+
+        // Then
+        assertTrue(replay.isEmpty());
+    }
+
+    @Test
+    void testFindReplay_KeyReusedWithDifferentRequest() {
+        // Given
+        Transaction transaction = deposit(1L, "100");
+        idempotencyStore.record("key-4", idempotencyStore.fingerprint(transaction), transaction);
+        String otherHash = idempotencyStore.fingerprint(deposit(1L, "200"));
+
+        // When/Then
+        assertThrows(InvalidRequestException.class, () -> idempotencyStore.findReplay("key-4", otherHash));
+    }
+
+    @Test
+    void testFingerprint_IgnoresAmountScale() {
+        // When/Then
+        assertEquals(idempotencyStore.fingerprint(deposit(1L, "100")), idempotencyStore.fingerprint(deposit(1L, "100.00")));
+        assertNotEquals(idempotencyStore.fingerprint(deposit(1L, "100")), idempotencyStore.fingerprint(deposit(2L, "100")));
+    }
+
+    @Test
+    void testValidateKey_TooLong() {
+        // When/Then
+        assertThrows(InvalidRequestException.class, () -> idempotencyStore.validateKey("k".repeat(101)));
+    }
+
+    private static Transaction deposit(Long accountId, String amount) {
+        Product destination = new Product();
+        destination.setId(accountId);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.DEPOSIT);
+        transaction.setAmount(Money.of(new BigDecimal(amount)));
+        transaction.setDestinationAccount(destination);
+        return transaction;
+    }
+}
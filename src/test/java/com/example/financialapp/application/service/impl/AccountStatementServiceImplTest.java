@@ -0,0 +1,209 @@
+package com.example.financialapp.application.service.impl;
+
+import com.example.financialapp.adapters.outbound.BalanceCheckpointRepository;
+import com.example.financialapp.adapters.outbound.ProductBalanceSlotRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.adapters.outbound.TransactionRepository;
+import com.example.financialapp.application.service.strategy.HotAccountBalances;
+import com.example.financialapp.domain.BalanceCheckpoint;
+import com.example.financialapp.domain.CursorPage;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.StatementEntry;
+import com.example.financialapp.domain.TransactionExportRow;
+import com.example.financialapp.domain.TransactionType;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import com.example.financialapp.util.PageCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AccountStatementServiceImplTest {
+
+    private static final Long ACCOUNT = 5L;
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 5, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusMonths(1);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ProductBalanceSlotRepository slotRepository;
+
+    @Mock
+    private BalanceCheckpointRepository checkpointRepository;
+
+    private AccountStatementServiceImpl accountStatementService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        HotAccountBalances hotAccountBalances = new HotAccountBalances(slotRepository, new SimpleMeterRegistry(), Set.of(), 4);
+        accountStatementService = new AccountStatementServiceImpl(productRepository, transactionRepository, hotAccountBalances,
+                checkpointRepository);
+    }
+
+    @Test
+    void testGetStatement_RunningBalanceEndsAtCurrentBalanceMinusLaterMovements() {
+        // Given
+        Product product = new Product();
+        product.setId(ACCOUNT);
+        product.setBalance(Money.of(150));
+        when(productRepository.findById(ACCOUNT)).thenReturn(Optional.of(product));
+        TransactionExportRow transferOut = row(3L, TransactionType.TRANSFER, Money.of(20), FROM.plusHours(3), ACCOUNT, 6L);
+        when(transactionRepository.findStatementPage(ACCOUNT, FROM, 0L, TO, Limit.of(4))).thenReturn(List.of(
+                row(1L, TransactionType.DEPOSIT, Money.of(100), FROM.plusHours(1), null, ACCOUNT),
+                row(2L, TransactionType.WITHDRAWAL, Money.of(-30), FROM.plusHours(2), ACCOUNT, null),
+                transferOut,
+                row(4L, TransactionType.TRANSFER, Money.of(50), FROM.plusHours(4), 7L, ACCOUNT)));
+        when(transactionRepository.sumMovementsAfter(ACCOUNT, transferOut.transactionDate(), 3L))
+                .thenReturn(Money.of(50).toBigDecimal());
+
+        // When
+        CursorPage<StatementEntry> statement = accountStatementService.getStatement(ACCOUNT, FROM, TO, null, 3);
+
+        // Then
+        List<StatementEntry> entries = statement.getItems();
+        assertEquals(List.of(1L, 2L, 3L), entries.stream().map(StatementEntry::getTransactionId).toList());
+        assertEquals(List.of(Money.of(100), Money.of(-30), Money.of(-20)), entries.stream().map(StatementEntry::getAmount).toList());
+        assertEquals(List.of(Money.of(150), Money.of(120), Money.of(100)), entries.stream().map(StatementEntry::getBalance).toList());
+        assertNull(entries.get(0).getCounterpartyAccountId());
+        assertEquals(6L, entries.get(2).getCounterpartyAccountId());
+        assertEquals(PageCursor.of(transferOut.transactionDate(), 3L), statement.getNextCursor());
+    }
+
+    @Test
+    void testGetStatement_CursorContinuesAfterLastEntry() {
+        // Given
+        Product product = new Product();
+        product.setId(ACCOUNT);
+        product.setBalance(Money.of(150));
+        when(productRepository.findById(ACCOUNT)).thenReturn(Optional.of(product));
+        LocalDateTime lastDate = FROM.plusHours(3);
+
+        // When
+        CursorPage<StatementEntry> statement =
+                accountStatementService.getStatement(ACCOUNT, FROM, TO, PageCursor.of(lastDate, 3L), 3);
+
+        // Then
+        assertTrue(statement.getItems().isEmpty());
+        verify(transactionRepository).findStatementPage(ACCOUNT, lastDate, 3L, TO, Limit.of(4));
+        verify(transactionRepository, never()).sumMovementsAfter(any(), any(), any());
+    }
+
+    @Test
+    void testGetStatement_ProductNotFound() {
+        // Given
+        when(productRepository.findById(ACCOUNT)).thenReturn(Optional.empty());
+
+        // When/Then
+        assertThrows(ResourceNotFoundException.class,
+                () -> accountStatementService.getStatement(ACCOUNT, FROM, TO, null, 10));
+    }
+
+    @Test
+    void testGetStatement_InvalidRange() {
+        // When/Then
+        assertThrows(InvalidRequestException.class,
+                () -> accountStatementService.getStatement(ACCOUNT, TO, FROM, null, 10));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void testGetBalanceAsOf_StartsFromCheckpointBefore() {
+        // Given
+        givenProduct(Money.of(900));
+        LocalDateTime asOf = LocalDateTime.of(2024, 5, 10, 23, 59);
+        when(checkpointRepository.findFirstByProductIdAndBalanceDateLessThanOrderByBalanceDateDesc(ACCOUNT, asOf.toLocalDate()))
+                .thenReturn(Optional.of(checkpoint(LocalDate.of(2024, 5, 9), Money.of(400))));
+        when(transactionRepository.sumMovementsBetween(ACCOUNT, LocalDateTime.of(2024, 5, 10, 0, 0), asOf))
+                .thenReturn(Money.of(-25).toBigDecimal());
+
+        // When
+        Money balance = accountStatementService.getBalanceAsOf(ACCOUNT, asOf).balance();
+
+        // Then
+        assertEquals(Money.of(375), balance);
+        verify(transactionRepository, never()).sumMovementsFrom(any(), any());
+    }
+
+    @Test
+    void testGetBalanceAsOf_WalksBackFromCheckpointAfter() {
+        // Given
+        givenProduct(Money.of(900));
+        LocalDateTime asOf = LocalDateTime.of(2024, 5, 10, 12, 0);
+        when(checkpointRepository.findFirstByProductIdAndBalanceDateGreaterThanEqualOrderByBalanceDateAsc(ACCOUNT, asOf.toLocalDate()))
+                .thenReturn(Optional.of(checkpoint(LocalDate.of(2024, 5, 10), Money.of(400))));
+        when(transactionRepository.sumMovementsBetween(ACCOUNT, asOf, LocalDateTime.of(2024, 5, 11, 0, 0)))
+                .thenReturn(Money.of(100).toBigDecimal());
+
+        // When
+        Money balance = accountStatementService.getBalanceAsOf(ACCOUNT, asOf).balance();
+
+        // Then
+        assertEquals(Money.of(300), balance);
+    }
+
+    @Test
+    void testGetBalanceAsOf_WithoutCheckpointsWalksBackFromCurrentBalance() {
+        // Given
+        givenProduct(Money.of(900));
+        LocalDateTime asOf = LocalDateTime.of(2024, 5, 10, 12, 0);
+        when(transactionRepository.sumMovementsFrom(ACCOUNT, asOf)).thenReturn(Money.of(150).toBigDecimal());
+
+        // When
+        Money balance = accountStatementService.getBalanceAsOf(ACCOUNT, asOf).balance();
+
+        // Then
+        assertEquals(Money.of(750), balance);
+    }
+
+    @Test
+    void testGetBalanceAsOf_BeforeProductCreation() {
+        // Given
+        givenProduct(Money.of(900)).setCreatedAt(LocalDateTime.of(2024, 5, 1, 0, 0));
+
+        // When/Then
+        assertThrows(InvalidRequestException.class,
+                () -> accountStatementService.getBalanceAsOf(ACCOUNT, LocalDateTime.of(2024, 4, 30, 12, 0)));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private Product givenProduct(Money balance) {
+        Product product = new Product();
+        product.setId(ACCOUNT);
+        product.setBalance(balance);
+        when(productRepository.findById(ACCOUNT)).thenReturn(Optional.of(product));
+        return product;
+    }
+
+    private static BalanceCheckpoint checkpoint(LocalDate date, Money balance) {
+        BalanceCheckpoint checkpoint = new BalanceCheckpoint();
+        checkpoint.setProductId(ACCOUNT);
+        checkpoint.setBalanceDate(date);
+        checkpoint.setBalance(balance);
+        return checkpoint;
+    }
+
+    private static TransactionExportRow row(Long id, TransactionType type, Money amount, LocalDateTime date,
+                                            Long sourceAccountId, Long destinationAccountId) {
+        return new TransactionExportRow(id, type, amount, date, sourceAccountId, destinationAccountId);
+    }
+}
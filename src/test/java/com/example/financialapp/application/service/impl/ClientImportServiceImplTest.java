@@ -0,0 +1,138 @@
+package com.example.financialapp.application.service.impl;
+
+import com.example.financialapp.adapters.outbound.AccountNumberBlockRepository;
+import com.example.financialapp.adapters.outbound.ClientRepository;
+import com.example.financialapp.application.service.onboarding.ClientRowParser;
+import com.example.financialapp.application.service.sequence.AccountNumberAllocator;
+import com.example.financialapp.domain.ClientImportResult;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClientImportServiceImplTest {
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private AccountNumberBlockRepository blockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ClientImportServiceImpl clientImportService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM balance_checkpoints");
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM product_balance_slots");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM clients");
+        jdbcTemplate.update("DELETE FROM account_number_blocks");
+        // Two clients per database transaction
+        clientImportService = new ClientImportServiceImpl(clientRepository,
+                new ClientRowParser(Validation.buildDefaultValidatorFactory().getValidator(),
+                        new AccountNumberAllocator(blockRepository, transactionManager, 10)),
+                transactionManager, 2);
+    }
+
+    @Test
+    void testImportClients_GroupsProductsUnderTheirClient() {
+        // Given
+        InputStream csv = csv(
+                "CC,1001,Jane,Doe,jane@example.com,1990-01-01,SAVINGS,100.50,true",
+                "CC,1001,Jane,Doe,jane@example.com,1990-01-01,CHECKING,-20,false",
+                "CC,1002,John,Roe,john@example.com,1985-06-15,,,",
+                "",
+                "CE,1003,Ana,Poe,ana@example.com,1970-03-03,SAVINGS,0,false");
+
+        // When
+        ClientImportResult result = clientImportService.importClients(csv);
+
+        // Then
+        assertEquals(3, result.clients());
+        assertEquals(3, result.products());
+        assertEquals(3, count("SELECT COUNT(*) FROM clients"));
+        assertEquals(2, count("SELECT COUNT(*) FROM products p JOIN clients c ON c.id = p.client_id "
+                + "WHERE c.identification_number = '1001'"));
+        assertEquals(0, count("SELECT COUNT(*) FROM products p JOIN clients c ON c.id = p.client_id "
+                + "WHERE c.identification_number = '1002'"));
+        List<String> accountNumbers = jdbcTemplate.queryForList(
+                "SELECT account_number FROM products ORDER BY account_number", String.class);
+        assertEquals(List.of("3300000001", "5300000001", "5300000002"), accountNumbers);
+    }
+
+    @Test
+    void testImportClients_BadLineKeepsEarlierChunks() {
+        // Given
+        InputStream csv = csv(
+                "CC,1001,Jane,Doe,jane@example.com,1990-01-01,SAVINGS,100,false",
+                "CC,1002,John,Roe,john@example.com,1985-06-15,SAVINGS,100,false",
+                "CC,1003,Kid,Poe,kid@example.com,2020-01-01,SAVINGS,100,false");
+
+        // When
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> clientImportService.importClients(csv));
+
+        // Then
+        assertTrue(ex.getMessage().startsWith("The client import stopped at line 4 after 2 clients were imported"));
+        assertEquals(2, count("SELECT COUNT(*) FROM clients"));
+    }
+
+    @Test
+    void testImportClients_DuplicateEmailRejectsItsChunk() {
+        // Given
+        InputStream csv = csv(
+                "CC,1001,Jane,Doe,jane@example.com,1990-01-01,SAVINGS,100,false",
+                "CC,1002,Janet,Doe,jane@example.com,1991-01-01,SAVINGS,100,false");
+
+        // When/Then
+        assertThrows(InvalidRequestException.class, () -> clientImportService.importClients(csv));
+        assertEquals(0, count("SELECT COUNT(*) FROM clients"));
+        assertEquals(0, count("SELECT COUNT(*) FROM products"));
+    }
+
+    @Test
+    void testImportClients_RejectsMissingHeader() {
+        // Given
+        InputStream csv = new ByteArrayInputStream(
+                "CC,1001,Jane,Doe,jane@example.com,1990-01-01,SAVINGS,100,false\n".getBytes(StandardCharsets.UTF_8));
+
+        // When/Then
+        assertThrows(InvalidRequestException.class, () -> clientImportService.importClients(csv));
+        assertEquals(0, count("SELECT COUNT(*) FROM clients"));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static InputStream csv(String... lines) {
+        String body = ClientRowParser.HEADER + "\n" + String.join("\n", lines) + "\n";
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
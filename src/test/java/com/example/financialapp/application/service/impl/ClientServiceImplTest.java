@@ -1,16 +1,21 @@
 package com.example.financialapp.application.service.impl;
 
 import com.example.financialapp.adapters.outbound.ClientRepository;
+import com.example.financialapp.application.service.cache.ClientCache;
 import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.ClientSummary;
+import com.example.financialapp.domain.CursorPage;
 import com.example.financialapp.domain.Product;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
 import com.example.financialapp.util.Constants;
+import com.example.financialapp.util.PageCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -21,6 +26,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ClientServiceImplTest {
@@ -28,6 +34,9 @@ class ClientServiceImplTest {
     @Mock
     private ClientRepository clientRepository;
 
+    @Mock
+    private ClientCache clientCache;
+
     @InjectMocks
     private ClientServiceImpl clientService;
 
@@ -101,6 +110,24 @@ class ClientServiceImplTest {
         assertEquals("Updated LastName", updatedClient.getLastName());
         assertEquals("updated@example.com", updatedClient.getEmail());
         verify(clientRepository, times(1)).save(existingClient);
+        verify(clientCache).evictAfterCommit(1L);
+    }
+
+    @Test
+    void testGetClientByEmail_ServedThroughCache() {
+        // Given
+        Client client = new Client();
+        client.setId(1L);
+        client.setEmail("john@example.com");
+        when(clientCache.getByEmail(eq("john@example.com"), any()))
+                .thenReturn(Optional.of(ClientSummary.of(client)));
+
+        // When
+        Optional<ClientSummary> found = clientService.getClientByEmail("john@example.com");
+
+        // Then
+        assertEquals(1L, found.orElseThrow().id());
+        verify(clientRepository, never()).findByEmail(any());
     }
 
     @Test
@@ -152,7 +179,7 @@ class ClientServiceImplTest {
     }
 
     @Test
-    void testGetAllClients() {
+    void testGetClients_LastPage() {
         // Given
         Client client1 = new Client();
         client1.setId(1L);
@@ -160,15 +187,41 @@ class ClientServiceImplTest {
         client2.setId(2L);
         List<Client> clients = Arrays.asList(client1, client2);
 
-        when(clientRepository.findAll()).thenReturn(clients);
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(clients);
 
         // When
-        List<Client> result = clientService.getAllClients();
+        CursorPage<Client> result = clientService.getClients(null, 2);
 
         // Then
         assertNotNull(result);
-        assertEquals(2, result.size());
-        verify(clientRepository, times(1)).findAll();
+        assertEquals(2, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void testGetClients_NextPageStartsAfterCursor() {
+        // Given
+        Client client3 = new Client();
+        client3.setId(3L);
+        Client client4 = new Client();
+        client4.setId(4L);
+        when(clientRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(2))).thenReturn(Arrays.asList(client3, client4));
+
+        // When
+        CursorPage<Client> result = clientService.getClients(PageCursor.ofId(2L), 1);
+
+        // Then
+        assertEquals(List.of(client3), result.getItems());
+        assertEquals(PageCursor.ofId(3L), result.getNextCursor());
+    }
+
+    @Test
+    void testGetClients_InvalidCursor() {
+        // When/Then
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> clientService.getClients("not-a-cursor", 10));
+        assertEquals(Constants.INVALID_PAGE_CURSOR, exception.getMessage());
+        verifyNoInteractions(clientRepository);
     }
 
     @Test
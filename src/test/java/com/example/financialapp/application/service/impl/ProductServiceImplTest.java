@@ -1,21 +1,32 @@
 package com.example.financialapp.application.service.impl;
 
 import com.example.financialapp.adapters.outbound.ClientRepository;
+import com.example.financialapp.adapters.outbound.ProductBalanceSlotRepository;
 import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.application.service.cache.ProductCache;
+import com.example.financialapp.application.service.ledger.LedgerEngine;
+import com.example.financialapp.application.service.sequence.AccountNumberAllocator;
+import com.example.financialapp.application.service.strategy.HotAccountBalances;
 import com.example.financialapp.domain.AccountStatus;
 import com.example.financialapp.domain.AccountType;
 import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.Money;
 import com.example.financialapp.domain.Product;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,12 +41,22 @@ class ProductServiceImplTest {
     @Mock
     private ClientRepository clientRepository;
 
-    @InjectMocks
+    @Mock
+    private ProductBalanceSlotRepository slotRepository;
+
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
     private ProductServiceImpl productService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Product 9 is a hot account whose deposits are spread over balance slots
+        HotAccountBalances hotAccountBalances = new HotAccountBalances(slotRepository, new SimpleMeterRegistry(), Set.of(9L), 4);
+        productService = new ProductServiceImpl(productRepository, clientRepository, hotAccountBalances,
+                new ProductCache(new SimpleMeterRegistry(), null, 100, Duration.ofMinutes(1)), accountNumberAllocator,
+                Optional.empty());
     }
 
     @Test
@@ -45,9 +66,10 @@ class ProductServiceImplTest {
         client.setId(1L);
         Product product = new Product();
         product.setAccountType(AccountType.SAVINGS);
-        product.setBalance(BigDecimal.valueOf(1000));
+        product.setBalance(Money.of(1000));
 
         when(clientRepository.findById(anyLong())).thenReturn(Optional.of(client));
+        when(accountNumberAllocator.next(AccountType.SAVINGS)).thenReturn("5300000001");
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
             Product savedProduct = invocation.getArgument(0);
             savedProduct.setId(1L);
@@ -60,7 +82,7 @@ class ProductServiceImplTest {
         // Then
         assertNotNull(createdProduct);
         assertEquals("5300000001", createdProduct.getAccountNumber());
-        verify(productRepository, times(2)).save(any(Product.class));
+        verify(productRepository, times(1)).save(any(Product.class));
     }
 
     @Test
@@ -82,7 +104,7 @@ class ProductServiceImplTest {
         Product product = new Product();
         product.setAccountType(AccountType.SAVINGS);
         product.setStatus(AccountStatus.CANCELED);
-        product.setBalance(new BigDecimal(-1));
+        product.setBalance(Money.of(-1));
 
         when(clientRepository.findById(anyLong())).thenReturn(Optional.of(client));
 
@@ -96,11 +118,11 @@ class ProductServiceImplTest {
         // Given
         Product existingProduct = new Product();
         existingProduct.setId(1L);
-        existingProduct.setBalance(BigDecimal.valueOf(500));
+        existingProduct.setBalance(Money.of(500));
 
         Product updateDetails = new Product();
         updateDetails.setStatus(AccountStatus.ACTIVE);
-        updateDetails.setBalance(BigDecimal.valueOf(1000));
+        updateDetails.setBalance(Money.of(1000));
         updateDetails.setGmfExempt(true);
 
         when(productRepository.findById(anyLong())).thenReturn(Optional.of(existingProduct));
@@ -112,17 +134,108 @@ class ProductServiceImplTest {
         // Then
         assertNotNull(updatedProduct);
         assertEquals(AccountStatus.ACTIVE, updatedProduct.getStatus());
-        assertEquals(BigDecimal.valueOf(1000), updatedProduct.getBalance());
+        assertEquals(Money.of(1000), updatedProduct.getBalance());
         assertTrue(updatedProduct.isGmfExempt());
         verify(productRepository, times(1)).save(existingProduct);
     }
 
+    @Test
+    void testUpdateProduct_LedgerModeAppliesTheBalanceThroughTheEngine() {
+        // Given
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        ProductServiceImpl ledgerService = ledgerService(ledgerEngine);
+        Product existingProduct = new Product();
+        existingProduct.setId(1L);
+        existingProduct.setBalance(Money.of(500));
+        Product updateDetails = new Product();
+        updateDetails.setStatus(AccountStatus.ACTIVE);
+        updateDetails.setBalance(Money.of(1000));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(existingProduct);
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // When
+            Product updatedProduct = ledgerService.updateProduct(1L, updateDetails);
+
+            // Then
+            assertEquals(Money.of(1000), updatedProduct.getBalance());
+            // The saved entity keeps the balance it was loaded with, so the UPDATE leaves the column alone
+            assertEquals(Money.of(500), existingProduct.getBalance());
+            verify(ledgerEngine, never()).setBalance(anyLong(), any());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            verify(ledgerEngine).setBalance(1L, Money.of(1000));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testUpdateProduct_LedgerModeLeavesTheBalanceAloneWhenTheUpdateRollsBack() {
+        // Given
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        ProductServiceImpl ledgerService = ledgerService(ledgerEngine);
+        Product existingProduct = new Product();
+        existingProduct.setId(1L);
+        existingProduct.setBalance(Money.ZERO);
+        Product updateDetails = new Product();
+        updateDetails.setStatus(AccountStatus.CANCELED);
+        updateDetails.setBalance(Money.ZERO);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(existingProduct);
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // When
+            ledgerService.updateProduct(1L, updateDetails);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            InOrder inOrder = inOrder(ledgerEngine, productRepository);
+            inOrder.verify(productRepository).save(existingProduct);
+            inOrder.verify(ledgerEngine).closeToCancel(1L);
+            inOrder.verify(ledgerEngine).reopen(1L);
+            verify(ledgerEngine, never()).setBalance(anyLong(), any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testDeleteProduct_LedgerModeReopensTheAccountWhenTheDeleteRollsBack() {
+        // Given
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        ProductServiceImpl ledgerService = ledgerService(ledgerEngine);
+        Product product = new Product();
+        product.setId(1L);
+        product.setBalance(Money.ZERO);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // When
+            ledgerService.deleteProduct(1L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            InOrder inOrder = inOrder(ledgerEngine, productRepository);
+            inOrder.verify(ledgerEngine).close(1L);
+            inOrder.verify(productRepository).delete(product);
+            inOrder.verify(ledgerEngine).reopen(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     void testDeleteProduct() {
         // Given
         Product product = new Product();
         product.setId(1L);
-        product.setBalance(BigDecimal.ZERO);
+        product.setBalance(Money.ZERO);
 
         when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
 
@@ -138,7 +251,7 @@ class ProductServiceImplTest {
         // Given
         Product product = new Product();
         product.setId(1L);
-        product.setBalance(BigDecimal.valueOf(100));
+        product.setBalance(Money.of(100));
 
         when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
 
@@ -146,4 +259,68 @@ class ProductServiceImplTest {
         assertThrows(InvalidRequestException.class, () -> productService.deleteProduct(1L));
         verify(productRepository, never()).delete(product);
     }
+
+    @Test
+    void testGetProductById_HotAccountReturnsSummedBalance() {
+        // Given
+        Product product = new Product();
+        product.setId(9L);
+        product.setBalance(Money.of(100));
+        when(productRepository.findById(9L)).thenReturn(Optional.of(product));
+        when(slotRepository.sumBalance(9L)).thenReturn(new BigDecimal("25.50"));
+
+        // When
+        Product found = productService.getProductById(9L).orElseThrow();
+
+        // Then
+        assertEquals(Money.of(new BigDecimal("125.50")), found.getBalance());
+        // The managed entity keeps the products row balance
+        assertEquals(Money.of(100), product.getBalance());
+    }
+
+    @Test
+    void testGetProductById_ServedFromCacheUntilUpdated() {
+        // Given
+        Product product = new Product();
+        product.setId(1L);
+        product.setBalance(Money.of(100));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        Product updateDetails = new Product();
+        updateDetails.setStatus(AccountStatus.ACTIVE);
+        updateDetails.setBalance(Money.of(300));
+
+        // When
+        productService.getProductById(1L);
+        Product cached = productService.getProductById(1L).orElseThrow();
+        productService.updateProduct(1L, updateDetails);
+        Product reloaded = productService.getProductById(1L).orElseThrow();
+
+        // Then
+        assertEquals(Money.of(100), cached.getBalance());
+        assertEquals(Money.of(300), reloaded.getBalance());
+        // Once for each read around the update and once by the update itself
+        verify(productRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void testDeleteProduct_HotAccountWithSlotBalance() {
+        // Given
+        Product product = new Product();
+        product.setId(9L);
+        product.setBalance(Money.ZERO);
+        when(productRepository.findById(9L)).thenReturn(Optional.of(product));
+        when(slotRepository.sumBalance(9L)).thenReturn(new BigDecimal("10.00"));
+
+        // When/Then
+        assertThrows(InvalidRequestException.class, () -> productService.deleteProduct(9L));
+        verify(productRepository, never()).delete(product);
+    }
+
+    private ProductServiceImpl ledgerService(LedgerEngine ledgerEngine) {
+        return new ProductServiceImpl(productRepository, clientRepository,
+                new HotAccountBalances(slotRepository, new SimpleMeterRegistry(), Set.of(), 4),
+                new ProductCache(new SimpleMeterRegistry(), null, 100, Duration.ofMinutes(1)), accountNumberAllocator,
+                Optional.of(ledgerEngine));
+    }
 }
@@ -0,0 +1,101 @@
+package com.example.financialapp.application.service.impl;
+
+import com.example.financialapp.adapters.outbound.TransactionRepository;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.TransactionExportFormat;
+import com.example.financialapp.domain.TransactionExportRow;
+import com.example.financialapp.domain.TransactionType;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.util.Constants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class TransactionExportServiceImplTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 5, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionExportServiceImpl transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        transactionExportService = new TransactionExportServiceImpl(transactionRepository, objectMapper, transactionManager);
+    }
+
+    @Test
+    void testExportTransactions_NdjsonOneObjectPerLine() throws Exception {
+        // Given
+        when(transactionRepository.streamForExport(FROM, TO, null)).thenReturn(Stream.of(
+                new TransactionExportRow(1L, TransactionType.DEPOSIT, Money.of(100), FROM.plusHours(1), null, 7L),
+                new TransactionExportRow(2L, TransactionType.TRANSFER, Money.of(25), FROM.plusHours(2), 7L, 8L)));
+
+        // When
+        String output = write(transactionExportService.exportTransactions(FROM, TO, null, TransactionExportFormat.NDJSON));
+
+        // Then
+        assertEquals("{\"id\":1,\"transactionType\":\"DEPOSIT\",\"amount\":100.00,\"transactionDate\":\"2024-05-01T01:00:00\","
+                + "\"sourceAccountId\":null,\"destinationAccountId\":7}\n"
+                + "{\"id\":2,\"transactionType\":\"TRANSFER\",\"amount\":25.00,\"transactionDate\":\"2024-05-01T02:00:00\","
+                + "\"sourceAccountId\":7,\"destinationAccountId\":8}\n", output);
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void testExportTransactions_CsvClosesTheStream() throws Exception {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(transactionRepository.streamForExport(FROM, TO, 7L)).thenReturn(Stream.of(
+                new TransactionExportRow(1L, TransactionType.DEPOSIT, Money.of(100), FROM.plusHours(1), null, 7L))
+                .onClose(() -> closed.set(true)));
+
+        // When
+        String output = write(transactionExportService.exportTransactions(FROM, TO, 7L, TransactionExportFormat.CSV));
+
+        // Then
+        assertEquals("id,transactionType,amount,transactionDate,sourceAccountId,destinationAccountId\n"
+                + "1,DEPOSIT,100.00,2024-05-01T01:00:00,,7\n", output);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testExportTransactions_EmptyRangeRejectedBeforeReading() {
+        // When/Then
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> transactionExportService.exportTransactions(TO, FROM, null, TransactionExportFormat.NDJSON));
+        assertEquals(Constants.INVALID_EXPORT_RANGE, exception.getMessage());
+        verify(transactionRepository, never()).streamForExport(any(), any(), any());
+    }
+
+    private static String write(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -2,23 +2,53 @@ package com.example.financialapp.application.service.impl;
 
 import com.example.financialapp.adapters.outbound.ProductRepository;
 import com.example.financialapp.adapters.outbound.TransactionRepository;
+import com.example.financialapp.application.service.commit.GroupCommitter;
+import com.example.financialapp.application.service.idempotency.IdempotencyStore;
 import com.example.financialapp.application.service.impl.TransactionServiceImpl;
+import com.example.financialapp.application.service.ledger.LedgerEngine;
+import com.example.financialapp.application.service.metrics.TransactionMetrics;
 import com.example.financialapp.application.service.strategy.TransactionStrategy;
+import com.example.financialapp.domain.CursorPage;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
 import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionBatchItemResult;
 import com.example.financialapp.domain.TransactionType;
+import com.example.financialapp.domain.TransactionView;
+import com.example.financialapp.infrastructure.exception.AccountLockTimeoutException;
+import com.example.financialapp.infrastructure.exception.IdempotencyKeyInProgressException;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.util.Constants;
+import com.example.financialapp.util.PageCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class TransactionServiceImplTest {
@@ -35,19 +65,32 @@ class TransactionServiceImplTest {
     @Mock
     private TransactionStrategy withdrawalStrategy;
 
-    @InjectMocks
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransactionMetrics transactionMetrics;
+
     private TransactionServiceImpl transactionService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        transactionMetrics = new TransactionMetrics(meterRegistry);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
 
         // Mocking strategy map
         Map<TransactionType, TransactionStrategy> strategyMap = new HashMap<>();
         strategyMap.put(TransactionType.DEPOSIT, depositStrategy);
         strategyMap.put(TransactionType.WITHDRAWAL, withdrawalStrategy);
 
-        transactionService = new TransactionServiceImpl(transactionRepository, productRepository, strategyMap);
+        transactionService = new TransactionServiceImpl(transactionRepository, productRepository, strategyMap,
+                Optional.empty(), Optional.empty(), idempotencyStore, transactionMetrics, transactionManager, 2, 10);
     }
 
     @Test
@@ -61,7 +104,169 @@ class TransactionServiceImplTest {
 
         // Then
         verify(depositStrategy, times(1)).execute(any(Transaction.class), eq(productRepository));
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(transactionRepository, times(1)).saveAndFlush(any(Transaction.class));
+    }
+
+    @Test
+    void testCreateTransaction_LedgerMode() {
+        // Given
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        Map<TransactionType, TransactionStrategy> strategyMap = new HashMap<>();
+        strategyMap.put(TransactionType.DEPOSIT, depositStrategy);
+        TransactionServiceImpl ledgerService = new TransactionServiceImpl(transactionRepository, productRepository,
+                strategyMap, Optional.of(ledgerEngine), Optional.empty(), idempotencyStore, transactionMetrics, transactionManager, 2, 10);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.DEPOSIT);
+        when(ledgerEngine.execute(transaction)).thenReturn(transaction);
+
+        // When
+        Transaction result = ledgerService.createTransaction(transaction);
+
+        // Then
+        assertSame(transaction, result);
+        verify(ledgerEngine, times(1)).execute(transaction);
+        verify(depositStrategy, never()).execute(any(Transaction.class), any(ProductRepository.class));
+        verify(transactionRepository, never()).saveAndFlush(any(Transaction.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateTransaction_GroupCommitMode() {
+        // Given
+        GroupCommitter groupCommitter = mock(GroupCommitter.class);
+        when(groupCommitter.execute(any(Supplier.class))).thenAnswer(invocation -> ((Supplier<Transaction>) invocation.getArgument(0)).get());
+        Map<TransactionType, TransactionStrategy> strategyMap = new HashMap<>();
+        strategyMap.put(TransactionType.DEPOSIT, depositStrategy);
+        TransactionServiceImpl groupCommitService = new TransactionServiceImpl(transactionRepository, productRepository,
+                strategyMap, Optional.empty(), Optional.of(groupCommitter), idempotencyStore, transactionMetrics, transactionManager, 2, 10);
+        Transaction transaction = transaction(TransactionType.DEPOSIT, 1L);
+
+        // When
+        Transaction result = groupCommitService.createTransaction(transaction);
+
+        // Then
+        assertSame(transaction, result);
+        verify(groupCommitter, times(1)).execute(any(Supplier.class));
+        verify(depositStrategy, times(1)).execute(transaction, productRepository);
+        verify(transactionRepository, times(1)).saveAndFlush(transaction);
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void testCreateTransaction_IdempotencyKeyRecordedWithTheMovement() {
+        // Given
+        Transaction transaction = transaction(TransactionType.DEPOSIT, 1L);
+        when(idempotencyStore.fingerprint(transaction)).thenReturn("hash");
+        when(idempotencyStore.findReplay("key-1", "hash")).thenReturn(Optional.empty());
+
+        // When
+        Transaction result = transactionService.createTransaction(transaction, "key-1");
+
+        // Then
+        assertSame(transaction, result);
+        InOrder inOrder = inOrder(depositStrategy, transactionRepository, idempotencyStore);
+        inOrder.verify(depositStrategy).execute(transaction, productRepository);
+        inOrder.verify(transactionRepository).saveAndFlush(transaction);
+        inOrder.verify(idempotencyStore).record("key-1", "hash", transaction);
+    }
+
+    @Test
+    void testCreateTransaction_IdempotencyKeyReplayed() {
+        // Given
+        Transaction transaction = transaction(TransactionType.DEPOSIT, 1L);
+        Transaction original = transaction(TransactionType.DEPOSIT, 1L);
+        original.setId(7L);
+        when(idempotencyStore.fingerprint(transaction)).thenReturn("hash");
+        when(idempotencyStore.findReplay("key-1", "hash")).thenReturn(Optional.of(original));
+
+        // When
+        Transaction result = transactionService.createTransaction(transaction, "key-1");
+
+        // Then
+        assertEquals(7L, result.getId());
+        verify(depositStrategy, never()).execute(any(Transaction.class), any(ProductRepository.class));
+        verify(transactionRepository, never()).saveAndFlush(any(Transaction.class));
+        verify(idempotencyStore, never()).record(anyString(), anyString(), any(Transaction.class));
+    }
+
+    @Test
+    void testCreateTransaction_ConcurrentDuplicateReturnsWinnerResponse() {
+        // Given
+        Transaction transaction = transaction(TransactionType.DEPOSIT, 1L);
+        Transaction winner = transaction(TransactionType.DEPOSIT, 1L);
+        winner.setId(8L);
+        when(idempotencyStore.fingerprint(transaction)).thenReturn("hash");
+        when(idempotencyStore.findReplay("key-1", "hash")).thenReturn(Optional.empty(), Optional.of(winner));
+        doThrow(new DataIntegrityViolationException("Duplicate entry 'key-1'"))
+                .when(idempotencyStore).record("key-1", "hash", transaction);
+
+        // When
+        Transaction result = transactionService.createTransaction(transaction, "key-1");
+
+        // Then
+        assertEquals(8L, result.getId());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void testCreateTransaction_LedgerModeReservesTheKeyBeforeSubmitting() {
+        // Given
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        TransactionServiceImpl ledgerService = ledgerService(ledgerEngine);
+        Transaction transaction = transaction(TransactionType.DEPOSIT, 1L);
+        when(idempotencyStore.fingerprint(transaction)).thenReturn("hash");
+        when(idempotencyStore.findReplay("key-1", "hash")).thenReturn(Optional.empty());
+        when(idempotencyStore.reserve("key-1")).thenReturn(true);
+        when(ledgerEngine.execute(transaction)).thenReturn(transaction);
+
+        // When
+        Transaction result = ledgerService.createTransaction(transaction, "key-1");
+
+        // Then
+        assertSame(transaction, result);
+        InOrder inOrder = inOrder(idempotencyStore, ledgerEngine);
+        inOrder.verify(idempotencyStore).reserve("key-1");
+        inOrder.verify(ledgerEngine).execute(transaction);
+        inOrder.verify(idempotencyStore).record("key-1", "hash", transaction);
+        inOrder.verify(idempotencyStore).release("key-1");
+    }
+
+    @Test
+    void testCreateTransaction_LedgerModeDuplicateOfAReservedKeyIsNotSubmitted() {
+        // Given
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        TransactionServiceImpl ledgerService = ledgerService(ledgerEngine);
+        Transaction transaction = transaction(TransactionType.DEPOSIT, 1L);
+        when(idempotencyStore.fingerprint(transaction)).thenReturn("hash");
+        when(idempotencyStore.findReplay("key-1", "hash")).thenReturn(Optional.empty());
+        when(idempotencyStore.reserve("key-1")).thenReturn(false);
+
+        // When/Then
+        assertThrows(IdempotencyKeyInProgressException.class, () -> ledgerService.createTransaction(transaction, "key-1"));
+        verify(ledgerEngine, never()).execute(any(Transaction.class));
+        verify(idempotencyStore, never()).record(anyString(), anyString(), any(Transaction.class));
+        verify(idempotencyStore, never()).release(anyString());
+    }
+
+    @Test
+    void testCreateTransaction_LedgerModeReservationReplaysAResponseRecordedMeanwhile() {
+        // Given
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        TransactionServiceImpl ledgerService = ledgerService(ledgerEngine);
+        Transaction transaction = transaction(TransactionType.DEPOSIT, 1L);
+        Transaction winner = transaction(TransactionType.DEPOSIT, 1L);
+        winner.setId(8L);
+        when(idempotencyStore.fingerprint(transaction)).thenReturn("hash");
+        when(idempotencyStore.findReplay("key-1", "hash")).thenReturn(Optional.empty(), Optional.of(winner));
+        when(idempotencyStore.reserve("key-1")).thenReturn(true);
+
+        // When
+        Transaction result = ledgerService.createTransaction(transaction, "key-1");
+
+        // Then
+        assertEquals(8L, result.getId());
+        verify(ledgerEngine, never()).execute(any(Transaction.class));
+        verify(idempotencyStore).release("key-1");
     }
 
     @Test
@@ -72,40 +277,280 @@ class TransactionServiceImplTest {
 
         // When/Then
         assertThrows(InvalidRequestException.class, () -> transactionService.createTransaction(transaction));
-        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(transactionRepository, never()).saveAndFlush(any(Transaction.class));
+    }
+
+    @Test
+    void testCreateTransactions_CommitsInChunksWithPerItemResults() {
+        // Given
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            transactions.add(transaction(TransactionType.DEPOSIT, (long) i));
+        }
+        doThrow(new InvalidRequestException(Constants.INSUFFICIENT_BALANCE))
+                .when(withdrawalStrategy).execute(any(Transaction.class), eq(productRepository));
+        transactions.set(3, transaction(TransactionType.WITHDRAWAL, 3L));
+
+        // When
+        List<TransactionBatchItemResult> results = transactionService.createTransactions(transactions);
+
+        // Then
+        assertEquals(5, results.size());
+        assertEquals(TransactionBatchItemResult.Status.ACCEPTED, results.get(2).getStatus());
+        assertEquals(TransactionBatchItemResult.Status.REJECTED, results.get(3).getStatus());
+        assertEquals(Constants.INSUFFICIENT_BALANCE, results.get(3).getMessage());
+        assertEquals(4, results.get(4).getIndex());
+        // The rejected item is rolled back on its own, the other four are saved
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionRepository, times(4)).saveAndFlush(any(Transaction.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateTransaction_GroupCommitRetryPersistsTheTransactionAgain() {
+        // Given
+        GroupCommitter groupCommitter = mock(GroupCommitter.class);
+        // The first run belongs to a group whose commit failed, the second is the retry on its own
+        when(groupCommitter.execute(any(Supplier.class))).thenAnswer(invocation -> {
+            Supplier<Transaction> work = invocation.getArgument(0);
+            work.get();
+            return work.get();
+        });
+        List<Long> idsWhenSaved = new ArrayList<>();
+        AtomicLong sequence = new AtomicLong(100);
+        when(transactionRepository.saveAndFlush(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction saved = invocation.getArgument(0);
+            idsWhenSaved.add(saved.getId());
+            saved.setId(sequence.incrementAndGet());
+            return saved;
+        });
+        Map<TransactionType, TransactionStrategy> strategyMap = new HashMap<>();
+        strategyMap.put(TransactionType.DEPOSIT, depositStrategy);
+        TransactionServiceImpl groupCommitService = new TransactionServiceImpl(transactionRepository, productRepository,
+                strategyMap, Optional.empty(), Optional.of(groupCommitter), idempotencyStore, transactionMetrics, transactionManager, 2, 10);
+
+        // When
+        Transaction result = groupCommitService.createTransaction(transaction(TransactionType.DEPOSIT, 1L));
+
+        // Then
+        assertEquals(Arrays.asList(null, null), idsWhenSaved);
+        assertEquals(102L, result.getId());
+    }
+
+    @Test
+    void testCreateTransactions_MalformedItemsRejectedBeforeTheFirstChunk() {
+        // Given
+        Transaction withoutAccount = transaction(TransactionType.DEPOSIT, 1L);
+        withoutAccount.setDestinationAccount(null);
+        Transaction withoutAmount = transaction(TransactionType.DEPOSIT, 2L);
+        withoutAmount.setAmount(null);
+        List<Transaction> transactions = List.of(transaction(TransactionType.DEPOSIT, 3L), withoutAccount, withoutAmount);
+
+        // When
+        List<TransactionBatchItemResult> results = transactionService.createTransactions(transactions);
+
+        // Then
+        assertEquals(TransactionBatchItemResult.Status.ACCEPTED, results.get(0).getStatus());
+        assertEquals(Constants.INVALID_TRANSACTION, results.get(1).getMessage());
+        assertEquals(Constants.INVALID_TRANSACTION, results.get(2).getMessage());
+        verify(depositStrategy, times(1)).execute(any(Transaction.class), eq(productRepository));
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void testCreateTransactions_UnexpectedItemFailureRejectsOnlyThatItem() {
+        // Given
+        Transaction busy = transaction(TransactionType.WITHDRAWAL, 1L);
+        Transaction broken = transaction(TransactionType.WITHDRAWAL, 2L);
+        doThrow(new AccountLockTimeoutException(Constants.ACCOUNT_LOCK_TIMEOUT + 1))
+                .when(withdrawalStrategy).execute(busy, productRepository);
+        doThrow(new IllegalStateException("connection reset"))
+                .when(withdrawalStrategy).execute(broken, productRepository);
+
+        // When
+        List<TransactionBatchItemResult> results = transactionService.createTransactions(
+                List.of(transaction(TransactionType.DEPOSIT, 3L), busy, broken));
+
+        // Then
+        assertEquals(TransactionBatchItemResult.Status.ACCEPTED, results.get(0).getStatus());
+        assertEquals(Constants.ACCOUNT_LOCK_TIMEOUT + 1, results.get(1).getMessage());
+        assertEquals(Constants.TRANSACTION_FAILED, results.get(2).getMessage());
+        verify(transactionRepository, times(1)).saveAndFlush(any(Transaction.class));
+    }
+
+    @Test
+    void testCreateTransactions_ItemLeavingTheTransactionRollbackOnlyRerunsTheChunkWithoutIt() {
+        // Given
+        List<TransactionStatus> chunkStatuses = new ArrayList<>();
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            TransactionStatus status = new SimpleTransactionStatus();
+            if (invocation.<TransactionDefinition>getArgument(0).getPropagationBehavior() != TransactionDefinition.PROPAGATION_NESTED) {
+                chunkStatuses.add(status);
+            }
+            return status;
+        });
+        Transaction deadlocked = transaction(TransactionType.WITHDRAWAL, 2L);
+        doAnswer(invocation -> {
+            // What Hibernate does to the transaction when a statement fails
+            chunkStatuses.get(chunkStatuses.size() - 1).setRollbackOnly();
+            throw new PessimisticLockingFailureException("Deadlock found when trying to get lock");
+        }).when(withdrawalStrategy).execute(deadlocked, productRepository);
+        Transaction first = transaction(TransactionType.DEPOSIT, 1L);
+        first.setId(5L);
+
+        // When
+        List<TransactionBatchItemResult> results = transactionService.createTransactions(List.of(first, deadlocked));
+
+        // Then
+        assertEquals(TransactionBatchItemResult.Status.ACCEPTED, results.get(0).getStatus());
+        assertEquals(Constants.TRANSACTION_FAILED, results.get(1).getMessage());
+        assertEquals(2, chunkStatuses.size());
+        // The first run of the chunk was rolled back, so the deposit ran again with the id of the first run cleared
+        verify(depositStrategy, times(2)).execute(first, productRepository);
+        verify(withdrawalStrategy, times(1)).execute(deadlocked, productRepository);
+        assertNull(first.getId());
+        assertEquals(1.0, meterRegistry.get("transactions.rejected").tag("reason", TransactionMetrics.ERROR).counter().count());
+    }
+
+    @Test
+    void testCreateTransactions_LedgerModeRejectsSubmitFailuresPerItem() {
+        // Given
+        LedgerEngine ledgerEngine = mock(LedgerEngine.class);
+        Map<TransactionType, TransactionStrategy> strategyMap = new HashMap<>();
+        strategyMap.put(TransactionType.DEPOSIT, depositStrategy);
+        TransactionServiceImpl ledgerService = new TransactionServiceImpl(transactionRepository, productRepository,
+                strategyMap, Optional.of(ledgerEngine), Optional.empty(), idempotencyStore, transactionMetrics, transactionManager, 2, 10);
+        Transaction accepted = transaction(TransactionType.DEPOSIT, 1L);
+        Transaction failing = transaction(TransactionType.DEPOSIT, 2L);
+        when(ledgerEngine.submit(accepted)).thenReturn(CompletableFuture.completedFuture(accepted));
+        when(ledgerEngine.submit(failing)).thenThrow(new IllegalStateException("Ledger engine is stopped"));
+
+        // When
+        List<TransactionBatchItemResult> results = ledgerService.createTransactions(List.of(accepted, failing));
+
+        // Then
+        assertEquals(TransactionBatchItemResult.Status.ACCEPTED, results.get(0).getStatus());
+        assertEquals(Constants.TRANSACTION_FAILED, results.get(1).getMessage());
+    }
+
+    @Test
+    void testCreateTransaction_TimesStepsAndCountsRejectionsByReason() {
+        // Given
+        doThrow(new InvalidRequestException(Constants.INVALID_WITHDRAWAL_AMOUNT))
+                .when(withdrawalStrategy).execute(any(Transaction.class), eq(productRepository));
+
+        // When
+        transactionService.createTransaction(transaction(TransactionType.DEPOSIT, 1L));
+        assertThrows(InvalidRequestException.class,
+                () -> transactionService.createTransaction(transaction(TransactionType.WITHDRAWAL, 1L), null));
+
+        // Then
+        assertEquals(1, meterRegistry.get("transactions.strategy").tag("type", "DEPOSIT").timer().count());
+        assertEquals(1, meterRegistry.get("transactions.save").tag("type", "DEPOSIT").timer().count());
+        assertEquals(1, meterRegistry.get("transactions.strategy").tag("type", "WITHDRAWAL").timer().count());
+        assertEquals(0, meterRegistry.get("transactions.save").tag("type", "WITHDRAWAL").timer().count());
+        assertEquals(1.0, meterRegistry.get("transactions.rejected").tag("reason", TransactionMetrics.INVALID_AMOUNT).counter().count());
+        assertEquals(0.0, meterRegistry.get("transactions.in_flight").gauge().value());
+    }
+
+    @Test
+    void testCreateTransactions_CountsRejectedItems() {
+        // Given
+        doThrow(new InvalidRequestException(Constants.INSUFFICIENT_BALANCE))
+                .when(withdrawalStrategy).execute(any(Transaction.class), eq(productRepository));
+        List<Transaction> transactions = List.of(transaction(TransactionType.DEPOSIT, 1L),
+                transaction(TransactionType.WITHDRAWAL, 1L), transaction(TransactionType.WITHDRAWAL, 2L));
+
+        // When
+        transactionService.createTransactions(transactions);
+
+        // Then
+        assertEquals(2.0, meterRegistry.get("transactions.rejected").tag("reason", TransactionMetrics.INSUFFICIENT_BALANCE).counter().count());
+        assertEquals(0.0, meterRegistry.get("transactions.rejected").tag("reason", TransactionMetrics.NOT_FOUND).counter().count());
+    }
+
+    @Test
+    void testCreateTransactions_TooManyItems() {
+        // Given
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            transactions.add(transaction(TransactionType.DEPOSIT, (long) i));
+        }
+
+        // When/Then
+        assertThrows(InvalidRequestException.class, () -> transactionService.createTransactions(transactions));
+        verify(depositStrategy, never()).execute(any(Transaction.class), any(ProductRepository.class));
     }
 
     @Test
     void testGetTransactionById() {
         // Given
-        Transaction transaction = new Transaction();
-        transaction.setId(1L);
-        when(transactionRepository.findById(anyLong())).thenReturn(Optional.of(transaction));
+        TransactionView transaction = new TransactionView(1L, TransactionType.DEPOSIT, Money.of(10), LocalDateTime.now(),
+                null, "5300000001");
+        when(transactionRepository.findViewById(1L)).thenReturn(Optional.of(transaction));
 
         // When
-        Optional<Transaction> result = transactionService.getTransactionById(1L);
+        Optional<TransactionView> result = transactionService.getTransactionById(1L);
 
         // Then
         assertTrue(result.isPresent());
-        assertEquals(1L, result.get().getId());
-        verify(transactionRepository, times(1)).findById(1L);
+        assertEquals(1L, result.get().id());
+        verify(transactionRepository, never()).findById(anyLong());
     }
 
     @Test
     void testGetTransactionsBySourceAccountId() {
         // When
-        transactionService.getTransactionsBySourceAccountId(1L);
+        transactionService.getTransactionsBySourceAccountId(1L, null, 20);
 
         // Then
-        verify(transactionRepository, times(1)).findBySourceAccountId(1L);
+        verify(transactionRepository, times(1)).findSourcePage(1L, 0L, Limit.of(21));
     }
 
     @Test
     void testGetTransactionsByDestinationAccountId() {
         // When
-        transactionService.getTransactionsByDestinationAccountId(1L);
+        transactionService.getTransactionsByDestinationAccountId(1L, PageCursor.ofId(7L), 20);
+
+        // Then
+        verify(transactionRepository, times(1)).findDestinationPage(1L, 7L, Limit.of(21));
+    }
+
+    @Test
+    void testGetTransactions_CursorCarriesDateAndIdOfLastItem() {
+        // Given
+        LocalDateTime date = LocalDateTime.of(2024, 5, 1, 10, 30, 0, 123_456_000);
+        TransactionView first = new TransactionView(10L, TransactionType.DEPOSIT, Money.of(10), date, null, "5300000001");
+        TransactionView second = new TransactionView(11L, TransactionType.DEPOSIT, Money.of(10), date, null, "5300000001");
+        when(transactionRepository.findFirstPage(Limit.of(2))).thenReturn(List.of(first, second));
+
+        // When
+        CursorPage<TransactionView> page = transactionService.getTransactions(null, 1);
 
         // Then
-        verify(transactionRepository, times(1)).findByDestinationAccountId(1L);
+        assertEquals(List.of(first), page.getItems());
+        transactionService.getTransactions(page.getNextCursor(), 1);
+        verify(transactionRepository).findPageAfter(date, 10L, Limit.of(2));
+    }
+
+    private static Transaction transaction(TransactionType type, Long accountId) {
+        Product account = new Product();
+        account.setId(accountId);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(type);
+        transaction.setAmount(type == TransactionType.WITHDRAWAL ? Money.of(-10) : Money.of(10));
+        if (type == TransactionType.DEPOSIT) {
+            transaction.setDestinationAccount(account);
+        } else {
+            transaction.setSourceAccount(account);
+        }
+        return transaction;
+    }
+
+    private TransactionServiceImpl ledgerService(LedgerEngine ledgerEngine) {
+        Map<TransactionType, TransactionStrategy> strategyMap = new HashMap<>();
+        strategyMap.put(TransactionType.DEPOSIT, depositStrategy);
+        return new TransactionServiceImpl(transactionRepository, productRepository, strategyMap, Optional.of(ledgerEngine),
+                Optional.empty(), idempotencyStore, transactionMetrics, transactionManager, 2, 10);
     }
 }
@@ -0,0 +1,233 @@
+package com.example.financialapp.application.service.impl.strategy;
+
+import com.example.financialapp.adapters.outbound.ProductBalanceSlotRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.application.service.cache.ProductCache;
+import com.example.financialapp.application.service.lock.AccountLockManager;
+import com.example.financialapp.application.service.strategy.DepositStrategy;
+import com.example.financialapp.application.service.strategy.HotAccountBalances;
+import com.example.financialapp.application.service.strategy.TransferStrategy;
+import com.example.financialapp.application.service.strategy.WithdrawalStrategy;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TransferStrategy.class, WithdrawalStrategy.class, AccountLockManager.class, HotAccountBalances.class,
+        ProductCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BalanceUpdateConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(10_000);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductBalanceSlotRepository slotRepository;
+
+    @Autowired
+    private TransferStrategy transferStrategy;
+
+    @Autowired
+    private WithdrawalStrategy withdrawalStrategy;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM product_balance_slots");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM clients");
+        jdbcTemplate.update("INSERT INTO clients (id, identification_type, identification_number, first_name, last_name, "
+                + "email, birthdate, created_at, updated_at) VALUES (1, 'CC', '1000', 'Jane', 'Doe', 'jane@example.com', "
+                + "DATE '1990-01-01', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+    }
+
+    @Test
+    void testParallelTransfers_NoLostUpdates() throws Exception {
+        // Given
+        int accounts = 4;
+        for (long id = 1; id <= accounts; id++) {
+            createAccount(id, INITIAL_BALANCE);
+        }
+        Random random = new Random(42);
+        Map<Long, BigDecimal> expected = new HashMap<>();
+        List<Callable<Void>> transfers = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            long source = 1 + random.nextInt(accounts);
+            long destination = 1 + (source + random.nextInt(accounts - 1)) % accounts;
+            BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(10));
+            expected.merge(source, amount.negate(), BigDecimal::add);
+            expected.merge(destination, amount, BigDecimal::add);
+            transfers.add(() -> {
+                transactionTemplate.executeWithoutResult(status ->
+                        transferStrategy.execute(transaction(source, destination, amount), productRepository));
+                return null;
+            });
+        }
+
+        // When
+        runInParallel(transfers);
+
+        // Then
+        BigDecimal total = BigDecimal.ZERO;
+        for (long id = 1; id <= accounts; id++) {
+            BigDecimal balance = balanceOf(id);
+            assertEquals(0, INITIAL_BALANCE.add(expected.getOrDefault(id, BigDecimal.ZERO)).compareTo(balance),
+                    "Unexpected balance for account " + id);
+            total = total.add(balance);
+        }
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(accounts)).compareTo(total));
+    }
+
+    @Test
+    void testParallelWithdrawals_NeverOverdraw() throws Exception {
+        // Given
+        createAccount(1L, BigDecimal.valueOf(1_000));
+        AtomicInteger rejected = new AtomicInteger();
+        List<Callable<Void>> withdrawals = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            withdrawals.add(() -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            withdrawalStrategy.execute(transaction(1L, null, BigDecimal.valueOf(-10)), productRepository));
+                } catch (InvalidRequestException ex) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        // When
+        runInParallel(withdrawals);
+
+        // Then
+        assertEquals(100, rejected.get());
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(1L)));
+    }
+
+    @Test
+    void testParallelDepositsAndWithdrawals_OnHotAccount() throws Exception {
+        // Given
+        createAccount(1L, BigDecimal.ZERO);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HotAccountBalances hotAccountBalances = new HotAccountBalances(slotRepository, meterRegistry, Set.of(1L), 4);
+        hotAccountBalances.createMissingSlots(productRepository);
+        DepositStrategy hotDepositStrategy = new DepositStrategy(hotAccountBalances, productCache);
+        WithdrawalStrategy hotWithdrawalStrategy = new WithdrawalStrategy(
+                new AccountLockManager(meterRegistry, 16, 5000, false), hotAccountBalances, productCache);
+        AtomicInteger withdrawn = new AtomicInteger();
+        List<Callable<Void>> movements = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            boolean deposit = i % 3 != 0;
+            movements.add(() -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (deposit) {
+                            hotDepositStrategy.execute(transaction(null, 1L, BigDecimal.TEN), productRepository);
+                        } else {
+                            hotWithdrawalStrategy.execute(transaction(1L, null, BigDecimal.valueOf(-10)), productRepository);
+                            withdrawn.incrementAndGet();
+                        }
+                    });
+                } catch (InvalidRequestException ex) {
+                    // Withdrawals that ran before enough deposits are rejected
+                }
+                return null;
+            });
+        }
+
+        // When
+        runInParallel(movements);
+
+        // Then
+        BigDecimal slots = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(balance), 0) FROM product_balance_slots WHERE product_id = 1", BigDecimal.class);
+        BigDecimal expected = BigDecimal.valueOf(10L * (200 - withdrawn.get()));
+        assertEquals(0, expected.compareTo(balanceOf(1L).add(slots)));
+        assertTrue(balanceOf(1L).signum() >= 0);
+    }
+
+    private void runInParallel(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks, 60, TimeUnit.SECONDS)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void createAccount(Long id, BigDecimal balance) {
+        jdbcTemplate.update("INSERT INTO products (id, account_type, account_number, status, balance, gmf_exempt, "
+                + "created_at, updated_at, client_id) VALUES (?, 'SAVINGS', ?, 'ACTIVE', ?, FALSE, CURRENT_TIMESTAMP, "
+                + "CURRENT_TIMESTAMP, 1)", id, String.format("53%08d", id), balance);
+    }
+
+    private BigDecimal balanceOf(Long id) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM products WHERE id = ?", BigDecimal.class, id);
+    }
+
+    private static Transaction transaction(Long sourceId, Long destinationId, BigDecimal amount) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(Money.of(amount));
+        if (sourceId != null) {
+            Product source = new Product();
+            source.setId(sourceId);
+            transaction.setSourceAccount(source);
+        }
+        if (destinationId != null) {
+            Product destination = new Product();
+            destination.setId(destinationId);
+            transaction.setDestinationAccount(destination);
+        }
+        return transaction;
+    }
+}
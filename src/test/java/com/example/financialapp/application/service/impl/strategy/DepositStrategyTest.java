@@ -1,11 +1,16 @@
 package com.example.financialapp.application.service.impl.strategy;
 
+import com.example.financialapp.adapters.outbound.ProductBalanceSlotRepository;
 import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.application.service.cache.ProductCache;
 import com.example.financialapp.application.service.strategy.DepositStrategy;
+import com.example.financialapp.application.service.strategy.HotAccountBalances;
+import com.example.financialapp.domain.Money;
 import com.example.financialapp.domain.Product;
 import com.example.financialapp.domain.Transaction;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -13,7 +18,9 @@ import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -23,33 +30,80 @@ class DepositStrategyTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductBalanceSlotRepository slotRepository;
+
+    @Mock
+    private ProductCache productCache;
+
     private DepositStrategy depositStrategy;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        depositStrategy = new DepositStrategy();
+        depositStrategy = new DepositStrategy(noHotAccounts(), productCache);
+        when(productRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(stored(invocation.getArgument(0))));
+        when(productRepository.findBalance(anyLong())).thenReturn(Money.of(500).toBigDecimal());
     }
 
     @Test
     void testExecute_Success() {
         // Given
         Transaction transaction = new Transaction();
-        transaction.setAmount(BigDecimal.valueOf(100));
+        transaction.setAmount(Money.of(100));
         Product account = new Product();
         account.setId(1L);
-        account.setBalance(BigDecimal.valueOf(1000));
 
         transaction.setDestinationAccount(account);
 
-        when(productRepository.findById(anyLong())).thenReturn(Optional.of(account));
+        when(productRepository.adjustBalance(1L, Money.of(100).toBigDecimal())).thenReturn(1);
 
         // When
         depositStrategy.execute(transaction, productRepository);
 
         // Then
-        verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, times(1)).adjustBalance(1L, Money.of(100).toBigDecimal());
+        verify(productRepository, never()).save(any(Product.class));
+        verify(productCache).evictAfterCommit(1L);
+        assertEquals(Money.of(500), transaction.getDestinationAccount().getBalance());
+        assertEquals("530000001", transaction.getDestinationAccount().getAccountNumber());
     }
 
-}
+    @Test
+    void testExecute_ProductNotFound() {
+        // Given
+        Transaction transaction = new Transaction();
+        transaction.setAmount(Money.of(100));
+        Product account = new Product();
+        account.setId(1L);
+        transaction.setDestinationAccount(account);
+
+        when(productRepository.adjustBalance(anyLong(), any(BigDecimal.class))).thenReturn(0);
 
+        // When/Then
+        assertThrows(ResourceNotFoundException.class, () -> depositStrategy.execute(transaction, productRepository));
+    }
+
+    @Test
+    void testExecute_InvalidDepositAmount() {
+        // Given
+        Transaction transaction = new Transaction();
+        transaction.setAmount(Money.of(-100));
+
+        // When/Then
+        assertThrows(InvalidRequestException.class, () -> depositStrategy.execute(transaction, productRepository));
+        verify(productRepository, never()).adjustBalance(anyLong(), any(BigDecimal.class));
+    }
+
+    private static Product stored(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setAccountNumber("53000000" + id);
+        product.setBalance(Money.of(1));
+        return product;
+    }
+
+    private HotAccountBalances noHotAccounts() {
+        return new HotAccountBalances(slotRepository, new SimpleMeterRegistry(), Set.of(), 16);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.financialapp.application.service.impl.strategy;
+
+import com.example.financialapp.adapters.outbound.ProductBalanceSlotRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.application.service.strategy.HotAccountBalances;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.ProductBalanceSlot;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HotAccountBalancesTest {
+
+    private static final Long HOT_ACCOUNT = 1L;
+    private static final Long REGULAR_ACCOUNT = 2L;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductBalanceSlotRepository slotRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HotAccountBalances hotAccountBalances;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        hotAccountBalances = new HotAccountBalances(slotRepository, meterRegistry, Set.of(HOT_ACCOUNT), 4);
+    }
+
+    @Test
+    void testCredit_HotAccountGoesToSlot() {
+        // Given
+        when(slotRepository.credit(eq(HOT_ACCOUNT), anyInt(), eq(Money.of(100).toBigDecimal()))).thenReturn(1);
+
+        // When
+        hotAccountBalances.credit(productRepository, HOT_ACCOUNT, Money.of(100).minorUnits());
+
+        // Then
+        ArgumentCaptor<Integer> slot = ArgumentCaptor.forClass(Integer.class);
+        verify(slotRepository).credit(eq(HOT_ACCOUNT), slot.capture(), eq(Money.of(100).toBigDecimal()));
+        assertTrue(slot.getValue() >= 0 && slot.getValue() < 4);
+        verify(productRepository, never()).adjustBalance(anyLong(), any(BigDecimal.class));
+    }
+
+    @Test
+    void testCredit_FallsBackToProductRowWithoutSlots() {
+        // Given
+        when(slotRepository.credit(eq(HOT_ACCOUNT), anyInt(), any(BigDecimal.class))).thenReturn(0);
+        when(productRepository.adjustBalance(HOT_ACCOUNT, Money.of(100).toBigDecimal())).thenReturn(1);
+
+        // When
+        hotAccountBalances.credit(productRepository, HOT_ACCOUNT, Money.of(100).minorUnits());
+
+        // Then
+        verify(productRepository).adjustBalance(HOT_ACCOUNT, Money.of(100).toBigDecimal());
+    }
+
+    @Test
+    void testCredit_RegularAccountNeverTouchesSlots() {
+        // Given
+        when(productRepository.adjustBalance(REGULAR_ACCOUNT, Money.of(100).toBigDecimal())).thenReturn(1);
+
+        // When
+        hotAccountBalances.credit(productRepository, REGULAR_ACCOUNT, Money.of(100).minorUnits());
+
+        // Then
+        verifyNoInteractions(slotRepository);
+    }
+
+    @Test
+    void testDebit_HotAccountWithEnoughBaseBalanceSkipsConsolidation() {
+        // Given
+        when(productRepository.adjustBalance(HOT_ACCOUNT, Money.of(-50).toBigDecimal())).thenReturn(1);
+
+        // When
+        hotAccountBalances.debit(productRepository, HOT_ACCOUNT, Money.of(50).minorUnits());
+
+        // Then
+        verify(slotRepository, never()).lockSlots(anyLong());
+    }
+
+    @Test
+    void testDebit_HotAccountConsolidatesSlotsWhenBaseIsShort() {
+        // Given
+        when(productRepository.adjustBalance(HOT_ACCOUNT, Money.of(-50).toBigDecimal())).thenReturn(0, 1);
+        when(slotRepository.lockSlots(HOT_ACCOUNT)).thenReturn(List.of(new BigDecimal("30.00"), new BigDecimal("25.50")));
+        when(productRepository.adjustBalance(HOT_ACCOUNT, new BigDecimal("55.50"))).thenReturn(1);
+
+        // When
+        hotAccountBalances.debit(productRepository, HOT_ACCOUNT, Money.of(50).minorUnits());
+
+        // Then
+        InOrder inOrder = inOrder(slotRepository, productRepository);
+        inOrder.verify(slotRepository).lockSlots(HOT_ACCOUNT);
+        inOrder.verify(slotRepository).clear(HOT_ACCOUNT);
+        inOrder.verify(productRepository).adjustBalance(HOT_ACCOUNT, new BigDecimal("55.50"));
+        inOrder.verify(productRepository).adjustBalance(HOT_ACCOUNT, Money.of(-50).toBigDecimal());
+        assertEquals(1, meterRegistry.get("account.hot.consolidations").counter().count());
+    }
+
+    @Test
+    void testDebit_HotAccountInsufficientAfterConsolidation() {
+        // Given
+        when(productRepository.adjustBalance(HOT_ACCOUNT, Money.of(-50).toBigDecimal())).thenReturn(0);
+        when(slotRepository.lockSlots(HOT_ACCOUNT)).thenReturn(List.of(BigDecimal.ZERO, BigDecimal.ZERO));
+        when(productRepository.existsById(HOT_ACCOUNT)).thenReturn(true);
+
+        // When/Then
+        assertThrows(InvalidRequestException.class,
+                () -> hotAccountBalances.debit(productRepository, HOT_ACCOUNT, Money.of(50).minorUnits()));
+        verify(slotRepository, never()).clear(anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateMissingSlots_OnlyForExistingAccounts() {
+        // Given
+        when(productRepository.existsById(HOT_ACCOUNT)).thenReturn(true);
+        when(slotRepository.findSlotNumbers(HOT_ACCOUNT)).thenReturn(List.of(0, 2));
+
+        // When
+        hotAccountBalances.createMissingSlots(productRepository);
+
+        // Then
+        ArgumentCaptor<List<ProductBalanceSlot>> created = ArgumentCaptor.forClass(List.class);
+        verify(slotRepository).saveAll(created.capture());
+        List<Integer> slots = new ArrayList<>();
+        for (ProductBalanceSlot slot : created.getValue()) {
+            assertEquals(HOT_ACCOUNT, slot.getProductId());
+            assertEquals(Money.ZERO, slot.getBalance());
+            slots.add(slot.getSlot());
+        }
+        assertEquals(List.of(1, 3), slots);
+    }
+}
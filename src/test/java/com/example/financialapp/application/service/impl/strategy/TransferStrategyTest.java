@@ -1,20 +1,31 @@
 package com.example.financialapp.application.service.impl.strategy;
 
+import com.example.financialapp.adapters.outbound.ProductBalanceSlotRepository;
 import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.application.service.cache.ProductCache;
+import com.example.financialapp.application.service.lock.AccountLockManager;
+import com.example.financialapp.application.service.strategy.HotAccountBalances;
 import com.example.financialapp.application.service.strategy.TransferStrategy;
+import com.example.financialapp.domain.Money;
 import com.example.financialapp.domain.Product;
 import com.example.financialapp.domain.Transaction;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -23,73 +34,134 @@ class TransferStrategyTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductBalanceSlotRepository slotRepository;
+
+    @Mock
+    private ProductCache productCache;
+
     private TransferStrategy transferStrategy;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        transferStrategy = new TransferStrategy();
+        transferStrategy = new TransferStrategy(new AccountLockManager(new SimpleMeterRegistry(), 16, 1000, false),
+                noHotAccounts(), productCache);
+        when(productRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(stored(invocation.getArgument(0))));
+        when(productRepository.findBalance(anyLong())).thenReturn(Money.of(500).toBigDecimal());
     }
 
     @Test
     void testExecute_Success() {
         // Given
-        Transaction transaction = new Transaction();
-        transaction.setAmount(BigDecimal.valueOf(100));
-        Product sourceAccount = new Product();
-        sourceAccount.setId(1L);
-        sourceAccount.setBalance(BigDecimal.valueOf(1000));
-        Product destinationAccount = new Product();
-        destinationAccount.setId(1L);
-        destinationAccount.setBalance(BigDecimal.valueOf(500));
+        Transaction transaction = transfer(1L, 2L, 100);
 
-        transaction.setSourceAccount(sourceAccount);
-        transaction.setDestinationAccount(destinationAccount);
+        when(productRepository.adjustBalance(anyLong(), any(BigDecimal.class))).thenReturn(1);
+
+        // When
+        transferStrategy.execute(transaction, productRepository);
 
-        when(productRepository.findById(anyLong())).thenReturn(Optional.of(sourceAccount))
-                .thenReturn(Optional.of(destinationAccount));
+        // Then
+        verify(productRepository, times(1)).adjustBalance(1L, Money.of(-100).toBigDecimal());
+        verify(productRepository, times(1)).adjustBalance(2L, Money.of(100).toBigDecimal());
+        // The response carries both accounts as this transaction left them
+        assertEquals("530000001", transaction.getSourceAccount().getAccountNumber());
+        assertEquals(Money.of(500), transaction.getSourceAccount().getBalance());
+        assertEquals("530000002", transaction.getDestinationAccount().getAccountNumber());
+    }
+
+    @Test
+    void testExecute_UpdatesRowsInAscendingIdOrder() {
+        // Given
+        Transaction transaction = transfer(2L, 1L, 100);
+
+        when(productRepository.adjustBalance(anyLong(), any(BigDecimal.class))).thenReturn(1);
 
         // When
         transferStrategy.execute(transaction, productRepository);
 
         // Then
-        verify(productRepository, times(2)).save(any(Product.class));
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).adjustBalance(1L, Money.of(100).toBigDecimal());
+        inOrder.verify(productRepository).adjustBalance(2L, Money.of(-100).toBigDecimal());
+    }
+
+    @Test
+    void testExecute_LocksRowsInAscendingIdOrderWhenRowLocksEnabled() {
+        // Given
+        TransferStrategy rowLockingStrategy = new TransferStrategy(
+                new AccountLockManager(new SimpleMeterRegistry(), 16, 1000, true), noHotAccounts(), productCache);
+        Transaction transaction = transfer(2L, 1L, 100);
+
+        when(productRepository.adjustBalance(anyLong(), any(BigDecimal.class))).thenReturn(1);
+
+        // When
+        rowLockingStrategy.execute(transaction, productRepository);
+
+        // Then
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).lockForUpdate(List.of(1L, 2L));
+        inOrder.verify(productRepository).adjustBalance(1L, Money.of(100).toBigDecimal());
+        inOrder.verify(productRepository).adjustBalance(2L, Money.of(-100).toBigDecimal());
     }
 
     @Test
     void testExecute_ProductNotFound() {
         // Given
-        Transaction transaction = new Transaction();
-        transaction.setAmount(BigDecimal.valueOf(100));
-        Product sourceAccount = new Product();
-        sourceAccount.setId(1L);
-        transaction.setSourceAccount(sourceAccount);
+        Transaction transaction = transfer(1L, 2L, 100);
 
-        when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(productRepository.adjustBalance(anyLong(), any(BigDecimal.class))).thenReturn(0);
+        when(productRepository.existsById(anyLong())).thenReturn(false);
 
         // When/Then
         assertThrows(ResourceNotFoundException.class, () -> transferStrategy.execute(transaction, productRepository));
-        verify(productRepository, never()).save(any(Product.class));
+        verify(productRepository, never()).adjustBalance(2L, Money.of(100).toBigDecimal());
     }
 
     @Test
     void testExecute_InsufficientBalance() {
         // Given
+        Transaction transaction = transfer(1L, 2L, 1000);
+
+        when(productRepository.adjustBalance(anyLong(), any(BigDecimal.class))).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        // When/Then
+        assertThrows(InvalidRequestException.class, () -> transferStrategy.execute(transaction, productRepository));
+        verify(productRepository, never()).adjustBalance(2L, Money.of(1000).toBigDecimal());
+    }
+
+    @Test
+    void testExecute_InvalidTransferAmount() {
+        // Given
+        Transaction transaction = transfer(1L, 2L, -100);
+
+        // When/Then
+        assertThrows(InvalidRequestException.class, () -> transferStrategy.execute(transaction, productRepository));
+        verify(productRepository, never()).adjustBalance(anyLong(), any(BigDecimal.class));
+    }
+
+    private static Transaction transfer(Long sourceId, Long destinationId, long amount) {
         Transaction transaction = new Transaction();
-        transaction.setAmount(BigDecimal.valueOf(1000));
+        transaction.setAmount(Money.of(amount));
         Product sourceAccount = new Product();
-        sourceAccount.setId(1L);
-        sourceAccount.setBalance(BigDecimal.valueOf(500));
+        sourceAccount.setId(sourceId);
         Product destinationAccount = new Product();
-        destinationAccount.setId(1L);
+        destinationAccount.setId(destinationId);
         transaction.setSourceAccount(sourceAccount);
         transaction.setDestinationAccount(destinationAccount);
+        return transaction;
+    }
 
-        when(productRepository.findById(anyLong())).thenReturn(Optional.of(sourceAccount))
-                .thenReturn(Optional.of(destinationAccount));
+    private static Product stored(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setAccountNumber("53000000" + id);
+        product.setBalance(Money.of(1));
+        return product;
+    }
 
-        // When/Then
-        assertThrows(InvalidRequestException.class, () -> transferStrategy.execute(transaction, productRepository));
-        verify(productRepository, never()).save(any(Product.class));
+    private HotAccountBalances noHotAccounts() {
+        return new HotAccountBalances(slotRepository, new SimpleMeterRegistry(), Set.of(), 16);
     }
 }
@@ -1,11 +1,17 @@
 package com.example.financialapp.application.service.impl.strategy;
 
+import com.example.financialapp.adapters.outbound.ProductBalanceSlotRepository;
 import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.application.service.cache.ProductCache;
+import com.example.financialapp.application.service.lock.AccountLockManager;
+import com.example.financialapp.application.service.strategy.HotAccountBalances;
 import com.example.financialapp.application.service.strategy.WithdrawalStrategy;
+import com.example.financialapp.domain.Money;
 import com.example.financialapp.domain.Product;
 import com.example.financialapp.domain.Transaction;
 import com.example.financialapp.infrastructure.exception.InvalidRequestException;
 import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -13,8 +19,11 @@ import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -23,74 +32,96 @@ class WithdrawalStrategyTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductBalanceSlotRepository slotRepository;
+
+    @Mock
+    private ProductCache productCache;
+
     private WithdrawalStrategy withdrawalStrategy;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        withdrawalStrategy = new WithdrawalStrategy();
+        withdrawalStrategy = new WithdrawalStrategy(new AccountLockManager(new SimpleMeterRegistry(), 16, 1000, false),
+                noHotAccounts(), productCache);
+        when(productRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(stored(invocation.getArgument(0))));
+        when(productRepository.findBalance(anyLong())).thenReturn(Money.of(500).toBigDecimal());
     }
 
     @Test
     void testExecute_Success() {
         // Given
         Transaction transaction = new Transaction();
-        transaction.setAmount(BigDecimal.valueOf(-100));
+        transaction.setAmount(Money.of(-100));
         Product account = new Product();
         account.setId(1L);
-        account.setBalance(BigDecimal.valueOf(1000));
         transaction.setSourceAccount(account);
 
-        when(productRepository.findById(anyLong())).thenReturn(Optional.of(account));
+        when(productRepository.adjustBalance(1L, Money.of(-100).toBigDecimal())).thenReturn(1);
 
         // When
         withdrawalStrategy.execute(transaction, productRepository);
 
         // Then
-        verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, times(1)).adjustBalance(1L, Money.of(-100).toBigDecimal());
+        verify(productRepository, never()).existsById(anyLong());
+        assertEquals(Money.of(500), transaction.getSourceAccount().getBalance());
+        assertEquals("530000001", transaction.getSourceAccount().getAccountNumber());
     }
 
     @Test
     void testExecute_ProductNotFound() {
         // Given
         Transaction transaction = new Transaction();
-        transaction.setAmount(BigDecimal.valueOf(-100));
+        transaction.setAmount(Money.of(-100));
         Product account = new Product();
         account.setId(1L);
         transaction.setSourceAccount(account);
 
-        when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(productRepository.adjustBalance(anyLong(), any(BigDecimal.class))).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(false);
 
         // When/Then
         assertThrows(ResourceNotFoundException.class, () -> withdrawalStrategy.execute(transaction, productRepository));
-        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
     void testExecute_InsufficientBalance() {
         // Given
         Transaction transaction = new Transaction();
-        transaction.setAmount(BigDecimal.valueOf(-1000));
+        transaction.setAmount(Money.of(-1000));
         Product account = new Product();
         account.setId(1L);
-        account.setBalance(BigDecimal.valueOf(500));
         transaction.setSourceAccount(account);
 
-        when(productRepository.findById(anyLong())).thenReturn(Optional.of(account));
+        when(productRepository.adjustBalance(anyLong(), any(BigDecimal.class))).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
 
         // When/Then
         assertThrows(InvalidRequestException.class, () -> withdrawalStrategy.execute(transaction, productRepository));
-        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
     void testExecute_InvalidWithdrawalAmount() {
         // Given
         Transaction transaction = new Transaction();
-        transaction.setAmount(BigDecimal.valueOf(100));  // Positive amount
+        transaction.setAmount(Money.of(100));  // Positive amount
 
         // When/Then
         assertThrows(InvalidRequestException.class, () -> withdrawalStrategy.execute(transaction, productRepository));
-        verify(productRepository, never()).save(any(Product.class));
+        verify(productRepository, never()).adjustBalance(anyLong(), any(BigDecimal.class));
+    }
+
+    private static Product stored(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setAccountNumber("53000000" + id);
+        product.setBalance(Money.of(1));
+        return product;
+    }
+
+    private HotAccountBalances noHotAccounts() {
+        return new HotAccountBalances(slotRepository, new SimpleMeterRegistry(), Set.of(), 16);
     }
 }
@@ -0,0 +1,381 @@
+package com.example.financialapp.application.service.ledger;
+
+import com.example.financialapp.adapters.outbound.JournalCheckpointRepository;
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.adapters.outbound.TransactionRepository;
+import com.example.financialapp.domain.JournalCheckpoint;
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionType;
+import com.example.financialapp.infrastructure.exception.InvalidRequestException;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LedgerEngineTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LedgerEngine ledgerEngine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(productRepository.addToBalance(anyLong(), any())).thenReturn(1);
+        // Two partitions so that accounts 1 and 2 are owned by different writers
+        ledgerEngine = new LedgerEngine(productRepository, transactionRepository, null, transactionManager,
+                Optional.empty(), null, 2, 16, 8, 100_000);
+        ledgerEngine.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ledgerEngine.stop();
+    }
+
+    @Test
+    void testExecute_AppliesMovementsInSubmissionOrder() {
+        // Given
+        givenAccount(1L, 0);
+        List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            futures.add(ledgerEngine.submit(transaction(TransactionType.DEPOSIT, null, 1L, 10)));
+            futures.add(ledgerEngine.submit(transaction(TransactionType.WITHDRAWAL, 1L, null, -5)));
+        }
+        Transaction last = futures.get(futures.size() - 1).join();
+
+        // Then
+        // Every withdrawal found the deposit before it, and the net change is never zero, so it is always persisted
+        futures.forEach(future -> assertFalse(future.isCompletedExceptionally()));
+        assertEquals(0, last.getSourceAccount().getBalance().compareTo(Money.of(500)));
+        verify(productRepository, times(1)).findById(1L);
+        verify(productRepository, timeout(2000).atLeastOnce()).addToBalance(eq(1L), any());
+        verify(transactionRepository, timeout(2000).atLeastOnce()).saveAll(anyIterable());
+    }
+
+    @Test
+    void testExecute_InsufficientBalance() {
+        // Given
+        givenAccount(1L, 50);
+
+        // When/Then
+        assertThrows(InvalidRequestException.class,
+                () -> ledgerEngine.execute(transaction(TransactionType.WITHDRAWAL, 1L, null, -100)));
+    }
+
+    @Test
+    void testExecute_InvalidDepositAmount() {
+        // When/Then
+        assertThrows(InvalidRequestException.class,
+                () -> ledgerEngine.execute(transaction(TransactionType.DEPOSIT, null, 1L, -100)));
+        verify(productRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testExecute_TransferAcrossPartitions() {
+        // Given
+        givenAccount(1L, 1000);
+        givenAccount(2L, 500);
+
+        // When
+        Transaction result = ledgerEngine.execute(transaction(TransactionType.TRANSFER, 1L, 2L, 300));
+
+        // Then
+        assertEquals(0, result.getSourceAccount().getBalance().compareTo(Money.of(700)));
+        assertEquals(0, result.getDestinationAccount().getBalance().compareTo(Money.of(800)));
+    }
+
+    @Test
+    void testPersister_WritesBothLegsOfATransferTogether() {
+        // Given
+        givenAccount(1L, 1000);
+        givenAccount(2L, 500);
+
+        // When
+        ledgerEngine.execute(transaction(TransactionType.TRANSFER, 1L, 2L, 300));
+
+        // Then
+        verify(transactionRepository, timeout(2000)).saveAll(anyIterable());
+        // The transaction row is saved in the same database transaction as both balance changes
+        InOrder inOrder = inOrder(productRepository, transactionRepository);
+        inOrder.verify(productRepository).addToBalance(eq(2L), eq(Money.of(300).toBigDecimal()));
+        inOrder.verify(productRepository).addToBalance(eq(1L), eq(Money.of(-300).toBigDecimal()));
+        inOrder.verify(transactionRepository).saveAll(anyIterable());
+    }
+
+    @Test
+    void testStop_AppliesTransfersStillCrossingPartitions() throws InterruptedException {
+        // Given
+        givenAccount(1L, 1000);
+        givenAccount(2L, 0);
+        List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(ledgerEngine.submit(transaction(TransactionType.TRANSFER, 1L, 2L, 10)));
+        }
+
+        // When
+        ledgerEngine.stop();
+
+        // Then
+        // Every credit handed to the destination partition was applied and persisted before the engine stopped
+        futures.forEach(future -> assertTrue(future.isDone() && !future.isCompletedExceptionally()));
+        BigDecimal credited = mockingDetails(productRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("addToBalance")
+                        && invocation.getArgument(0).equals(2L))
+                .map(invocation -> (BigDecimal) invocation.getArgument(1))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, credited.compareTo(Money.of(500).toBigDecimal()));
+        assertThrows(IllegalStateException.class,
+                () -> ledgerEngine.submit(transaction(TransactionType.DEPOSIT, null, 1L, 10)));
+    }
+
+    @Test
+    void testExecute_TransferToUnknownAccountRefundsSource() {
+        // Given
+        givenAccount(1L, 1000);
+
+        // When/Then
+        assertThrows(ResourceNotFoundException.class,
+                () -> ledgerEngine.execute(transaction(TransactionType.TRANSFER, 1L, 2L, 300)));
+        Transaction withdrawal = ledgerEngine.execute(transaction(TransactionType.WITHDRAWAL, 1L, null, -1000));
+        assertEquals(0, withdrawal.getSourceAccount().getBalance().compareTo(Money.ZERO));
+    }
+
+    @Test
+    void testSubmit_TransferWithoutDestinationIsRejectedBeforeAnyDebit() {
+        // Given
+        givenAccount(1L, 1000);
+
+        // When/Then
+        assertThrows(InvalidRequestException.class,
+                () -> ledgerEngine.submit(transaction(TransactionType.TRANSFER, 1L, null, 300)));
+        assertThrows(InvalidRequestException.class,
+                () -> ledgerEngine.submit(transaction(TransactionType.WITHDRAWAL, null, null, -300)));
+        Transaction withdrawal = ledgerEngine.execute(transaction(TransactionType.WITHDRAWAL, 1L, null, -1000));
+        assertEquals(0, withdrawal.getSourceAccount().getBalance().compareTo(Money.ZERO));
+    }
+
+    @Test
+    void testPersister_WritesBalanceChangesNotBalances() {
+        // Given
+        givenAccount(1L, 100);
+
+        // When
+        ledgerEngine.execute(transaction(TransactionType.DEPOSIT, null, 1L, 30));
+        // Waiting keeps the two changes out of the same persister batch, which would write their sum
+        verify(productRepository, timeout(2000)).addToBalance(1L, Money.of(30).toBigDecimal());
+        ledgerEngine.setBalance(1L, Money.of(500));
+
+        // Then
+        verify(productRepository, timeout(2000)).addToBalance(1L, Money.of(370).toBigDecimal());
+        Transaction withdrawal = ledgerEngine.execute(transaction(TransactionType.WITHDRAWAL, 1L, null, -500));
+        assertEquals(0, withdrawal.getSourceAccount().getBalance().compareTo(Money.ZERO));
+    }
+
+    @Test
+    void testPersister_RejectedWriteDoesNotTakeTheBatchWithIt() {
+        // Given
+        givenAccount(1L, 100);
+        givenAccount(3L, 100);
+        // Product 3 was deleted behind the engine's back
+        when(productRepository.addToBalance(eq(3L), any())).thenReturn(0);
+
+        // When
+        ledgerEngine.execute(transaction(TransactionType.DEPOSIT, null, 3L, 10));
+        ledgerEngine.execute(transaction(TransactionType.DEPOSIT, null, 1L, 10));
+
+        // Then
+        verify(productRepository, timeout(2000).atLeastOnce()).addToBalance(1L, Money.of(10).toBigDecimal());
+        verify(transactionRepository, timeout(2000).atLeastOnce()).saveAll(
+                argThat(rows -> rows.iterator().hasNext()
+                        && rows.iterator().next().getDestinationAccount().getId().equals(1L)));
+    }
+
+    @Test
+    void testClose_RejectsLaterMovementsUntilReopened() {
+        // Given
+        givenAccount(1L, 0);
+
+        // When
+        ledgerEngine.close(1L);
+
+        // Then
+        assertThrows(ResourceNotFoundException.class,
+                () -> ledgerEngine.execute(transaction(TransactionType.DEPOSIT, null, 1L, 10)));
+        ledgerEngine.reopen(1L);
+        Transaction deposit = ledgerEngine.execute(transaction(TransactionType.DEPOSIT, null, 1L, 10));
+        assertEquals(0, deposit.getDestinationAccount().getBalance().compareTo(Money.of(10)));
+    }
+
+    @Test
+    void testClose_AccountWithBalance() {
+        // Given
+        givenAccount(1L, 10);
+
+        // When/Then
+        assertThrows(InvalidRequestException.class, () -> ledgerEngine.close(1L));
+        assertThrows(InvalidRequestException.class, () -> ledgerEngine.closeToCancel(1L));
+    }
+
+    @Test
+    void testAccounts_EvictsOnlyAccountsWhoseWritesArePersisted() throws InterruptedException {
+        // Given
+        givenAccount(1L, 100);
+        givenAccount(2L, 0);
+        givenAccount(3L, 0);
+        givenAccount(4L, 0);
+        givenAccount(5L, 0);
+        CountDownLatch persisting = new CountDownLatch(1);
+        when(productRepository.addToBalance(eq(1L), any())).thenAnswer(invocation -> {
+            persisting.await();
+            return 1;
+        });
+        // One partition that keeps at most two accounts
+        LedgerEngine bounded = new LedgerEngine(productRepository, transactionRepository, null, transactionManager,
+                Optional.empty(), null, 1, 16, 8, 2);
+        bounded.start();
+
+        try {
+            // When
+            bounded.execute(transaction(TransactionType.DEPOSIT, null, 1L, 10));
+            bounded.execute(transaction(TransactionType.DEPOSIT, null, 2L, 10));
+            bounded.execute(transaction(TransactionType.DEPOSIT, null, 3L, 10));
+            Transaction whilePending = bounded.execute(transaction(TransactionType.DEPOSIT, null, 1L, 10));
+            persisting.countDown();
+            // A closing account is answered once every earlier write is persisted
+            bounded.close(5L);
+            bounded.execute(transaction(TransactionType.DEPOSIT, null, 4L, 10));
+            bounded.execute(transaction(TransactionType.DEPOSIT, null, 2L, 10));
+            bounded.execute(transaction(TransactionType.DEPOSIT, null, 1L, 10));
+
+            // Then
+            // Account 1 stayed loaded over the bound while its writes were pending, and was evicted once they were not
+            assertEquals(0, whilePending.getDestinationAccount().getBalance().compareTo(Money.of(120)));
+            verify(productRepository, times(2)).findById(1L);
+        } finally {
+            persisting.countDown();
+            bounded.stop();
+        }
+    }
+
+    @Test
+    void testJournal_ReplaysUnpersistedMovementsOnRestart(@TempDir Path journalDirectory) throws InterruptedException {
+        // Given
+        JournalCheckpointRepository checkpointRepository = mock(JournalCheckpointRepository.class);
+        when(checkpointRepository.findAll()).thenReturn(List.of());
+        when(checkpointRepository.save(any(JournalCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        JournalSettings settings = new JournalSettings(journalDirectory, JournalFsyncPolicy.ALWAYS, 10, 4096);
+        givenAccount(1L, 100);
+        // The database is down while the first engine runs, so nothing gets past the journal
+        doThrow(new IllegalStateException("Database unavailable")).when(transactionRepository).saveAll(anyIterable());
+        LedgerEngine crashed = journalEngine(checkpointRepository, settings);
+        crashed.start();
+        Transaction deposit = crashed.execute(transaction(TransactionType.DEPOSIT, null, 1L, 10));
+        crashed.stop();
+        assertEquals(0, deposit.getDestinationAccount().getBalance().compareTo(Money.of(110)));
+        verify(checkpointRepository, never()).advance(anyInt(), anyLong());
+
+        // When
+        reset(transactionRepository);
+        LedgerEngine restarted = journalEngine(checkpointRepository, settings);
+        restarted.start();
+        restarted.stop();
+
+        // Then
+        verify(productRepository, atLeastOnce()).addToBalance(1L, Money.of(10).toBigDecimal());
+        verify(transactionRepository, times(1)).saveAll(anyIterable());
+        verify(checkpointRepository, times(1)).advance(1, 1L);
+    }
+
+    @Test
+    void testJournal_ReplaysBothLegsOfATransferFromOneRecord(@TempDir Path journalDirectory) throws InterruptedException {
+        // Given
+        JournalCheckpointRepository checkpointRepository = mock(JournalCheckpointRepository.class);
+        when(checkpointRepository.findAll()).thenReturn(List.of());
+        when(checkpointRepository.save(any(JournalCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        JournalSettings settings = new JournalSettings(journalDirectory, JournalFsyncPolicy.ALWAYS, 10, 4096);
+        givenAccount(1L, 1000);
+        givenAccount(2L, 500);
+        doThrow(new IllegalStateException("Database unavailable")).when(transactionRepository).saveAll(anyIterable());
+        LedgerEngine crashed = journalEngine(checkpointRepository, settings);
+        crashed.start();
+        crashed.execute(transaction(TransactionType.TRANSFER, 1L, 2L, 300));
+        crashed.stop();
+
+        // When
+        reset(transactionRepository);
+        clearInvocations(productRepository);
+        LedgerEngine restarted = journalEngine(checkpointRepository, settings);
+        restarted.start();
+        restarted.stop();
+
+        // Then
+        verify(productRepository, times(1)).addToBalance(1L, Money.of(-300).toBigDecimal());
+        verify(productRepository, times(1)).addToBalance(2L, Money.of(300).toBigDecimal());
+        // Only the partition of the destination, account 2, journaled anything
+        verify(checkpointRepository, times(1)).advance(0, 1L);
+        verify(checkpointRepository, never()).advance(eq(1), anyLong());
+    }
+
+    private LedgerEngine journalEngine(JournalCheckpointRepository checkpointRepository, JournalSettings settings) {
+        return new LedgerEngine(productRepository, transactionRepository, checkpointRepository, transactionManager,
+                Optional.of(settings), null, 2, 16, 8, 100_000);
+    }
+
+    private void givenAccount(Long id, long balance) {
+        Product account = new Product();
+        account.setId(id);
+        account.setBalance(Money.of(balance));
+        when(productRepository.findById(id)).thenReturn(Optional.of(account));
+    }
+
+    private static Transaction transaction(TransactionType type, Long sourceId, Long destinationId, long amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(type);
+        transaction.setAmount(Money.of(amount));
+        if (sourceId != null) {
+            Product source = new Product();
+            source.setId(sourceId);
+            transaction.setSourceAccount(source);
+        }
+        if (destinationId != null) {
+            Product destination = new Product();
+            destination.setId(destinationId);
+            transaction.setDestinationAccount(destination);
+        }
+        return transaction;
+    }
+}
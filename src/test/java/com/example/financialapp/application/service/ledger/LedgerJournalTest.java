@@ -0,0 +1,155 @@
+package com.example.financialapp.application.service.ledger;
+
+import com.example.financialapp.domain.Money;
+import com.example.financialapp.domain.Product;
+import com.example.financialapp.domain.Transaction;
+import com.example.financialapp.domain.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecover_ReturnsRecordsAfterCheckpoint() {
+        // Given
+        LedgerJournal journal = new LedgerJournal(directory, settings(1024), 1);
+        journal.append(1L, Money.of(new BigDecimal("100.50")), transfer(1L, 2L, "20.25"));
+        journal.append(2L, Money.of(new BigDecimal("7")), null);
+        journal.append(1L, Money.of(new BigDecimal("80.25")), transfer(1L, 2L, "20.25"));
+        journal.sync();
+
+        // When
+        LedgerJournal.Recovery recovery = LedgerJournal.recover(directory, 3, 1);
+
+        // Then
+        assertEquals(3, recovery.lastSequence());
+        List<LedgerWrite> writes = recovery.writes();
+        assertEquals(2, writes.size());
+        assertEquals(new LedgerWrite(3, 2, 2L, Money.of(new BigDecimal("7")), null), writes.get(0));
+        LedgerWrite last = writes.get(1);
+        assertEquals(3, last.sequence());
+        assertEquals(Money.of(new BigDecimal("80.25")), last.change());
+        assertEquals(TransactionType.TRANSFER, last.transaction().getTransactionType());
+        assertEquals(Money.of(new BigDecimal("20.25")), last.transaction().getAmount());
+        assertEquals(1L, last.transaction().getSourceAccount().getId());
+        assertEquals(2L, last.transaction().getDestinationAccount().getId());
+    }
+
+    @Test
+    void testRecover_StopsAtTornRecord() throws IOException {
+        // Given
+        LedgerJournal journal = new LedgerJournal(directory, settings(1024), 1);
+        journal.append(1L, Money.of(1), null);
+        journal.append(1L, Money.of(10), null);
+        journal.close();
+        try (RandomAccessFile file = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            file.seek(LedgerJournal.RECORD_SIZE + 20);
+            file.write(0x7f);
+        }
+
+        // When
+        LedgerJournal.Recovery recovery = LedgerJournal.recover(directory, 0, 0);
+
+        // Then
+        assertEquals(1, recovery.writes().size());
+        assertEquals(1, recovery.lastSequence());
+    }
+
+    @Test
+    void testAppend_RollsSegmentsAndDeletesCheckpointedOnes() throws IOException {
+        // Given
+        LedgerJournal journal = new LedgerJournal(directory, settings(2 * LedgerJournal.RECORD_SIZE), 1);
+        for (int i = 0; i < 4; i++) {
+            journal.append(1L, Money.of(i), null);
+        }
+        assertEquals(2, segmentCount());
+
+        // When
+        journal.checkpoint(2);
+        journal.append(1L, Money.of(10), null);
+
+        // Then
+        assertEquals(2, segmentCount());
+        LedgerJournal.Recovery recovery = LedgerJournal.recover(directory, 0, 2);
+        assertEquals(3, recovery.writes().size());
+        assertEquals(5, recovery.lastSequence());
+    }
+
+    @Test
+    void testRecover_TransferRecordCarriesBothLegs() {
+        // Given
+        LedgerJournal journal = new LedgerJournal(directory, settings(1024), 1);
+        journal.append(2L, Money.of(new BigDecimal("20.25")), transfer(1L, 2L, "20.25"), true);
+        journal.sync();
+
+        // When
+        List<LedgerWrite> writes = LedgerJournal.recover(directory, 0, 0).writes();
+
+        // Then
+        assertEquals(1, writes.size());
+        assertTrue(writes.get(0).debitsSource());
+        assertEquals(2L, writes.get(0).productId());
+        assertEquals(1L, writes.get(0).transaction().getSourceAccount().getId());
+    }
+
+    @Test
+    void testRecover_ContinuesAfterRestart() {
+        // Given
+        LedgerJournal journal = new LedgerJournal(directory, settings(1024), 1);
+        journal.append(1L, Money.of(1), null);
+        journal.close();
+        long next = LedgerJournal.recover(directory, 0, 0).lastSequence() + 1;
+        LedgerJournal.deleteSegments(directory);
+
+        // When
+        LedgerJournal restarted = new LedgerJournal(directory, settings(1024), next);
+        long sequence = restarted.append(1L, Money.of(10), null);
+
+        // Then
+        assertEquals(2, sequence);
+        assertEquals(List.of(new LedgerWrite(0, 2, 1L, Money.of(10), null)),
+                LedgerJournal.recover(directory, 0, 1).writes());
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static JournalSettings settings(int segmentSizeBytes) {
+        return new JournalSettings(Path.of("unused"), JournalFsyncPolicy.ALWAYS, 10, segmentSizeBytes);
+    }
+
+    private static Transaction transfer(Long sourceId, Long destinationId, String amount) {
+        Product source = new Product();
+        source.setId(sourceId);
+        Product destination = new Product();
+        destination.setId(destinationId);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.TRANSFER);
+        transaction.setAmount(Money.of(new BigDecimal(amount)));
+        transaction.setSourceAccount(source);
+        transaction.setDestinationAccount(destination);
+        return transaction;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.financialapp.application.service.lock;
+
+import com.example.financialapp.adapters.outbound.ProductRepository;
+import com.example.financialapp.infrastructure.exception.AccountLockTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class AccountLockManagerTest {
+
+    private static final int THREADS = 8;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountLockManager accountLockManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        accountLockManager = new AccountLockManager(meterRegistry, 1024, 5000, false);
+    }
+
+    @Test
+    void testLock_OppositeDirectionsNeverDeadlock() throws Exception {
+        // Given
+        long[] balances = new long[8];
+        Random random = new Random(7);
+        List<Callable<Void>> transfers = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int source = random.nextInt(balances.length);
+            int destination = (source + 1 + random.nextInt(balances.length - 1)) % balances.length;
+            transfers.add(() -> {
+                try (AccountLockManager.Locks locks = accountLockManager.lock(productRepository, (long) source, (long) destination)) {
+                    balances[source]--;
+                    balances[destination]++;
+                }
+                return null;
+            });
+        }
+
+        // When
+        runInParallel(transfers, THREADS);
+
+        // Then
+        long total = 0;
+        for (long balance : balances) {
+            total += balance;
+        }
+        assertEquals(0, total);
+        // Every transfer spans two distinct stripes, and each acquisition records its wait
+        assertEquals(2L * transfers.size(), meterRegistry.get("account.lock.wait").timer().count());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testLock_DisjointAccountsScaleLinearly() throws Exception {
+        // Given
+        int operationsPerThread = 50;
+        long sequential = timeDisjointWork(1, operationsPerThread);
+
+        // When
+        long parallel = timeDisjointWork(THREADS, operationsPerThread);
+
+        // Then
+        // THREADS times the work in roughly the same wall time; allow half of ideal scaling for noisy CI hosts
+        double speedup = (double) sequential * THREADS / parallel;
+        assertTrue(speedup >= THREADS * 0.5, "Expected near linear scaling but got a speedup of " + speedup);
+        assertEquals(0, meterRegistry.get("account.lock.contended").counter().count());
+    }
+
+    @Test
+    void testLock_TimesOutWhenStripeIsHeld() throws Exception {
+        // Given
+        AccountLockManager shortTimeout = new AccountLockManager(meterRegistry, 16, 50, false);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService holder = Executors.newSingleThreadExecutor();
+        holder.submit(() -> {
+            try (AccountLockManager.Locks locks = shortTimeout.lock(productRepository, 1L)) {
+                held.countDown();
+                release.await();
+            }
+            return null;
+        });
+        held.await();
+
+        // When/Then
+        try {
+            assertThrows(AccountLockTimeoutException.class, () -> shortTimeout.lock(productRepository, 1L));
+            assertEquals(1, meterRegistry.get("account.lock.timeouts").counter().count());
+        } finally {
+            release.countDown();
+            holder.shutdown();
+        }
+    }
+
+    @Test
+    void testLock_InsideATransactionReleasedOnClose() throws Exception {
+        // Given
+        AccountLockManager shortTimeout = new AccountLockManager(meterRegistry, 16, 50, false);
+        CountDownLatch closed = new CountDownLatch(1);
+        CountDownLatch complete = new CountDownLatch(1);
+        ExecutorService holder = Executors.newSingleThreadExecutor();
+        Future<List<TransactionSynchronization>> registered = holder.submit(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                shortTimeout.lock(productRepository, 1L).close();
+                closed.countDown();
+                complete.await();
+                return TransactionSynchronizationManager.getSynchronizations();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        closed.await();
+
+        // When/Then
+        // The holder's transaction has not completed, yet the next item can take the stripe
+        try {
+            shortTimeout.lock(productRepository, 1L).close();
+            complete.countDown();
+            assertTrue(registered.get().isEmpty());
+        } finally {
+            complete.countDown();
+            holder.shutdown();
+        }
+    }
+
+    @Test
+    void testLock_AcquiresRowLocksInAscendingIdOrder() {
+        // Given
+        AccountLockManager rowLocking = new AccountLockManager(meterRegistry, 16, 1000, true);
+
+        // When
+        rowLocking.lock(productRepository, 9L, 3L, 9L).close();
+
+        // Then
+        verify(productRepository).lockForUpdate(List.of(3L, 9L));
+    }
+
+    // Each worker owns its own account, and the critical section stands in for a database round trip
+    private long timeDisjointWork(int threads, int operationsPerThread) throws Exception {
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long accountId = t + 1;
+            workers.add(() -> {
+                for (int i = 0; i < operationsPerThread; i++) {
+                    try (AccountLockManager.Locks locks = accountLockManager.lock(productRepository, accountId)) {
+                        TimeUnit.MILLISECONDS.sleep(2);
+                    }
+                }
+                return null;
+            });
+        }
+        long start = System.nanoTime();
+        runInParallel(workers, threads);
+        return System.nanoTime() - start;
+    }
+
+    private void runInParallel(List<Callable<Void>> tasks, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks, 60, TimeUnit.SECONDS)) {
+                assertFalse(future.isCancelled(), "Lock acquisition did not finish, possible deadlock");
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
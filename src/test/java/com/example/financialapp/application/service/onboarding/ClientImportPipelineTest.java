@@ -0,0 +1,224 @@
+package com.example.financialapp.application.service.onboarding;
+
+import com.example.financialapp.adapters.outbound.AccountNumberBlockRepository;
+import com.example.financialapp.adapters.outbound.ClientImportChunkRepository;
+import com.example.financialapp.adapters.outbound.ClientRepository;
+import com.example.financialapp.application.service.sequence.AccountNumberAllocator;
+import com.example.financialapp.domain.Client;
+import com.example.financialapp.domain.ClientImportChunk;
+import com.example.financialapp.domain.ClientImportProgress;
+import com.example.financialapp.infrastructure.exception.ResourceNotFoundException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+// A database of its own: the other test contexts recreate the schema of the shared one, sequences included
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:client_import;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+        + "LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClientImportPipelineTest {
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ClientImportChunkRepository chunkRepository;
+
+    @Autowired
+    private AccountNumberBlockRepository blockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private ClientImportPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM client_import_chunks");
+        jdbcTemplate.update("DELETE FROM balance_checkpoints");
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM product_balance_slots");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM clients");
+        ClientRowParser parser = new ClientRowParser(Validation.buildDefaultValidatorFactory().getValidator(),
+                new AccountNumberAllocator(blockRepository, transactionManager, 10));
+        // Chunks of 4 clients, two parsers and two writers, and a 1 KB buffer so lines straddle reads
+        pipeline = new ClientImportPipeline(parser, clientRepository, chunkRepository, transactionManager,
+                directory.toString(), 4, 2, 2, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void testImport_CommitsEveryChunkAndWritesRejects() throws Exception {
+        // Given
+        List<String> lines = clientLines(30);
+        lines.add(7, "CC,9001,Kid,Poe,kid@example.com,2020-01-01,SAVINGS,10,false");
+        lines.add("CC,9002,Ana,Roe,ana@example.com,1980-01-01,SAVINGS,10,false");
+        lines.add("CC,9002,Ana,Roe,ana@example.com,1980-01-01,CHECKING,-5,true");
+        write("portfolio.csv", lines);
+
+        // When
+        pipeline.start("portfolio.csv");
+        ClientImportProgress progress = awaitFinished("portfolio.csv");
+
+        // Then
+        assertNull(progress.failure());
+        assertEquals(31, progress.clients());
+        assertEquals(32, progress.products());
+        assertEquals(1, progress.rejected());
+        assertEquals(31L, count("SELECT COUNT(*) FROM clients"));
+        assertEquals(32L, count("SELECT COUNT(*) FROM products"));
+        List<String> rejects = Files.readAllLines(directory.resolve("portfolio.csv.rejects"));
+        assertEquals(1, rejects.size());
+        // The header is line 1
+        assertTrue(rejects.get(0).startsWith("9,\"line 9: Client must be 18 years or older.\",CC,9001"));
+    }
+
+    @Test
+    void testImport_ResumesAfterTheCommittedChunks() throws Exception {
+        // Given
+        List<String> lines = clientLines(10);
+        write("portfolio.csv", lines);
+        // An earlier run committed the first 4 clients (lines 2 to 5) before it was interrupted
+        long start = ClientRowParser.HEADER.length() + 1;
+        long end = start + lines.subList(0, 4).stream().mapToLong(line -> line.length() + 1).sum();
+        ClientImportChunk committed = new ClientImportChunk();
+        committed.setFileName("portfolio.csv");
+        committed.setStartOffset(start);
+        committed.setEndOffset(end);
+        committed.setFirstLine(2);
+        committed.setLastLine(5);
+        committed.setClients(4);
+        committed.setProducts(4);
+        committed.setCommittedAt(LocalDateTime.now());
+        chunkRepository.save(committed);
+
+        // When
+        pipeline.start("portfolio.csv");
+        ClientImportProgress progress = awaitFinished("portfolio.csv");
+
+        // Then
+        assertNull(progress.failure());
+        assertEquals(10, progress.clients());
+        assertEquals(6L, count("SELECT COUNT(*) FROM clients"));
+        assertEquals(0L, count("SELECT COUNT(*) FROM clients WHERE identification_number IN ('1000', '1003')"));
+        assertEquals(1L, count("SELECT COUNT(*) FROM clients WHERE identification_number = '1004'"));
+    }
+
+    @Test
+    void testImport_RejectsAlreadyRegisteredClient() throws Exception {
+        // Given
+        // Saved through the repository, so its id comes from the same sequence as the imported clients'
+        Client registered = new Client();
+        registered.setIdentificationType("CC");
+        registered.setIdentificationNumber("1002");
+        registered.setFirstName("Jane");
+        registered.setLastName("Doe");
+        registered.setEmail("jane@example.com");
+        registered.setBirthdate(LocalDate.of(1990, 1, 1));
+        clientRepository.save(registered);
+        write("portfolio.csv", clientLines(6));
+
+        // When
+        pipeline.start("portfolio.csv");
+        ClientImportProgress progress = awaitFinished("portfolio.csv");
+
+        // Then
+        assertEquals(5, progress.clients());
+        assertEquals(1, progress.rejected());
+        assertEquals(6L, count("SELECT COUNT(*) FROM clients"));
+        assertTrue(Files.readString(directory.resolve("portfolio.csv.rejects")).startsWith("4,"));
+    }
+
+    @Test
+    void testImport_RejectsAnEmailRepeatedInTheFile() throws Exception {
+        // Given
+        List<String> lines = clientLines(6);
+        // The second chunk repeats the email of a client in the first one; whichever chunk commits first keeps it
+        lines.add("CC,2000,Other,Person,client1@example.com,1980-01-01,SAVINGS,100.00,false");
+        write("portfolio.csv", lines);
+
+        // When
+        pipeline.start("portfolio.csv");
+        ClientImportProgress progress = awaitFinished("portfolio.csv");
+
+        // Then
+        assertNull(progress.failure());
+        assertEquals(6, progress.clients());
+        assertEquals(1, progress.rejected());
+        assertEquals(6L, count("SELECT COUNT(*) FROM clients"));
+        assertEquals(1L, count("SELECT COUNT(*) FROM clients WHERE email = 'client1@example.com'"));
+        assertEquals(1, Files.readAllLines(directory.resolve("portfolio.csv.rejects")).size());
+    }
+
+    @Test
+    void testStart_FileOutsideTheImportDirectory() {
+        // When/Then
+        assertThrows(ResourceNotFoundException.class, () -> pipeline.start("../portfolio.csv"));
+    }
+
+    private ClientImportProgress awaitFinished(String fileName) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        ClientImportProgress progress = pipeline.progress(fileName);
+        while (progress.running() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            progress = pipeline.progress(fileName);
+        }
+        assertFalse(progress.running());
+        return progress;
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private void write(String fileName, List<String> lines) throws Exception {
+        List<String> content = new ArrayList<>();
+        content.add(ClientRowParser.HEADER);
+        content.addAll(lines);
+        Files.write(directory.resolve(fileName), content, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> clientLines(int clients) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            lines.add("CC," + (1000 + i) + ",First" + i + ",Last" + i + ",client" + i + "@example.com,1980-01-01,"
+                    + "SAVINGS,100.00,false");
+        }
+        return lines;
+    }
+}
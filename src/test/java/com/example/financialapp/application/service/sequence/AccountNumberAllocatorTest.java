@@ -0,0 +1,134 @@
+package com.example.financialapp.application.service.sequence;
+
+import com.example.financialapp.adapters.outbound.AccountNumberBlockRepository;
+import com.example.financialapp.domain.AccountType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountNumberAllocatorTest {
+
+    @Autowired
+    private AccountNumberBlockRepository blockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM account_number_blocks");
+    }
+
+    @Test
+    void testNext_NumbersInOneBlockReserveOnce() {
+        // Given
+        AccountNumberAllocator allocator = allocator(10);
+
+        // When
+        String first = allocator.next(AccountType.SAVINGS);
+        String second = allocator.next(AccountType.SAVINGS);
+
+        // Then
+        assertEquals("5300000001", first);
+        assertEquals("5300000002", second);
+        assertEquals(11L, nextValue("53"));
+    }
+
+    @Test
+    void testNext_PrefixesAreSeparateSequences() {
+        // Given
+        AccountNumberAllocator allocator = allocator(10);
+        allocator.next(AccountType.SAVINGS);
+
+        // When
+        String checking = allocator.next(AccountType.CHECKING);
+
+        // Then
+        assertEquals("3300000001", checking);
+    }
+
+    @Test
+    void testNext_RestartSkipsOnlyTheUnusedBlock() {
+        // Given
+        allocator(10).next(AccountType.SAVINGS);
+
+        // When
+        String afterRestart = allocator(10).next(AccountType.SAVINGS);
+
+        // Then
+        assertEquals("5300000011", afterRestart);
+    }
+
+    @Test
+    void testNext_ContinuesFromSeededRow() {
+        // Given
+        jdbcTemplate.update("INSERT INTO account_number_blocks (prefix, next_value) VALUES ('33', 500)");
+
+        // When
+        String number = allocator(10).next(AccountType.CHECKING);
+
+        // Then
+        assertEquals("3300000500", number);
+    }
+
+    @Test
+    void testNext_ConcurrentCallersNeverShareANumber() throws Exception {
+        // Given
+        AccountNumberAllocator allocator = allocator(7);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<String>>> futures = new ArrayList<>();
+
+        // When
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                List<String> numbers = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    numbers.add(allocator.next(AccountType.SAVINGS));
+                }
+                return numbers;
+            }));
+        }
+        Set<String> numbers = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            numbers.addAll(future.get());
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(400, numbers.size());
+        // 400 numbers are 58 blocks of 7
+        assertEquals(407L, nextValue("53"));
+    }
+
+    private AccountNumberAllocator allocator(int blockSize) {
+        return new AccountNumberAllocator(blockRepository, transactionManager, blockSize);
+    }
+
+    private long nextValue(String prefix) {
+        return jdbcTemplate.queryForObject("SELECT next_value FROM account_number_blocks WHERE prefix = ?", Long.class, prefix);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.financialapp.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void testOf_NormalizesScale() {
+        // When
+        Money money = Money.of(new BigDecimal("100.5"));
+
+        // Then
+        assertEquals(10050, money.minorUnits());
+        assertEquals(Money.of(new BigDecimal("100.50")), money);
+        assertEquals(new BigDecimal("100.50"), money.toBigDecimal());
+    }
+
+    @Test
+    void testOf_RejectsSubCentAmounts() {
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void testArithmetic() {
+        // Given
+        Money balance = Money.of(new BigDecimal("10.25"));
+        Money amount = Money.of(new BigDecimal("0.75"));
+
+        // When/Then
+        assertEquals(Money.of(11), balance.plus(amount));
+        assertEquals(Money.of(new BigDecimal("9.50")), balance.minus(amount));
+        assertEquals(amount, amount.negate().abs());
+        assertTrue(amount.isLessThan(balance));
+        assertTrue(amount.negate().isNegative());
+        assertTrue(balance.minus(balance).isZero());
+    }
+
+    @Test
+    void testArithmetic_OverflowFails() {
+        // Given
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        // When/Then
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+    }
+
+    @Test
+    void testJson_KeepsDecimalRepresentation() throws Exception {
+        // Given
+        Transaction transaction = new Transaction();
+        transaction.setAmount(Money.of(new BigDecimal("20.25")));
+
+        // When
+        String json = objectMapper.writeValueAsString(transaction);
+        Transaction read = objectMapper.readValue("{\"amount\": 20.25}", Transaction.class);
+
+        // Then
+        assertTrue(json.contains("\"amount\":20.25"));
+        assertEquals(transaction.getAmount(), read.getAmount());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.financialapp.infrastructure.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestSummaryFilterTest {
+
+    private final Logger requestLogger = (Logger) LoggerFactory.getLogger(RequestSummaryFilter.LOGGER_NAME);
+
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        appender = new ListAppender<>();
+        appender.start();
+        requestLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestLogger.detachAppender(appender);
+    }
+
+    @Test
+    void testSuccessfulRequestOutsideTheSample() throws Exception {
+        // Given
+        RequestSummaryFilter filter = new RequestSummaryFilter(0, 1000);
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/clients/1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void testErrorIsAlwaysSummarizedWithTheMappedPath() throws Exception {
+        // Given
+        RequestSummaryFilter filter = new RequestSummaryFilter(0, 1000);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/clients/by-email/jane@example.com");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/clients/by-email/{email}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(404);
+
+        // When
+        filter.doFilter(request, response, new MockFilterChain());
+
+        // Then
+        assertEquals(1, appender.list.size());
+        String line = appender.list.get(0).getFormattedMessage();
+        assertTrue(line.contains("\"method\":\"GET\",\"path\":\"/api/clients/by-email/{email}\",\"status\":404,"));
+        assertTrue(line.endsWith(",\"sampleRate\":1.0}"));
+        assertFalse(line.contains("jane@example.com"));
+    }
+
+    @Test
+    void testSampledRequestCarriesTheSampleRate() throws Exception {
+        // Given
+        RequestSummaryFilter filter = new RequestSummaryFilter(1, 1000);
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/transactions"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("\"path\":\"/api/transactions\",\"status\":200,"));
+    }
+
+    @Test
+    void testAsyncTimeoutIsSummarizedOnceAs503() throws Exception {
+        // Given
+        RequestSummaryFilter filter = new RequestSummaryFilter(0, 1000);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+
+        // When
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        asyncContext.complete();
+
+        // Then
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("\"status\":503,"));
+    }
+
+    @Test
+    void testAsyncErrorIsSummarizedOnceAs500() throws Exception {
+        // Given
+        RequestSummaryFilter filter = new RequestSummaryFilter(0, 1000);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+
+        // When
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onError(new AsyncEvent(asyncContext, new IOException("Broken pipe")));
+        }
+        asyncContext.complete();
+
+        // Then
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("\"status\":500,"));
+    }
+
+    @Test
+    void testSummaryEscapesQuotes() {
+        // When
+        String line = RequestSummaryFilter.summary("GET", "/a\"b", 200, 5, 0.5);
+
+        // Then
+        assertTrue(line.contains("\"path\":\"/a\\\"b\""));
+        assertTrue(line.endsWith("\"status\":200,\"durationMs\":5,\"sampleRate\":0.5}"));
+    }
+
+    @Test
+    void testInvalidSampleRate() {
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> new RequestSummaryFilter(1.5, 1000));
+    }
+}